@@ -0,0 +1,141 @@
+/**
+ * this benchmark times working out every square's nearby mine count for a
+ * board whose mines are already picked, three ways: the bit-parallel pass
+ * the board does now, fixing the eight neighbors of each mine one at a time
+ * the way setMine does, and asking every tile object to count its neighbor
+ * list the way the old tile board did
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.Board;
+import minesweeper.MinePlacer;
+import minesweeper.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * whole-board mine counts for every menu preset and a very large board
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AdjacencyBenchmark {
+    /** which board to count */
+    @Param({"EASY", "MEDIUM", "HARD", "1000x1000x150000"})
+    public String board;
+
+    /** how many columns wide the board is */
+    private int boardColumns;
+    /** how many rows tall the board is */
+    private int boardRows;
+    /** the mines, a bit per square */
+    private long[] mineBits;
+    /** the mines' square indexes */
+    private int[] mines;
+    /** how many of mines are used */
+    private int mineCount;
+    /** the same mines on linked tile objects */
+    private Tile[][] tiles;
+    /** where the tile counts go */
+    private int[] tileCounts;
+
+    /** picks the mines once and builds the tile graph for them */
+    @Setup
+    public void setUp() {
+        int[] size = BoardSizes.parse(board);
+        boardColumns = size[0];
+        boardRows = size[1];
+        int cellCount = boardColumns * boardRows;
+        mineBits = new long[(cellCount + 63) >>> 6];
+        mines = new int[size[2]];
+        mineCount = new MinePlacer(1).sampleCells(cellCount, size[2], mines, mineBits);
+        for (int i = 0; i < mineCount; i++) {
+            mineBits[mines[i] >>> 6] |= 1L << mines[i];
+        }
+
+        tiles = new Tile[boardRows][boardColumns];
+        for (int rowIndex = 0; rowIndex < boardRows; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < boardColumns; columnIndex++) {
+                tiles[rowIndex][columnIndex] = new Tile(rowIndex, columnIndex);
+            }
+        }
+        for (int rowIndex = 0; rowIndex < boardRows; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < boardColumns; columnIndex++) {
+                for (int rowOffset = -1; rowOffset <= 1; rowOffset++) {
+                    for (int colOffset = -1; colOffset <= 1; colOffset++) {
+                        int neighborRow = rowIndex + rowOffset;
+                        int neighborColumn = columnIndex + colOffset;
+                        if ((rowOffset != 0 || colOffset != 0)
+                                && neighborRow >= 0 && neighborRow < boardRows
+                                && neighborColumn >= 0 && neighborColumn < boardColumns) {
+                            tiles[rowIndex][columnIndex].addNeighbor(tiles[neighborRow][neighborColumn]);
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < mineCount; i++) {
+            tiles[mines[i] / boardColumns][mines[i] % boardColumns].setMine(true);
+        }
+        tileCounts = new int[cellCount];
+    }
+
+    /**
+     * puts the mines on an empty board in one bit-parallel pass
+     *
+     * @return the board, so the work isn't optimized away
+     */
+    @Benchmark
+    public Board bitParallel() {
+        Board counted = new Board(boardColumns, boardRows);
+        counted.setMines(mineBits);
+        return counted;
+    }
+
+    /**
+     * puts the mines on an empty board one at a time, each fixing its neighbors' counts
+     *
+     * @return the board, so the work isn't optimized away
+     */
+    @Benchmark
+    public Board perMine() {
+        Board counted = new Board(boardColumns, boardRows);
+        for (int i = 0; i < mineCount; i++) {
+            counted.setMine(mines[i], true);
+        }
+        return counted;
+    }
+
+    /**
+     * asks every tile to count the mines in its neighbor list
+     *
+     * @return the counts, so the work isn't optimized away
+     */
+    @Benchmark
+    public int[] tileObjects() {
+        int cellIndex = 0;
+        for (Tile[] row : tiles) {
+            for (Tile tile : row) {
+                tileCounts[cellIndex++] = tile.getAdjacentMineCount();
+            }
+        }
+        return tileCounts;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * this is the entry point of the benchmark jar. it runs jmh with whatever
+ * command line options it was given and always turns on the gc profiler,
+ * so every result comes with its allocations per operation
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the jmh benchmarks with the gc profiler on
+ */
+public class Benchmarks {
+    /**
+     * runs the benchmarks
+     *
+     * @param args the usual jmh options, like a benchmark name pattern or -p to pick parameters
+     * @throws Exception if jmh can't parse the options or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * this benchmark times making a board: hiding the mines with the seeded
+ * placer (with and without a safe first click) and, for comparison, the old
+ * way of building one tile object per square and linking up its neighbors
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.Board;
+import minesweeper.MinePlacer;
+import minesweeper.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * board generation for every menu preset and a very large board
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BoardGenerationBenchmark {
+    /** which board to generate */
+    @Param({"EASY", "MEDIUM", "HARD", "1000x1000x150000"})
+    public String board;
+
+    /** how many columns wide the board is */
+    private int boardColumns;
+    /** how many rows tall the board is */
+    private int boardRows;
+    /** how many mines to hide */
+    private int totalMines;
+    /** the seed for the next board, so every call makes a different one */
+    private long seed;
+
+    /** reads the board parameter */
+    @Setup
+    public void setUp() {
+        int[] size = BoardSizes.parse(board);
+        boardColumns = size[0];
+        boardRows = size[1];
+        totalMines = size[2];
+    }
+
+    /**
+     * makes an empty board and hides the mines anywhere
+     *
+     * @return the board, so the work isn't optimized away
+     */
+    @Benchmark
+    public Board placeMines() {
+        Board generated = new Board(boardColumns, boardRows);
+        new MinePlacer(seed++).placeMines(generated, totalMines);
+        return generated;
+    }
+
+    /**
+     * makes an empty board and hides the mines away from a first click in the middle
+     *
+     * @return the board, so the work isn't optimized away
+     */
+    @Benchmark
+    public Board placeMinesSafeFirstClick() {
+        Board generated = new Board(boardColumns, boardRows);
+        new MinePlacer(seed++).placeMines(generated, totalMines, boardRows / 2, boardColumns / 2);
+        return generated;
+    }
+
+    /**
+     * the neighbor setup the window used to do: one tile per square, each
+     * linked to the tiles around it
+     *
+     * @return the tiles, so the work isn't optimized away
+     */
+    @Benchmark
+    public Tile[][] tileGraphSetup() {
+        Tile[][] tiles = new Tile[boardRows][boardColumns];
+        for (int rowIndex = 0; rowIndex < boardRows; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < boardColumns; columnIndex++) {
+                tiles[rowIndex][columnIndex] = new Tile(rowIndex, columnIndex);
+            }
+        }
+        for (int rowIndex = 0; rowIndex < boardRows; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < boardColumns; columnIndex++) {
+                for (int rowOffset = -1; rowOffset <= 1; rowOffset++) {
+                    for (int colOffset = -1; colOffset <= 1; colOffset++) {
+                        int neighborRow = rowIndex + rowOffset;
+                        int neighborColumn = columnIndex + colOffset;
+                        if (neighborRow >= 0 && neighborRow < boardRows
+                                && neighborColumn >= 0 && neighborColumn < boardColumns) {
+                            tiles[rowIndex][columnIndex].addNeighbor(tiles[neighborRow][neighborColumn]);
+                        }
+                    }
+                }
+            }
+        }
+        return tiles;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * this class turns the board parameters used by the benchmarks into sizes.
+ * a parameter is either a menu preset name or a custom COLSxROWSxMINES size
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import minesweeper.Difficulty;
+
+/**
+ * reads board parameters like "HARD" or "1000x1000x150000"
+ */
+final class BoardSizes {
+    /** nothing to make, this only has static helpers */
+    private BoardSizes() {
+    }
+
+    /**
+     * reads a board parameter
+     *
+     * @param board a preset name or COLSxROWSxMINES
+     * @return columns, rows and mines, in that order
+     */
+    static int[] parse(String board) {
+        String[] size = board.toLowerCase().split("x");
+        if (size.length == 3) {
+            return new int[] {Integer.parseInt(size[0]), Integer.parseInt(size[1]), Integer.parseInt(size[2])};
+        }
+        Difficulty difficulty = Difficulty.valueOf(board.toUpperCase());
+        return new int[] {difficulty.getBoardColumns(), difficulty.getBoardRows(), difficulty.getTotalMines()};
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * this benchmark plays whole headless games, from the first click to a win
+ * or a loss, with the random player and with the solver, on every menu
+ * preset and on a much bigger board
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.Board;
+import minesweeper.GameStatus;
+import minesweeper.MinesweeperGame;
+import minesweeper.MoveStrategy;
+import minesweeper.RandomStrategy;
+import minesweeper.Solver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * one complete game per call, each on a new seed
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GameSimulationBenchmark {
+    /** which board to play */
+    @Param({"EASY", "MEDIUM", "HARD", "200x200x6000"})
+    public String board;
+
+    /** who picks the moves: random or solver */
+    @Param({"random", "solver"})
+    public String strategy;
+
+    /** how many columns wide the board is */
+    private int boardColumns;
+    /** how many rows tall the board is */
+    private int boardRows;
+    /** how many mines to hide */
+    private int totalMines;
+    /** the player, reused from game to game like the simulator does */
+    private MoveStrategy player;
+    /** the seed for the next game */
+    private long seed;
+
+    /** reads the parameters and makes the player */
+    @Setup
+    public void setUp() {
+        int[] size = BoardSizes.parse(board);
+        boardColumns = size[0];
+        boardRows = size[1];
+        totalMines = size[2];
+        player = strategy.equals("solver") ? new Solver() : new RandomStrategy();
+    }
+
+    /**
+     * plays one game to the end
+     *
+     * @return how the game ended, so the work isn't optimized away
+     */
+    @Benchmark
+    public GameStatus playGame() {
+        MinesweeperGame game = new MinesweeperGame(boardColumns, boardRows, totalMines, seed++, true);
+        Board gameBoard = game.getBoard();
+        player.startGame(game);
+        while (!game.isGameOver()) {
+            int cellIndex = player.chooseCell(game);
+            player.cellsRevealed(game, game.revealTile(gameBoard.rowOf(cellIndex), gameBoard.columnOf(cellIndex)));
+        }
+        return game.getStatus();
+    }
+}
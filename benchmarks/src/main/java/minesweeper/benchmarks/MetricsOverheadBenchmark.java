@@ -0,0 +1,106 @@
+/**
+ * this benchmark measures what the engine metrics cost, with them switched
+ * off and on, on the cheapest move there is (flagging a square) and on whole
+ * solver-played games
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.Board;
+import minesweeper.GameMetrics;
+import minesweeper.GameStatus;
+import minesweeper.MinesweeperGame;
+import minesweeper.Solver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * flag toggles and hard games with the metrics off and on
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetricsOverheadBenchmark {
+    /** whether the metrics are recording */
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    /** a hard game with its first click made, for flagging */
+    private MinesweeperGame flagGame;
+    /** a hidden square on it to flag and unflag */
+    private int flagRow;
+    /** the column of that square */
+    private int flagColumn;
+    /** the player for whole games */
+    private final Solver solver = new Solver();
+    /** the seed for the next whole game */
+    private long seed;
+
+    /** switches the metrics and starts the flagging game */
+    @Setup
+    public void setUp() {
+        GameMetrics.setEnabled(metrics);
+        GameMetrics.reset();
+        flagGame = new MinesweeperGame(30, 16, 99, 1, true);
+        flagGame.revealTile(8, 15);
+        Board board = flagGame.getBoard();
+        for (int cellIndex = 0; cellIndex < board.getCellCount(); cellIndex++) {
+            if (!board.isRevealed(cellIndex)) {
+                flagRow = board.rowOf(cellIndex);
+                flagColumn = board.columnOf(cellIndex);
+                break;
+            }
+        }
+    }
+
+    /** switches the metrics back off so other benchmarks aren't affected */
+    @TearDown
+    public void tearDown() {
+        GameMetrics.setEnabled(false);
+    }
+
+    /**
+     * flags or unflags one square
+     *
+     * @return true if the flag changed, so the work isn't optimized away
+     */
+    @Benchmark
+    public boolean toggleFlag() {
+        return flagGame.toggleFlag(flagRow, flagColumn);
+    }
+
+    /**
+     * plays one hard game to the end with the solver
+     *
+     * @return how the game ended
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GameStatus playHardGame() {
+        MinesweeperGame game = new MinesweeperGame(30, 16, 99, seed++, true);
+        Board board = game.getBoard();
+        solver.startGame(game);
+        while (!game.isGameOver()) {
+            int cellIndex = solver.chooseCell(game);
+            solver.cellsRevealed(game, game.revealTile(board.rowOf(cellIndex), board.columnOf(cellIndex)));
+        }
+        return game.getStatus();
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * this benchmark times reveal cascades of different sizes. each call gets a
+ * fresh mine-free square board, so one click in the middle floods the whole
+ * thing, from ten thousand squares up to a million
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.Board;
+import minesweeper.CellBatch;
+import minesweeper.MinesweeperGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * one click that cascades over a whole mine-free board
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RevealBenchmark {
+    /** how many columns and rows the board has, so the cascade opens size * size squares */
+    @Param({"100", "316", "1000"})
+    public int size;
+
+    /** the game the next click goes into, rebuilt before every call */
+    private MinesweeperGame game;
+
+    /** builds a fresh mine-free game so the click has something to open */
+    @Setup(Level.Invocation)
+    public void newGame() {
+        game = new MinesweeperGame(new Board(size, size));
+    }
+
+    /**
+     * clicks the middle of the board
+     *
+     * @return the opened squares, so the work isn't optimized away
+     */
+    @Benchmark
+    public CellBatch cascade() {
+        return game.revealTile(size / 2, size / 2);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * this benchmark compares the win check the engine does now (comparing its
+ * counters) with the old one, which looked at every square on the board
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.Board;
+import minesweeper.MinesweeperGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * counter-based win checks against a full board scan, on a game in progress
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WinCheckBenchmark {
+    /** which board to check */
+    @Param({"EASY", "MEDIUM", "HARD", "1000x1000x150000"})
+    public String board;
+
+    /** a game with its first click made, so the board is part revealed */
+    private MinesweeperGame game;
+
+    /** starts a game and makes the first click */
+    @Setup
+    public void setUp() {
+        int[] size = BoardSizes.parse(board);
+        game = new MinesweeperGame(size[0], size[1], size[2], 1, true);
+        game.revealTile(size[1] / 2, size[0] / 2);
+    }
+
+    /**
+     * the win check the engine does after every move now
+     *
+     * @return true if the game is won
+     */
+    @Benchmark
+    public boolean counterCheck() {
+        return game.getRemainingSafeTiles() == 0;
+    }
+
+    /**
+     * the old win check: look for any safe square that's still hidden
+     *
+     * @return true if the game is won
+     */
+    @Benchmark
+    public boolean fullScan() {
+        Board gameBoard = game.getBoard();
+        int cellCount = gameBoard.getCellCount();
+        for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+            if (!gameBoard.isMine(cellIndex) && !gameBoard.isRevealed(cellIndex)) return false;
+        }
+        return true;
+    }
+}
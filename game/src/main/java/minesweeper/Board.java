@@ -0,0 +1,349 @@
+/**
+ * this class is the compact version of the minesweeper board. instead of
+ * one tile object per square it keeps one byte per square in a flat array,
+ * with bits for mine, revealed and flagged and the nearby mine count on top
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * a flat, bit-packed minesweeper board where squares are found by index math
+ */
+public class Board {
+    /** bit that is set when a square has a mine */
+    static final int MINE = 1;
+    /** bit that is set when a square has been revealed */
+    static final int REVEALED = 1 << 1;
+    /** bit that is set when a square has a flag on it */
+    static final int FLAGGED = 1 << 2;
+    /** how far the nearby mine count is shifted up inside a square's byte */
+    static final int COUNT_SHIFT = 4;
+    /** setMines counts the whole board at once when there's at least one mine per this many squares */
+    static final int SPARSE_SQUARES = 64;
+
+    /** how many columns wide the board is */
+    private final int boardColumns;
+    /** how many rows tall the board is */
+    private final int boardRows;
+    /** one byte per square, row by row, holding the state bits and the nearby mine count */
+    private final byte[] cells;
+
+    /**
+     * creates an empty board with no mines, reveals or flags
+     *
+     * @param boardColumns how many columns you want
+     * @param boardRows    how many rows you want
+     */
+    public Board(int boardColumns, int boardRows) {
+        if (boardColumns <= 0 || boardRows <= 0) {
+            throw new IllegalArgumentException("board must be at least 1x1");
+        }
+        long cellCount = (long) boardColumns * boardRows;
+        if (cellCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("board is too big: " + boardColumns + "x" + boardRows);
+        }
+        this.boardColumns = boardColumns;
+        this.boardRows = boardRows;
+        this.cells = new byte[(int) cellCount];
+    }
+
+    /**
+     * gets how many columns wide the board is
+     *
+     * @return the column count
+     */
+    public int getBoardColumns() {
+        return boardColumns;
+    }
+
+    /**
+     * gets how many rows tall the board is
+     *
+     * @return the row count
+     */
+    public int getBoardRows() {
+        return boardRows;
+    }
+
+    /**
+     * gets how many squares the board has in total
+     *
+     * @return columns times rows
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    /**
+     * turns a row and column into the square's index in the flat array
+     *
+     * @param rowIndex    which row the square is in
+     * @param columnIndex which column the square is in
+     * @return the square's index
+     */
+    public int indexOf(int rowIndex, int columnIndex) {
+        return rowIndex * boardColumns + columnIndex;
+    }
+
+    /**
+     * gets which row a square index is in
+     *
+     * @param cellIndex the square's index
+     * @return the row number
+     */
+    public int rowOf(int cellIndex) {
+        return cellIndex / boardColumns;
+    }
+
+    /**
+     * gets which column a square index is in
+     *
+     * @param cellIndex the square's index
+     * @return the column number
+     */
+    public int columnOf(int cellIndex) {
+        return cellIndex % boardColumns;
+    }
+
+    /**
+     * checks if a position is actually on the board or if it's out of bounds
+     *
+     * @param rowIndex    which row we're checking
+     * @param columnIndex which column we're checking
+     * @return true if it's a valid position on the board
+     */
+    public boolean isInBounds(int rowIndex, int columnIndex) {
+        return rowIndex >= 0 && rowIndex < boardRows && columnIndex >= 0 && columnIndex < boardColumns;
+    }
+
+    /**
+     * writes the indexes of a square's neighbors into the given array
+     *
+     * @param cellIndex the square whose neighbors we want
+     * @param neighbors where to put them, needs room for at least 8
+     * @return how many neighbors were written
+     */
+    public int getNeighbors(int cellIndex, int[] neighbors) {
+        int rowIndex = cellIndex / boardColumns;
+        int columnIndex = cellIndex - rowIndex * boardColumns;
+        int firstRow = rowIndex > 0 ? rowIndex - 1 : 0;
+        int lastRow = rowIndex < boardRows - 1 ? rowIndex + 1 : rowIndex;
+        int firstColumn = columnIndex > 0 ? columnIndex - 1 : 0;
+        int lastColumn = columnIndex < boardColumns - 1 ? columnIndex + 1 : columnIndex;
+
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int rowStart = row * boardColumns;
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int neighbor = rowStart + column;
+                if (neighbor != cellIndex) {
+                    neighbors[count++] = neighbor;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * checks if a square has a mine hidden under it
+     *
+     * @param cellIndex the square's index
+     * @return true if there's a mine there
+     */
+    public boolean isMine(int cellIndex) {
+        return (cells[cellIndex] & MINE) != 0;
+    }
+
+    /**
+     * checks if a square has been revealed yet
+     *
+     * @param cellIndex the square's index
+     * @return true if it's been revealed
+     */
+    public boolean isRevealed(int cellIndex) {
+        return (cells[cellIndex] & REVEALED) != 0;
+    }
+
+    /**
+     * checks if a square has a flag on it
+     *
+     * @param cellIndex the square's index
+     * @return true if it's flagged
+     */
+    public boolean isFlagged(int cellIndex) {
+        return (cells[cellIndex] & FLAGGED) != 0;
+    }
+
+    /**
+     * gets how many mines are next to a square. this is kept up to date
+     * whenever a mine is added or removed, so it never has to be counted here
+     *
+     * @param cellIndex the square's index
+     * @return how many neighboring squares have mines
+     */
+    public int getAdjacentMineCount(int cellIndex) {
+        return (cells[cellIndex] & 0xFF) >>> COUNT_SHIFT;
+    }
+
+    /**
+     * puts a mine on a square or takes it away, and fixes the counts of the squares around it
+     *
+     * @param cellIndex the square's index
+     * @param mine      true to put a mine there
+     */
+    public void setMine(int cellIndex, boolean mine) {
+        if (isMine(cellIndex) == mine) return;
+
+        if (mine) {
+            cells[cellIndex] |= MINE;
+        } else {
+            cells[cellIndex] &= ~MINE;
+        }
+        int delta = mine ? 1 << COUNT_SHIFT : -(1 << COUNT_SHIFT);
+
+        int rowIndex = cellIndex / boardColumns;
+        int columnIndex = cellIndex - rowIndex * boardColumns;
+        int firstRow = rowIndex > 0 ? rowIndex - 1 : 0;
+        int lastRow = rowIndex < boardRows - 1 ? rowIndex + 1 : rowIndex;
+        int firstColumn = columnIndex > 0 ? columnIndex - 1 : 0;
+        int lastColumn = columnIndex < boardColumns - 1 ? columnIndex + 1 : columnIndex;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int rowStart = row * boardColumns;
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int neighbor = rowStart + column;
+                if (neighbor != cellIndex) {
+                    cells[neighbor] += delta;
+                }
+            }
+        }
+    }
+
+    /**
+     * puts a mine on every square whose bit is set and works out every count
+     * in one pass over the board, 64 squares of a row at a time, instead of
+     * fixing eight neighbors per mine. with fewer than one mine per
+     * SPARSE_SQUARES squares it just calls setMine for each, since then
+     * there's less to fix than there is board to go over. the board shouldn't
+     * have any mines yet, but flags already on it are kept, since the player
+     * can flag squares before the first click lays the mines
+     *
+     * @param mineBits a bit per square, bit (i & 63) of word i / 64 for square i
+     */
+    public void setMines(long[] mineBits) {
+        int words = Math.min(mineBits.length, (cells.length + 63) >>> 6);
+        long mineCount = 0;
+        for (int word = 0; word < words; word++) {
+            mineCount += Long.bitCount(mineBits[word]);
+        }
+        if (mineCount * SPARSE_SQUARES < cells.length) {
+            for (int word = 0; word < words; word++) {
+                for (long bits = mineBits[word]; bits != 0; bits &= bits - 1) {
+                    int cellIndex = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (cellIndex < cells.length) setMine(cellIndex, true);
+                }
+            }
+            return;
+        }
+
+        long[] sums = new long[4];
+        for (int rowIndex = 0; rowIndex < boardRows; rowIndex++) {
+            int rowStart = rowIndex * boardColumns;
+            for (int column = 0; column < boardColumns; column += MineCounts.RUN) {
+                int length = Math.min(MineCounts.RUN, boardColumns - column);
+                long mask = length == MineCounts.RUN ? -1L : (1L << length) - 1;
+                int at = rowStart + column;
+                long up = rowIndex > 0 ? MineCounts.bitsAt(mineBits, at - boardColumns) & mask : 0;
+                long row = MineCounts.bitsAt(mineBits, at) & mask;
+                long down = rowIndex < boardRows - 1 ? MineCounts.bitsAt(mineBits, at + boardColumns) & mask : 0;
+                long upLeft = MineCounts.shiftedRight(up, mineAt(mineBits, rowIndex - 1, column - 1)) & mask;
+                long upRight = MineCounts.shiftedLeft(up, mineAt(mineBits, rowIndex - 1, column + length));
+                long left = MineCounts.shiftedRight(row, mineAt(mineBits, rowIndex, column - 1)) & mask;
+                long right = MineCounts.shiftedLeft(row, mineAt(mineBits, rowIndex, column + length));
+                long downLeft = MineCounts.shiftedRight(down, mineAt(mineBits, rowIndex + 1, column - 1)) & mask;
+                long downRight = MineCounts.shiftedLeft(down, mineAt(mineBits, rowIndex + 1, column + length));
+                if ((up | row | down | upLeft | upRight | left | right | downLeft | downRight) == 0) continue;
+                MineCounts.add(upLeft, up, upRight, left, right, downLeft, down, downRight, sums);
+                MineCounts.write(sums, row, cells, at, length);
+            }
+        }
+    }
+
+    /**
+     * reads one square of a mine bitset, treating squares off the board as clear
+     *
+     * @param mineBits    a bit per square
+     * @param rowIndex    the square's row, maybe off the board
+     * @param columnIndex the square's column, maybe off the board
+     * @return 1 if there's a mine there, 0 if not
+     */
+    private long mineAt(long[] mineBits, int rowIndex, int columnIndex) {
+        return isInBounds(rowIndex, columnIndex) ? MineCounts.bitAt(mineBits, indexOf(rowIndex, columnIndex)) : 0;
+    }
+
+    /**
+     * copies a run of squares' bytes out, for building a persistent copy of the board
+     *
+     * @param from   the first square's index
+     * @param into   where the bytes go, starting at 0
+     * @param length how many squares
+     */
+    void readCells(int from, byte[] into, int length) {
+        System.arraycopy(cells, from, into, 0, length);
+    }
+
+    /**
+     * copies a run of squares' bytes back in, for putting an earlier state back
+     *
+     * @param from   the first square's index
+     * @param source the bytes, starting at 0
+     * @param length how many squares
+     */
+    void writeCells(int from, byte[] source, int length) {
+        System.arraycopy(source, 0, cells, from, length);
+    }
+
+    /**
+     * gets a square's whole byte: its bits and its count
+     *
+     * @param cellIndex the square's index
+     * @return the byte
+     */
+    byte getCell(int cellIndex) {
+        return cells[cellIndex];
+    }
+
+    /**
+     * takes every mine, reveal, flag and count off the board so it can be
+     * played again without making a new one
+     */
+    public void clear() {
+        Arrays.fill(cells, (byte) 0);
+    }
+
+    /**
+     * marks a square as revealed
+     *
+     * @param cellIndex the square's index
+     */
+    public void reveal(int cellIndex) {
+        cells[cellIndex] |= REVEALED;
+    }
+
+    /**
+     * puts a flag on a square or takes it off
+     *
+     * @param cellIndex the square's index
+     * @param flagged   true to put a flag there
+     */
+    public void setFlagged(int cellIndex, boolean flagged) {
+        if (flagged) {
+            cells[cellIndex] |= FLAGGED;
+        } else {
+            cells[cellIndex] &= ~FLAGGED;
+        }
+    }
+}
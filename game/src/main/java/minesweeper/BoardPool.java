@@ -0,0 +1,377 @@
+/**
+ * this class keeps a few ready-to-play games of each board size on hand so
+ * starting or restarting a game doesn't have to wait for a board. a low
+ * priority background thread lays out new games whenever a size runs low,
+ * and games that are finished with can be handed back to be cleared and
+ * reused instead of thrown away. taking a game never waits on a lock: each
+ * size is a lock-free queue. if it's empty, take makes the game on the
+ * calling thread like before, and poll hands back nothing instead, for
+ * callers like the server's event loops that mustn't wait for a layout
+ *
+ * normal games still wait for the first click to hide their mines, since
+ * that's what keeps the first click safe, so for them the pool saves making
+ * and clearing the board. no-guess games are the slow ones, so pooled
+ * no-guess games are laid out ahead of time to open from the middle square
+ * and the window shows the player where to start
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * a bounded pool of ready games per board size, topped up in the background
+ */
+public final class BoardPool {
+    /** how many games of each size are kept ready unless told otherwise */
+    public static final int DEFAULT_GAMES_PER_SIZE = 4;
+    /** how few ready games of a size there can be before it gets topped up, unless told otherwise */
+    public static final int DEFAULT_REFILL_BELOW = 2;
+    /** how much memory the ready games can take up unless told otherwise */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+    /** roughly how much a game takes up besides one byte per square */
+    private static final int GAME_OVERHEAD_BYTES = 512;
+
+    /** the pool the game windows share, made the first time anyone asks */
+    private static BoardPool shared;
+
+    /** how many games of each size the worker fills up to */
+    private final int gamesPerSize;
+    /** a size is topped up once it has fewer ready games than this */
+    private final int refillBelow;
+    /** the most memory the ready games can take up, bigger boards are never pooled */
+    private final long maxBytes;
+    /** how much memory the ready games take up right now */
+    private final AtomicLong pooledBytes = new AtomicLong();
+    /** the ready games for each board size that's been asked for */
+    private final ConcurrentHashMap<Key, Shelf> shelves = new ConcurrentHashMap<>();
+    /** games handed back to be cleared and reused */
+    private final ConcurrentLinkedQueue<MinesweeperGame> returned = new ConcurrentLinkedQueue<>();
+    /** the background thread that makes and clears games */
+    private final Thread worker;
+    /** set once the pool is shut down */
+    private volatile boolean closed = false;
+
+    /**
+     * creates a pool and starts its background thread
+     *
+     * @param gamesPerSize how many games of each size to keep ready
+     * @param refillBelow  how few ready games of a size there can be before it's
+     *                     topped back up to gamesPerSize
+     * @param maxBytes     the most memory the ready games can take up
+     */
+    public BoardPool(int gamesPerSize, int refillBelow, long maxBytes) {
+        if (gamesPerSize < 0 || refillBelow < 0 || refillBelow > gamesPerSize || maxBytes < 0) {
+            throw new IllegalArgumentException("need 0 <= refillBelow <= gamesPerSize and maxBytes >= 0");
+        }
+        this.gamesPerSize = gamesPerSize;
+        this.refillBelow = refillBelow;
+        this.maxBytes = maxBytes;
+        worker = new Thread(this::work, "board-pool");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    /**
+     * gets the pool the game windows share. its settings come from the
+     * minesweeper.pool.games, minesweeper.pool.refillBelow and
+     * minesweeper.pool.maxBytes system properties when they're set
+     *
+     * @return the shared pool
+     */
+    public static synchronized BoardPool getShared() {
+        if (shared == null) {
+            int gamesPerSize = Integer.getInteger("minesweeper.pool.games", DEFAULT_GAMES_PER_SIZE);
+            int refillBelow = Integer.getInteger("minesweeper.pool.refillBelow", Math.min(DEFAULT_REFILL_BELOW, gamesPerSize));
+            long maxBytes = Long.getLong("minesweeper.pool.maxBytes", DEFAULT_MAX_BYTES);
+            shared = new BoardPool(gamesPerSize, refillBelow, maxBytes);
+        }
+        return shared;
+    }
+
+    /**
+     * starts keeping games of a size ready before anyone asks for one, like
+     * the menu presets
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines the games have
+     * @param noGuess      true for boards that can be cleared without guessing
+     */
+    public void prepare(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        shelf(new Key(boardColumns, boardRows, totalMines, noGuess));
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * hands out a ready game, or makes one on the calling thread if none of
+     * that size is ready, which for a no-guess board means waiting for its
+     * layout. either way the size is kept topped up from then on
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines the game has
+     * @param noGuess      true for a board that can be cleared without guessing
+     * @return a game nobody has played yet
+     */
+    public MinesweeperGame take(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        Key key = new Key(boardColumns, boardRows, totalMines, noGuess);
+        MinesweeperGame game = poll(key);
+        return game != null ? game : makeGame(key);
+    }
+
+    /**
+     * hands out a ready game if one of that size is on hand, without ever
+     * making one. a miss still starts the size being topped up, so asking
+     * again a little later should find one
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines the game has
+     * @param noGuess      true for a board that can be cleared without guessing
+     * @return a game nobody has played yet, or null if none is ready
+     */
+    public MinesweeperGame poll(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        return poll(new Key(boardColumns, boardRows, totalMines, noGuess));
+    }
+
+    /**
+     * takes a ready game off a size's shelf and wakes the worker if the shelf is getting low
+     *
+     * @param key the size
+     * @return the game, or null if the shelf was empty
+     */
+    private MinesweeperGame poll(Key key) {
+        Shelf shelf = shelf(key);
+        MinesweeperGame game = shelf.games.poll();
+        if (game != null) {
+            shelf.count.decrementAndGet();
+            pooledBytes.addAndGet(-sizeOf(game));
+        }
+        if (shelf.count.get() < refillBelow) LockSupport.unpark(worker);
+        return game;
+    }
+
+    /**
+     * hands a game back once it's finished with, so its board can be cleared
+     * and reused in the background. nothing else can use the game afterwards
+     *
+     * @param game the game, which is dropped if it can't be reused
+     */
+    public void recycle(MinesweeperGame game) {
+        if (closed || game.isSafeFirstClick() == game.isNoGuess()) return;
+        returned.offer(game);
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * gets how many games of a size are ready right now
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines the games have
+     * @param noGuess      true for boards that can be cleared without guessing
+     * @return the number of ready games
+     */
+    public int readyCount(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        Shelf shelf = shelves.get(new Key(boardColumns, boardRows, totalMines, noGuess));
+        return shelf == null ? 0 : shelf.count.get();
+    }
+
+    /**
+     * gets how much memory the ready games take up
+     *
+     * @return roughly how many bytes
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /** stops the background thread and lets go of every ready game */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * finds the shelf for a size, adding it if it's new
+     *
+     * @param key the size
+     * @return its shelf
+     */
+    private Shelf shelf(Key key) {
+        Shelf shelf = shelves.get(key);
+        if (shelf == null) {
+            shelf = shelves.computeIfAbsent(key, Shelf::new);
+        }
+        return shelf;
+    }
+
+    /**
+     * the background thread's loop: clear handed back games, top up every
+     * size that's run low, then sleep until someone takes or returns a game
+     */
+    private void work() {
+        while (!closed) {
+            boolean busy = false;
+            MinesweeperGame game;
+            while (!closed && (game = returned.poll()) != null) {
+                reuse(game);
+            }
+            for (Shelf shelf : shelves.values()) {
+                if (closed) break;
+                if (shelf.count.get() < refillBelow) shelf.filling = true;
+                if (!shelf.filling) continue;
+                if (shelf.count.get() >= gamesPerSize || !fits(shelf.key.boardBytes())) {
+                    shelf.filling = false;
+                    continue;
+                }
+                // one game per size per pass, so a slow size doesn't hold up the others
+                shelf.add(makeGame(shelf.key));
+                busy = true;
+            }
+            if (!busy) LockSupport.park(this);
+        }
+        shelves.clear();
+        returned.clear();
+        pooledBytes.set(0);
+    }
+
+    /**
+     * clears a handed back game with a new seed and shelves it if its size has room
+     *
+     * @param game the game
+     */
+    private void reuse(MinesweeperGame game) {
+        Shelf shelf = shelves.get(new Key(game.getBoardColumns(), game.getBoardRows(), game.getTotalMines(), game.isNoGuess()));
+        if (shelf == null || shelf.count.get() >= gamesPerSize || !fits(sizeOf(game))) return;
+        game.restart(MinePlacer.newSeed());
+        shelf.add(game);
+    }
+
+    /**
+     * lays out a new game for a shelf, or for take when the shelf is empty.
+     * no-guess games only use the calling thread, so the pool never competes
+     * with the window for the other cores
+     *
+     * @param key the size
+     * @return the game
+     */
+    private MinesweeperGame makeGame(Key key) {
+        long seed = MinePlacer.newSeed();
+        MinePlacer placer = key.noGuess ? new NoGuessPlacer(seed, 1) : new MinePlacer(seed);
+        return new MinesweeperGame(key.boardColumns, key.boardRows, key.totalMines, placer, !key.noGuess);
+    }
+
+    /**
+     * checks if another game this big fits under the memory cap
+     *
+     * @param bytes how big the game is
+     * @return true if it fits
+     */
+    private boolean fits(long bytes) {
+        return pooledBytes.get() + bytes <= maxBytes;
+    }
+
+    /**
+     * works out roughly how much memory a game takes up
+     *
+     * @param game the game
+     * @return roughly how many bytes
+     */
+    private static long sizeOf(MinesweeperGame game) {
+        return (long) game.getBoardColumns() * game.getBoardRows() + GAME_OVERHEAD_BYTES;
+    }
+
+    /**
+     * the ready games of one size, only ever added to by the background thread
+     */
+    private final class Shelf {
+        /** the size of the games on this shelf */
+        private final Key key;
+        /** the ready games, oldest first */
+        private final ConcurrentLinkedQueue<MinesweeperGame> games = new ConcurrentLinkedQueue<>();
+        /** how many games are ready, since counting the queue isn't constant time */
+        private final AtomicInteger count = new AtomicInteger();
+        /** true while the worker is topping this shelf up, only touched by the worker */
+        private boolean filling = false;
+
+        /**
+         * creates an empty shelf
+         *
+         * @param key the size of the games on it
+         */
+        Shelf(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * puts a ready game on the shelf
+         *
+         * @param game the game
+         */
+        void add(MinesweeperGame game) {
+            pooledBytes.addAndGet(sizeOf(game));
+            games.offer(game);
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * a board size, mine count and mode, for looking up shelves
+     */
+    private static final class Key {
+        /** how many columns wide the board is */
+        private final int boardColumns;
+        /** how many rows tall the board is */
+        private final int boardRows;
+        /** how many mines the games have */
+        private final int totalMines;
+        /** whether the boards can be cleared without guessing */
+        private final boolean noGuess;
+
+        /**
+         * creates a key
+         *
+         * @param boardColumns how many columns wide the board is
+         * @param boardRows    how many rows tall the board is
+         * @param totalMines   how many mines the games have
+         * @param noGuess      whether the boards can be cleared without guessing
+         */
+        Key(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+            this.boardColumns = boardColumns;
+            this.boardRows = boardRows;
+            this.totalMines = totalMines;
+            this.noGuess = noGuess;
+        }
+
+        /**
+         * works out roughly how much memory a game this size takes up
+         *
+         * @return roughly how many bytes
+         */
+        long boardBytes() {
+            return (long) boardColumns * boardRows + GAME_OVERHEAD_BYTES;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return boardColumns == key.boardColumns && boardRows == key.boardRows
+                    && totalMines == key.totalMines && noGuess == key.noGuess;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((boardColumns * 31 + boardRows) * 31 + totalMines) * 2 + (noGuess ? 1 : 0);
+        }
+    }
+}
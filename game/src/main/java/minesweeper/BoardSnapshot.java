@@ -0,0 +1,403 @@
+/**
+ * this class saves a game to a small binary file and reads it back. the file
+ * has a fixed header followed by three bitsets, one bit per square for mines,
+ * reveals and flags, so an expert board is about 200 bytes and a million
+ * square board is under 400 KB. files are written and read through nio
+ * channels, and big ones are memory-mapped so opening one doesn't read the
+ * whole thing into the heap until the game is actually restored
+ *
+ * file layout, big-endian:
+ * <pre>
+ *   0  int   magic "MSWP"
+ *   4  short format version
+ *   6  short flags: 1 = mines placed, 2 = safe first click, 4 = no-guess placer,
+ *              8 = laid out guess-free
+ *   8  int   columns
+ *  12  int   rows
+ *  16  int   total mines
+ *  20  int   reserved, always 0
+ *  24  long  seed
+ *  32  long  move count
+ *  40  long[] mine bits, then revealed bits, then flagged bits,
+ *             each (columns * rows + 63) / 64 words, square i in bit i % 64 of word i / 64
+ * </pre>
+ *
+ * version 1 files only had bit 4, set when the board was guess-free, so
+ * reading one sets bit 8 along with it
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * a versioned binary snapshot of a game, read lazily from the file it came from
+ */
+public final class BoardSnapshot {
+    /** the first four bytes of every snapshot file, "MSWP" */
+    public static final int MAGIC = 0x4D535750;
+    /** the newest format version this class writes and reads */
+    public static final short VERSION = 2;
+    /** files at least this big are memory-mapped instead of read into the heap */
+    public static final long MAP_THRESHOLD = 1 << 20;
+    /** how many bytes come before the bitsets */
+    private static final int HEADER_BYTES = 40;
+    /** flag bit for a game whose mines are already on the board */
+    private static final short MINES_PLACED = 1;
+    /** flag bit for a game that keeps its first click safe */
+    private static final short SAFE_FIRST_CLICK = 2;
+    /** flag bit for a game whose mines come from a no-guess placer, even if it fell back to a normal layout */
+    private static final short NO_GUESS = 4;
+    /** flag bit for a game whose mines are laid out so it never needs a guess */
+    private static final short GUESS_FREE = 8;
+
+    /** the whole file, either in the heap or mapped from disk */
+    private final ByteBuffer buffer;
+    /** how many columns wide the board is */
+    private final int boardColumns;
+    /** how many rows tall the board is */
+    private final int boardRows;
+    /** total number of mines in the game */
+    private final int totalMines;
+    /** the seed the mines came from */
+    private final long seed;
+    /** how many moves were made before the game was saved */
+    private final long moveCount;
+    /** the flag bits from the header */
+    private final short flags;
+    /** how many longs each bitset takes */
+    private final int wordsPerBitset;
+
+    /**
+     * reads the header of a snapshot that's already in a buffer and checks it makes sense
+     *
+     * @param buffer the whole file
+     * @throws IOException if it isn't a snapshot, is from a newer version, or is cut short
+     */
+    private BoardSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a minesweeper snapshot");
+        }
+        short version = buffer.getShort(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("unsupported snapshot version " + version);
+        }
+        short flags = buffer.getShort(6);
+        if (version == 1 && (flags & NO_GUESS) != 0) flags |= GUESS_FREE;
+        this.flags = flags;
+        this.boardColumns = buffer.getInt(8);
+        this.boardRows = buffer.getInt(12);
+        this.totalMines = buffer.getInt(16);
+        this.seed = buffer.getLong(24);
+        this.moveCount = buffer.getLong(32);
+        if (boardColumns <= 0 || boardRows <= 0 || (long) boardColumns * boardRows > Integer.MAX_VALUE - 8) {
+            throw new IOException("bad board size in snapshot: " + boardColumns + "x" + boardRows);
+        }
+        this.wordsPerBitset = wordsFor(boardColumns * boardRows);
+        if (buffer.capacity() < fileSize(boardColumns * boardRows)) {
+            throw new IOException("snapshot is cut short");
+        }
+    }
+
+    /**
+     * works out how many longs a bitset needs for a number of squares
+     *
+     * @param cellCount how many squares
+     * @return the word count
+     */
+    private static int wordsFor(int cellCount) {
+        return (cellCount + 63) >>> 6;
+    }
+
+    /**
+     * works out how big a snapshot file is for a number of squares
+     *
+     * @param cellCount how many squares
+     * @return the file size in bytes
+     */
+    private static long fileSize(int cellCount) {
+        return HEADER_BYTES + 3L * wordsFor(cellCount) * Long.BYTES;
+    }
+
+    /**
+     * writes a game to a file, replacing anything already there. big boards
+     * are written straight into a memory-mapped file instead of a heap buffer
+     *
+     * @param game the game to save
+     * @param path where to save it
+     * @throws IOException if the file can't be written
+     */
+    public static void save(MinesweeperGame game, Path path) throws IOException {
+        Board board = game.getBoard();
+        long size = fileSize(board.getCellCount());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (size >= MAP_THRESHOLD) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                fill(game, mapped);
+                mapped.force();
+            } else {
+                ByteBuffer heap = ByteBuffer.allocate((int) size);
+                fill(game, heap);
+                while (heap.hasRemaining()) {
+                    channel.write(heap);
+                }
+            }
+        }
+    }
+
+    /**
+     * snapshots a game into a byte array in the same layout as the file, for
+     * keeping games that nobody's playing right now small in memory
+     *
+     * @param game the game to snapshot
+     * @return the snapshot's bytes
+     */
+    public static byte[] toBytes(MinesweeperGame game) {
+        byte[] bytes = new byte[(int) fileSize(game.getBoard().getCellCount())];
+        fill(game, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * reads a snapshot back from the bytes toBytes made
+     *
+     * @param bytes the snapshot's bytes, which aren't copied
+     * @return the snapshot
+     * @throws IOException if the bytes aren't a snapshot
+     */
+    public static BoardSnapshot fromBytes(byte[] bytes) throws IOException {
+        return new BoardSnapshot(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * puts the header and the three bitsets for a game into a buffer, going
+     * over the board once and writing each bitset a word at a time
+     *
+     * @param game   the game to save
+     * @param buffer a buffer exactly as big as the file
+     */
+    private static void fill(MinesweeperGame game, ByteBuffer buffer) {
+        Board board = game.getBoard();
+        short flags = 0;
+        if (game.areMinesPlaced()) flags |= MINES_PLACED;
+        if (game.isSafeFirstClick()) flags |= SAFE_FIRST_CLICK;
+        if (game.hasNoGuessPlacer()) flags |= NO_GUESS;
+        if (game.isNoGuess()) flags |= GUESS_FREE;
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, flags);
+        buffer.putInt(8, board.getBoardColumns());
+        buffer.putInt(12, board.getBoardRows());
+        buffer.putInt(16, game.getTotalMines());
+        buffer.putInt(20, 0);
+        buffer.putLong(24, game.getSeed());
+        buffer.putLong(32, game.getMoveCount());
+
+        int cellCount = board.getCellCount();
+        int words = wordsFor(cellCount);
+        int revealedStart = HEADER_BYTES + words * Long.BYTES;
+        int flaggedStart = revealedStart + words * Long.BYTES;
+        for (int word = 0; word < words; word++) {
+            long mines = 0;
+            long revealed = 0;
+            long flagged = 0;
+            int first = word << 6;
+            int last = Math.min(first + 64, cellCount);
+            for (int cellIndex = first; cellIndex < last; cellIndex++) {
+                long bit = 1L << (cellIndex - first);
+                if (board.isMine(cellIndex)) mines |= bit;
+                if (board.isRevealed(cellIndex)) revealed |= bit;
+                if (board.isFlagged(cellIndex)) flagged |= bit;
+            }
+            int offset = word * Long.BYTES;
+            buffer.putLong(HEADER_BYTES + offset, mines);
+            buffer.putLong(revealedStart + offset, revealed);
+            buffer.putLong(flaggedStart + offset, flagged);
+        }
+        buffer.position(0);
+    }
+
+    /**
+     * opens a snapshot file. small files are read into the heap, big ones are
+     * memory-mapped, so only the header is looked at until the squares are asked for
+     *
+     * @param path the file to open
+     * @return the snapshot
+     * @throws IOException if the file can't be read or isn't a snapshot
+     */
+    public static BoardSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                return new BoardSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            ByteBuffer heap = ByteBuffer.allocate((int) size);
+            while (heap.hasRemaining()) {
+                if (channel.read(heap) < 0) break;
+            }
+            return new BoardSnapshot(heap);
+        }
+    }
+
+    /**
+     * opens a snapshot file and restores the game in it
+     *
+     * @param path the file to read
+     * @return the game, ready to carry on playing
+     * @throws IOException if the file can't be read or isn't a snapshot
+     */
+    public static MinesweeperGame load(Path path) throws IOException {
+        return open(path).restore();
+    }
+
+    /**
+     * builds a playable game from the snapshot. the mines go onto the board
+     * as one bitset so their counts are worked out in one pass, and only the
+     * set bits of the other bitsets are visited, so sparse boards restore
+     * quickly however big they are
+     *
+     * @return the game, with the same seed, move count and counters as when it was saved
+     */
+    public MinesweeperGame restore() {
+        Board board = new Board(boardColumns, boardRows);
+        int revealedStart = HEADER_BYTES + wordsPerBitset * Long.BYTES;
+        int flaggedStart = revealedStart + wordsPerBitset * Long.BYTES;
+        int cellCount = board.getCellCount();
+        long[] mineBits = new long[wordsPerBitset];
+        for (int word = 0; word < wordsPerBitset; word++) {
+            mineBits[word] = buffer.getLong(HEADER_BYTES + word * Long.BYTES);
+        }
+        if ((cellCount & 63) != 0) {
+            mineBits[wordsPerBitset - 1] &= (1L << cellCount) - 1;
+        }
+        board.setMines(mineBits);
+        for (int word = 0; word < wordsPerBitset; word++) {
+            int offset = word * Long.BYTES;
+            int first = word << 6;
+            for (long bits = buffer.getLong(revealedStart + offset); bits != 0; bits &= bits - 1) {
+                int cellIndex = first + Long.numberOfTrailingZeros(bits);
+                if (cellIndex < cellCount) board.reveal(cellIndex);
+            }
+            for (long bits = buffer.getLong(flaggedStart + offset); bits != 0; bits &= bits - 1) {
+                int cellIndex = first + Long.numberOfTrailingZeros(bits);
+                if (cellIndex < cellCount) board.setFlagged(cellIndex, true);
+            }
+        }
+        MinePlacer placer = new MinePlacer(seed);
+        if ((flags & NO_GUESS) != 0) {
+            NoGuessPlacer noGuessPlacer = new NoGuessPlacer(seed, 1);
+            noGuessPlacer.setLastBoardNoGuess((flags & GUESS_FREE) != 0);
+            placer = noGuessPlacer;
+        }
+        return new MinesweeperGame(board, totalMines, seed, placer,
+                (flags & SAFE_FIRST_CLICK) != 0, areMinesPlaced(), moveCount);
+    }
+
+    /**
+     * reads one bit of one of the bitsets straight from the file
+     *
+     * @param bitset    0 for mines, 1 for reveals, 2 for flags
+     * @param cellIndex the square's index
+     * @return true if the bit is set
+     */
+    private boolean bit(int bitset, int cellIndex) {
+        if (cellIndex < 0 || cellIndex >= boardColumns * boardRows) {
+            throw new IndexOutOfBoundsException("square " + cellIndex + " is off the board");
+        }
+        int offset = HEADER_BYTES + (bitset * wordsPerBitset + (cellIndex >>> 6)) * Long.BYTES;
+        return (buffer.getLong(offset) & (1L << (cellIndex & 63))) != 0;
+    }
+
+    /**
+     * checks if a square has a mine without restoring the whole game
+     *
+     * @param cellIndex the square's index
+     * @return true if there's a mine there
+     */
+    public boolean isMine(int cellIndex) {
+        return bit(0, cellIndex);
+    }
+
+    /**
+     * checks if a square was revealed without restoring the whole game
+     *
+     * @param cellIndex the square's index
+     * @return true if it was revealed
+     */
+    public boolean isRevealed(int cellIndex) {
+        return bit(1, cellIndex);
+    }
+
+    /**
+     * checks if a square was flagged without restoring the whole game
+     *
+     * @param cellIndex the square's index
+     * @return true if it was flagged
+     */
+    public boolean isFlagged(int cellIndex) {
+        return bit(2, cellIndex);
+    }
+
+    /**
+     * gets how many columns wide the saved board is
+     *
+     * @return the column count
+     */
+    public int getBoardColumns() {
+        return boardColumns;
+    }
+
+    /**
+     * gets how many rows tall the saved board is
+     *
+     * @return the row count
+     */
+    public int getBoardRows() {
+        return boardRows;
+    }
+
+    /**
+     * gets how many mines the saved game has
+     *
+     * @return the mine count
+     */
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    /**
+     * gets the seed the saved game's mines came from
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * gets how many moves were made before the game was saved
+     *
+     * @return the move count
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * checks if the saved game's mines were on the board yet
+     *
+     * @return true if the mines were placed
+     */
+    public boolean areMinesPlaced() {
+        return (flags & MINES_PLACED) != 0;
+    }
+}
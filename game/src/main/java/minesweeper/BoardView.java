@@ -0,0 +1,480 @@
+/**
+ * this class draws the minesweeper board as one component instead of one
+ * button per square. it only paints the squares inside the area swing asks
+ * for, and can be zoomed and put in a scroll pane, so even huge boards open
+ * right away
+ *
+ * it paints from its own copy of what each square shows rather than from the
+ * game's board, and keeps the copy up to date from each move's ChangeSet.
+ * that way the game can run on another thread and be halfway through a move
+ * while the board is being painted, and the view still draws a whole move
+ * or none of it
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+/**
+ * a lightweight, custom-painted board that turns clicks into square indexes with coordinate math
+ */
+public class BoardView extends JComponent implements Scrollable {
+    /** how many pixels wide and tall a square is before zooming */
+    public static final int DEFAULT_CELL_SIZE = 32;
+    /** the smallest a square can be zoomed down to */
+    public static final int MIN_CELL_SIZE = 8;
+    /** the biggest a square can be zoomed up to */
+    public static final int MAX_CELL_SIZE = 96;
+
+    /** the color behind revealed squares */
+    private static final Color REVEALED_COLOR = new Color(200, 200, 210);
+    /** the color behind hidden squares */
+    private static final Color HIDDEN_COLOR = new Color(220, 220, 235);
+    /** the color behind the mine that ended the game */
+    private static final Color EXPLODED_COLOR = Color.RED;
+    /** the color painted over the square the hint says is safe */
+    private static final Color SAFE_HINT_COLOR = new Color(0, 255, 0, 140);
+
+    /**
+     * gets told what the player did to a square. the view works the square out
+     * from the mouse position with plain division, so a click costs the same on any board size
+     */
+    public interface CellListener {
+        /**
+         * called when the left button is pressed and released on the same square
+         *
+         * @param cellIndex the square's index on the board
+         */
+        void revealClicked(int cellIndex);
+
+        /**
+         * called when the right button is pressed and released on the same square
+         *
+         * @param cellIndex the square's index on the board
+         */
+        void flagClicked(int cellIndex);
+
+        /**
+         * called when the middle button, or both the left and right buttons
+         * together, are let go on a square
+         *
+         * @param cellIndex the square's index on the board
+         */
+        void chordClicked(int cellIndex);
+    }
+
+    /** the game being drawn, only used for its size once it's handed over */
+    private MinesweeperGame game;
+    /** what each square shows, in ChangeSet values, as of the last change applied */
+    private byte[] faces;
+    /** whether the game was over as of the last change applied */
+    private boolean gameOver;
+    /** how many pixels wide and tall a square is right now */
+    private int cellSize = DEFAULT_CELL_SIZE;
+    /** who gets told about clicks */
+    private CellListener cellListener;
+    /** the square the mouse was pressed on, or -1 */
+    private int pressedCell = -1;
+    /** whether both buttons went down together, so letting go chords instead of clicking */
+    private boolean chording = false;
+    /** the square the hint says is safe, or -1 */
+    private int safeHintCell = -1;
+    /** the mine chance for every square while the hint shows them, or null */
+    private double[] hintProbabilities;
+
+    /** the shared tile pictures, already scaled to fit inside a square at the current zoom */
+    private Image[] sprites;
+
+    /**
+     * creates a view for a game, copying what its squares show, so nothing
+     * else should be changing the game while this runs
+     *
+     * @param game the game to draw
+     */
+    public BoardView(MinesweeperGame game) {
+        this.game = game;
+        this.faces = game.getFaces();
+        this.gameOver = game.isGameOver();
+        this.sprites = SpriteCache.getSprites(cellSize - inset() * 2);
+
+        setOpaque(true);
+        setToolTipText("");
+
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int both = InputEvent.BUTTON1_DOWN_MASK | InputEvent.BUTTON3_DOWN_MASK;
+                if ((e.getModifiersEx() & both) == both) {
+                    chording = true;
+                } else if (!chording) {
+                    pressedCell = cellAt(e.getX(), e.getY());
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                int cellIndex = cellAt(e.getX(), e.getY());
+                if (chording) {
+                    // the first button let go does the chord, the other one is ignored
+                    if (pressedCell >= 0 && cellIndex >= 0 && cellListener != null) {
+                        cellListener.chordClicked(cellIndex);
+                    }
+                    pressedCell = -1;
+                    int anyButton = InputEvent.BUTTON1_DOWN_MASK | InputEvent.BUTTON2_DOWN_MASK | InputEvent.BUTTON3_DOWN_MASK;
+                    if ((e.getModifiersEx() & anyButton) == 0) chording = false;
+                    return;
+                }
+                if (cellIndex >= 0 && cellIndex == pressedCell && cellListener != null) {
+                    if (SwingUtilities.isLeftMouseButton(e)) {
+                        cellListener.revealClicked(cellIndex);
+                    } else if (SwingUtilities.isRightMouseButton(e)) {
+                        cellListener.flagClicked(cellIndex);
+                    } else if (SwingUtilities.isMiddleMouseButton(e)) {
+                        cellListener.chordClicked(cellIndex);
+                    }
+                }
+                pressedCell = -1;
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown()) {
+                    zoomAround(e.getWheelRotation() < 0 ? cellSize + 4 : cellSize - 4, e.getPoint());
+                } else {
+                    Container scrollPane = SwingUtilities.getAncestorOfClass(JScrollPane.class, BoardView.this);
+                    if (scrollPane != null) {
+                        scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(BoardView.this, e, scrollPane));
+                    }
+                }
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseWheelListener(mouseHandler);
+    }
+
+    /**
+     * gets the gap left around each square at the current zoom, dropped when squares get tiny
+     *
+     * @return the gap in pixels
+     */
+    private int inset() {
+        return cellSize >= 16 ? 1 : 0;
+    }
+
+    /**
+     * sets who gets told about clicks
+     *
+     * @param cellListener the listener, or null for nobody
+     */
+    public void setCellListener(CellListener cellListener) {
+        this.cellListener = cellListener;
+    }
+
+    /**
+     * switches to drawing a different game, or the same one after it jumped
+     * to another state, and forgets the old markings
+     *
+     * @param game     the game to draw
+     * @param faces    what its squares show, from getFaces, which the view keeps
+     * @param gameOver whether it's over
+     */
+    public void setGame(MinesweeperGame game, byte[] faces, boolean gameOver) {
+        this.game = game;
+        this.faces = faces;
+        this.gameOver = gameOver;
+        clearHint();
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * turns a pixel position into the square under it with plain division
+     *
+     * @param x the pixel column inside this component
+     * @param y the pixel row inside this component
+     * @return the square's index, or -1 if it's off the board
+     */
+    public int cellAt(int x, int y) {
+        if (x < 0 || y < 0) return -1;
+        int columnIndex = x / cellSize;
+        int rowIndex = y / cellSize;
+        if (!game.isInBounds(rowIndex, columnIndex)) return -1;
+        return game.getBoard().indexOf(rowIndex, columnIndex);
+    }
+
+    /**
+     * gets how many pixels wide and tall a square is right now
+     *
+     * @return the square size
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * zooms the board so squares are the given size
+     *
+     * @param size the new square size, kept between MIN_CELL_SIZE and MAX_CELL_SIZE
+     */
+    public void setCellSize(int size) {
+        int clamped = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, size));
+        if (clamped == cellSize) return;
+        cellSize = clamped;
+        sprites = SpriteCache.getSprites(cellSize - inset() * 2);
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * zooms and scrolls so the square under the mouse stays under the mouse
+     *
+     * @param size  the new square size
+     * @param point where the mouse is, inside this component
+     */
+    private void zoomAround(int size, Point point) {
+        int oldSize = cellSize;
+        setCellSize(size);
+        if (cellSize == oldSize || !(getParent() instanceof JViewport)) return;
+
+        JViewport viewport = (JViewport) getParent();
+        Point view = viewport.getViewPosition();
+        int x = point.x * cellSize / oldSize - (point.x - view.x);
+        int y = point.y * cellSize / oldSize - (point.y - view.y);
+        setSize(getPreferredSize());
+        viewport.setViewPosition(new Point(Math.max(0, x), Math.max(0, y)));
+    }
+
+    /**
+     * shows the hint for a square that's sure to be safe
+     *
+     * @param cellIndex the safe square's index
+     */
+    public void showSafeHint(int cellIndex) {
+        clearHint();
+        safeHintCell = cellIndex;
+        repaintCell(cellIndex);
+    }
+
+    /**
+     * tints every hidden square by its chance of hiding a mine
+     *
+     * @param probabilities one chance from 0 to 1 per square
+     */
+    public void showProbabilities(double[] probabilities) {
+        clearHint();
+        hintProbabilities = probabilities;
+        repaint();
+    }
+
+    /** takes the hint overlay off the board */
+    public void clearHint() {
+        if (safeHintCell >= 0) repaintCell(safeHintCell);
+        if (hintProbabilities != null) repaint();
+        safeHintCell = -1;
+        hintProbabilities = null;
+    }
+
+    /**
+     * copies what a move changed into the view and asks swing to repaint
+     * those squares, one strip per run of neighboring squares in a row, which
+     * swing merges into a single paint. a move that ends the game repaints
+     * everything, since the hint overlay comes off every square
+     *
+     * @param changes what the move changed, in board order
+     */
+    public void applyChanges(ChangeSet changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            faces[changes.getCell(i)] = (byte) changes.getValue(i);
+        }
+        gameOver = changes.getStatus() != GameStatus.PLAYING;
+        if (changes.isStatusChanged()) {
+            repaint();
+            return;
+        }
+        Board board = game.getBoard();
+        int columns = board.getBoardColumns();
+        for (int i = 0; i < changes.size(); ) {
+            int first = changes.getCell(i);
+            int length = 1;
+            // a strip stops at the end of a row as well as at a gap
+            while (i + length < changes.size() && changes.getCell(i + length) == first + length
+                    && (first + length) % columns != 0) {
+                length++;
+            }
+            repaint(board.columnOf(first) * cellSize, board.rowOf(first) * cellSize, length * cellSize, cellSize);
+            i += length;
+        }
+    }
+
+    /**
+     * asks swing to repaint one square
+     *
+     * @param cellIndex the square's index, or -1 to do nothing
+     */
+    public void repaintCell(int cellIndex) {
+        if (cellIndex < 0) return;
+        Board board = game.getBoard();
+        repaint(board.columnOf(cellIndex) * cellSize, board.rowOf(cellIndex) * cellSize, cellSize, cellSize);
+    }
+
+    /**
+     * paints only the squares that overlap the area swing wants redrawn
+     *
+     * @param g the graphics to paint with
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(getParent() != null ? getParent().getBackground() : HIDDEN_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        Board board = game.getBoard();
+        int firstColumn = Math.max(0, clip.x / cellSize);
+        int firstRow = Math.max(0, clip.y / cellSize);
+        int lastColumn = Math.min(board.getBoardColumns() - 1, (clip.x + clip.width - 1) / cellSize);
+        int lastRow = Math.min(board.getBoardRows() - 1, (clip.y + clip.height - 1) / cellSize);
+
+        for (int rowIndex = firstRow; rowIndex <= lastRow; rowIndex++) {
+            for (int columnIndex = firstColumn; columnIndex <= lastColumn; columnIndex++) {
+                paintCell(g, board.indexOf(rowIndex, columnIndex), columnIndex * cellSize, rowIndex * cellSize);
+            }
+        }
+    }
+
+    /**
+     * paints one square: raised and blank while hidden, flat with its number
+     * once revealed, and with every mine showing once the game is over
+     *
+     * @param g         the graphics to paint with
+     * @param cellIndex the square's index
+     * @param x         the square's left edge in pixels
+     * @param y         the square's top edge in pixels
+     */
+    private void paintCell(Graphics g, int cellIndex, int x, int y) {
+        int inset = inset();
+        int size = cellSize - inset * 2;
+        int face = faces[cellIndex];
+        boolean revealed = face <= ChangeSet.MINE;
+
+        // an opened mine is one the player stepped on
+        if (face == ChangeSet.MINE) {
+            g.setColor(EXPLODED_COLOR);
+            g.fillRect(x + inset, y + inset, size, size);
+        } else if (revealed) {
+            g.setColor(REVEALED_COLOR);
+            g.fillRect(x + inset, y + inset, size, size);
+        } else {
+            g.setColor(HIDDEN_COLOR);
+            g.fill3DRect(x + inset, y + inset, size, size, true);
+        }
+
+        Image image = null;
+        if (face == ChangeSet.MINE || face == ChangeSet.MINE_SHOWN) {
+            image = sprites[SpriteCache.MINE];
+        } else if (face == ChangeSet.FLAGGED) {
+            image = sprites[SpriteCache.FLAG];
+        } else if (face > 0 && face < ChangeSet.MINE) {
+            image = sprites[face];
+        }
+        if (image != null) {
+            g.drawImage(image, x + inset, y + inset, null);
+        }
+
+        if (revealed || gameOver) return;
+        if (cellIndex == safeHintCell) {
+            g.setColor(SAFE_HINT_COLOR);
+            g.fillRect(x + inset, y + inset, size, size);
+        } else if (hintProbabilities != null && face != ChangeSet.FLAGGED) {
+            float chance = (float) Math.max(0, Math.min(1, hintProbabilities[cellIndex]));
+            g.setColor(new Color(chance, 1 - chance, 0f, 0.55f));
+            g.fillRect(x + inset, y + inset, size, size);
+        }
+    }
+
+    /**
+     * shows the hint's mine chance for the square under the mouse
+     *
+     * @param e the mouse event swing wants a tooltip for
+     * @return the chance as a percentage, or null when there's nothing to say
+     */
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        if (hintProbabilities == null) return null;
+        int cellIndex = cellAt(e.getX(), e.getY());
+        if (cellIndex < 0 || faces[cellIndex] <= ChangeSet.MINE) return null;
+        return Math.round(hintProbabilities[cellIndex] * 100) + "% mine";
+    }
+
+    /**
+     * gets the size the whole board needs at the current zoom
+     *
+     * @return the board's size in pixels
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(game.getBoardColumns() * cellSize, game.getBoardRows() * cellSize);
+    }
+
+    /**
+     * gets how big the scroll pane should try to be: the whole board, up to most of the screen
+     *
+     * @return the preferred viewport size
+     */
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+        Dimension board = getPreferredSize();
+        return new Dimension(Math.min(board.width, screen.width * 4 / 5), Math.min(board.height, screen.height * 3 / 4));
+    }
+
+    /**
+     * scrolls one square at a time with the arrows
+     *
+     * @param visibleRect the area showing
+     * @param orientation which way it's scrolling
+     * @param direction   up/left if negative
+     * @return one square's size
+     */
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return cellSize;
+    }
+
+    /**
+     * scrolls one screenful at a time when clicking the track
+     *
+     * @param visibleRect the area showing
+     * @param orientation which way it's scrolling
+     * @param direction   up/left if negative
+     * @return the size of the visible area in that direction
+     */
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    /**
+     * the board keeps its own width, scrolling sideways when the window is narrower
+     *
+     * @return false
+     */
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    /**
+     * the board keeps its own height, scrolling when the window is shorter
+     *
+     * @return false
+     */
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
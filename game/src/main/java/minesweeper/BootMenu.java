@@ -0,0 +1,150 @@
+/**
+ * this is the menu screen class that displays difficulty options
+ * and allows the player to choose easy, medium, or hard before
+ * starting a minesweeper game
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+/**
+ * this is the menu screen where you pick your difficulty level before starting a game
+ */
+public class BootMenu extends JFrame implements ActionListener {
+    // buttons for difficulty selection
+    private JButton easyButton;
+    private JButton mediumButton;
+    private JButton hardButton;
+    // whether the game should only hand out boards that never need a guess
+    private JCheckBox noGuessBox;
+    // whether the difficulty buttons start endless games at that difficulty's mine density
+    private JCheckBox endlessBox;
+
+    /**
+     * sets up the menu window with all the difficulty buttons and makes them work
+     */
+    public BootMenu() {
+        setTitle("Minesweeper");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setSize(480, 390);
+        setLocation(100, 100);
+        setResizable(false);
+
+        // layout and background
+        Container contentPane = getContentPane();
+        contentPane.setLayout(null);
+        Color colorBackground = new Color(245, 245, 250);
+        contentPane.setBackground(colorBackground);
+
+        // title
+        JLabel titleLabel = new JLabel("choose difficulty");
+        titleLabel.setBounds(100, 50, 280, 40);
+        titleLabel.setForeground(new Color(50, 50, 80));
+        contentPane.add(titleLabel);
+
+        // difficulty buttons
+        easyButton = new JButton("Easy");
+        easyButton.setBounds(150, 120, 180, 40);
+        easyButton.setIcon(new ImageIcon("easyDifficulty.png"));
+        easyButton.setBackground(new Color(200, 230, 200));
+        easyButton.addActionListener(this);
+        contentPane.add(easyButton);
+
+        mediumButton = new JButton("Medium");
+        mediumButton.setBounds(150, 180, 180, 40);
+        mediumButton.setIcon(new ImageIcon("mediumDifficulty.png"));
+        mediumButton.setBackground(new Color(230, 220, 180));
+        mediumButton.addActionListener(this);
+        contentPane.add(mediumButton);
+
+        hardButton = new JButton("Hard");
+        hardButton.setBounds(150, 240, 180, 40);
+        hardButton.setIcon(new ImageIcon("hardDifficulty.png"));
+        hardButton.setBackground(new Color(230, 200, 200));
+        hardButton.addActionListener(this);
+        contentPane.add(hardButton);
+
+        // no-guess mode
+        noGuessBox = new JCheckBox("no guessing");
+        noGuessBox.setBounds(150, 290, 180, 30);
+        noGuessBox.setOpaque(false);
+        noGuessBox.addActionListener(this);
+        contentPane.add(noGuessBox);
+
+        // endless mode
+        endlessBox = new JCheckBox("endless");
+        endlessBox.setBounds(150, 320, 180, 30);
+        endlessBox.setOpaque(false);
+        endlessBox.addActionListener(this);
+        contentPane.add(endlessBox);
+
+        // get boards for every preset ready while the player picks one
+        prepareBoards(false);
+
+        setVisible(true);
+    }
+
+    /**
+     * handles button clicks to start games with different difficulty levels,
+     * and gets no-guess boards ready when that box is ticked. endless boards
+     * can't be laid out to need no guesses, so ticking one box unticks the other
+     *
+     * @param e the action event from the button click
+     */
+    public void actionPerformed(ActionEvent e) {
+        if (e.getSource() == easyButton) {
+            launchGrid(Difficulty.EASY);
+        } else if (e.getSource() == mediumButton) {
+            launchGrid(Difficulty.MEDIUM);
+        } else if (e.getSource() == hardButton) {
+            launchGrid(Difficulty.HARD);
+        } else if (e.getSource() == noGuessBox && noGuessBox.isSelected()) {
+            endlessBox.setSelected(false);
+            prepareBoards(true);
+        } else if (e.getSource() == endlessBox && endlessBox.isSelected()) {
+            noGuessBox.setSelected(false);
+        }
+    }
+
+    /**
+     * asks the shared board pool to start laying out games for every preset
+     *
+     * @param noGuess true for boards that can be cleared without guessing
+     */
+    private void prepareBoards(boolean noGuess) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            BoardPool.getShared().prepare(difficulty.getBoardColumns(), difficulty.getBoardRows(),
+                    difficulty.getTotalMines(), noGuess);
+        }
+    }
+
+    /**
+     * starts up a new game with the board size and mine count of a preset and
+     * closes the menu, since the game window can change difficulty by itself.
+     * the no guessing box picks whether the boards need guesses or not, and
+     * the endless box plays an endless board with the preset's mine density instead
+     *
+     * @param difficulty which preset to play
+     */
+    private void launchGrid(Difficulty difficulty) {
+        if (endlessBox.isSelected()) {
+            new EndlessGrid(difficulty.getMineDensity());
+            dispose();
+            return;
+        }
+        new ClickableGrid(difficulty.getBoardColumns(), difficulty.getBoardRows(), difficulty.getTotalMines(),
+                noGuessBox.isSelected());
+        dispose();
+    }
+
+    /** opens the minesweeper menu, with the engine metrics visible through JMX */
+    public static void main(String[] args) {
+        GameMetrics.registerMBean();
+        new BootMenu();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * this class is a reusable list of square indexes. the game engine fills it
+ * with every square a move opened, so the window and stats can update once
+ * per click instead of once per square
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * a growable list of square indexes that gets cleared and refilled instead of thrown away
+ */
+public class CellBatch {
+    /** the square indexes, only the first size of them are used */
+    private int[] cells;
+    /** how many square indexes are in the batch right now */
+    private int size = 0;
+
+    /** creates an empty batch with a little room to start */
+    public CellBatch() {
+        this(64);
+    }
+
+    /**
+     * creates an empty batch
+     *
+     * @param initialCapacity how many squares it can hold before it has to grow
+     */
+    public CellBatch(int initialCapacity) {
+        cells = new int[Math.max(initialCapacity, 8)];
+    }
+
+    /**
+     * gets how many squares are in the batch
+     *
+     * @return the square count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * checks if the batch has no squares in it
+     *
+     * @return true if it's empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * gets one square index out of the batch
+     *
+     * @param position where in the batch, from 0 to size - 1
+     * @return the square index stored there
+     */
+    public int get(int position) {
+        if (position >= size) {
+            throw new IndexOutOfBoundsException("position " + position + " out of " + size);
+        }
+        return cells[position];
+    }
+
+    /**
+     * adds a square index to the end of the batch, growing it if it's full
+     *
+     * @param cellIndex the square to add
+     */
+    void add(int cellIndex) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        }
+        cells[size++] = cellIndex;
+    }
+
+    /**
+     * adds every square in another batch to the end of this one
+     *
+     * @param other the batch to copy from
+     */
+    void addAll(CellBatch other) {
+        if (cells.length - size < other.size) {
+            cells = Arrays.copyOf(cells, Math.max(cells.length * 2, size + other.size));
+        }
+        System.arraycopy(other.cells, 0, cells, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * reads a square index without the range check, for the engine's own loops
+     *
+     * @param position where in the batch
+     * @return the square index stored there
+     */
+    int getUnchecked(int position) {
+        return cells[position];
+    }
+
+    /** empties the batch but keeps its array so it can be filled again */
+    void clear() {
+        size = 0;
+    }
+}
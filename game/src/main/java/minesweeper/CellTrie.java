@@ -0,0 +1,214 @@
+/**
+ * this class is a board's squares kept as a persistent tree, so old versions
+ * stay readable and new versions share everything that didn't change with
+ * them. the squares sit in leaves of LEAF_SIZE bytes, and the leaves hang
+ * off branches of BRANCH_SIZE children, like a radix tree over the square
+ * index. changing some squares copies just their leaves and the branches
+ * above them, and keeping a version around is just keeping the reference
+ *
+ * going from one version back to another walks both trees together and
+ * skips every branch the two share, so it only costs as much as the squares
+ * that differ, however big the board is
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+/**
+ * an immutable, structurally shared copy of a board's square bytes
+ */
+final class CellTrie {
+    /** leaves hold 1 shl this many squares */
+    private static final int LEAF_SHIFT = 6;
+    /** how many squares a leaf holds */
+    private static final int LEAF_SIZE = 1 << LEAF_SHIFT;
+    /** branches hold 1 shl this many children */
+    private static final int BRANCH_SHIFT = 5;
+    /** how many children a branch holds */
+    private static final int BRANCH_SIZE = 1 << BRANCH_SHIFT;
+
+    /**
+     * a branch or a leaf. nodes never change once a version is built, except
+     * the ones a version is still being built out of, which carry that build's edit token
+     */
+    private static final class Node {
+        /** the token of the build that made this node and may still change it */
+        final Object edit;
+        /** a branch's children, null for a leaf */
+        final Node[] children;
+        /** a leaf's square bytes, null for a branch */
+        final byte[] cells;
+
+        /**
+         * creates a node
+         *
+         * @param edit     the token of the build making it
+         * @param children a branch's children, or null
+         * @param cells    a leaf's squares, or null
+         */
+        Node(Object edit, Node[] children, byte[] cells) {
+            this.edit = edit;
+            this.children = children;
+            this.cells = cells;
+        }
+    }
+
+    /** how many squares the board has */
+    private final int cellCount;
+    /** how far to shift a leaf number to get the root's child for it, 0 when the root is a leaf */
+    private final int shift;
+    /** the top of the tree */
+    private final Node root;
+
+    /**
+     * wraps a finished tree
+     *
+     * @param cellCount how many squares the board has
+     * @param shift     the root's shift
+     * @param root      the top of the tree
+     */
+    private CellTrie(int cellCount, int shift, Node root) {
+        this.cellCount = cellCount;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * copies a whole board into a new tree
+     *
+     * @param board the board
+     * @return the tree
+     */
+    static CellTrie of(Board board) {
+        int cellCount = board.getCellCount();
+        int leafCount = (cellCount + LEAF_SIZE - 1) >>> LEAF_SHIFT;
+        int shift = 0;
+        while ((long) leafCount > 1L << shift) {
+            shift += BRANCH_SHIFT;
+        }
+        return new CellTrie(cellCount, shift, build(board, shift, 0, leafCount, new Object()));
+    }
+
+    /**
+     * builds one subtree of a new tree
+     *
+     * @param board     the board to copy
+     * @param shift     this node's shift
+     * @param firstLeaf the number of the first leaf under it
+     * @param leafCount how many leaves the whole tree has
+     * @param edit      the build's token
+     * @return the subtree
+     */
+    private static Node build(Board board, int shift, int firstLeaf, int leafCount, Object edit) {
+        if (shift == 0) {
+            byte[] cells = new byte[LEAF_SIZE];
+            int from = firstLeaf << LEAF_SHIFT;
+            board.readCells(from, cells, Math.min(LEAF_SIZE, board.getCellCount() - from));
+            return new Node(edit, null, cells);
+        }
+        Node[] children = new Node[BRANCH_SIZE];
+        int childShift = shift - BRANCH_SHIFT;
+        for (int child = 0; child < BRANCH_SIZE; child++) {
+            int childLeaf = firstLeaf + (child << childShift);
+            if (childLeaf >= leafCount) break;
+            children[child] = build(board, childShift, childLeaf, leafCount, edit);
+        }
+        return new Node(edit, children, null);
+    }
+
+    /**
+     * gets a square's byte in this version
+     *
+     * @param cellIndex the square's index
+     * @return its bits and count, laid out like Board's
+     */
+    byte get(int cellIndex) {
+        int leaf = cellIndex >>> LEAF_SHIFT;
+        Node node = root;
+        for (int level = shift; level > 0; level -= BRANCH_SHIFT) {
+            node = node.children[(leaf >>> (level - BRANCH_SHIFT)) & (BRANCH_SIZE - 1)];
+        }
+        return node.cells[cellIndex & (LEAF_SIZE - 1)];
+    }
+
+    /**
+     * makes a new version with some squares copied in from the board. each
+     * leaf and branch on the way to them is copied once however many of its
+     * squares changed, and everything else is shared with this version
+     *
+     * @param changed the squares that changed, repeats are fine
+     * @param board   the board to read their bytes from
+     * @return the new version, or this one if nothing changed
+     */
+    CellTrie with(CellBatch changed, Board board) {
+        if (changed.isEmpty()) return this;
+        Object edit = new Object();
+        Node newRoot = editable(root, edit);
+        for (int i = 0; i < changed.size(); i++) {
+            int cellIndex = changed.getUnchecked(i);
+            int leaf = cellIndex >>> LEAF_SHIFT;
+            Node node = newRoot;
+            for (int level = shift; level > 0; level -= BRANCH_SHIFT) {
+                int child = (leaf >>> (level - BRANCH_SHIFT)) & (BRANCH_SIZE - 1);
+                Node next = editable(node.children[child], edit);
+                node.children[child] = next;
+                node = next;
+            }
+            node.cells[cellIndex & (LEAF_SIZE - 1)] = board.getCell(cellIndex);
+        }
+        return new CellTrie(cellCount, shift, newRoot);
+    }
+
+    /**
+     * gets a node the current build may change, copying it unless the build made it
+     *
+     * @param node the node
+     * @param edit the build's token
+     * @return the node itself or its copy
+     */
+    private static Node editable(Node node, Object edit) {
+        if (node.edit == edit) return node;
+        return new Node(edit, node.children == null ? null : node.children.clone(),
+                node.cells == null ? null : node.cells.clone());
+    }
+
+    /**
+     * puts this version onto a board that holds another version of the same
+     * tree, copying only the leaves the two don't share
+     *
+     * @param current the version the board holds now
+     * @param board   the board to change
+     * @return how many leaves were copied
+     */
+    int writeOver(CellTrie current, Board board) {
+        if (current.cellCount != cellCount) throw new IllegalArgumentException("versions are of different boards");
+        return writeOver(root, current.root, shift, 0, board);
+    }
+
+    /**
+     * copies the leaves of one subtree that differ from another onto the board
+     *
+     * @param target    the subtree to put on the board
+     * @param current   the same subtree in the version the board holds
+     * @param shift     the subtrees' shift
+     * @param firstLeaf the number of the first leaf under them
+     * @param board     the board to change
+     * @return how many leaves were copied
+     */
+    private int writeOver(Node target, Node current, int shift, int firstLeaf, Board board) {
+        if (target == current || target == null) return 0;
+        if (shift == 0) {
+            int from = firstLeaf << LEAF_SHIFT;
+            board.writeCells(from, target.cells, Math.min(LEAF_SIZE, cellCount - from));
+            return 1;
+        }
+        int copied = 0;
+        int childShift = shift - BRANCH_SHIFT;
+        for (int child = 0; child < BRANCH_SIZE; child++) {
+            copied += writeOver(target.children[child], current.children[child], childShift,
+                    firstLeaf + (child << childShift), board);
+        }
+        return copied;
+    }
+}
@@ -0,0 +1,355 @@
+/**
+ * this class describes everything one move changed on the board: the
+ * squares it opened and what they show, the flag it put down or picked up,
+ * whether it ended the game, and at the end of a game where all the mines
+ * were. the window repaints just those squares and the server sends just
+ * those squares, instead of either of them going over the whole board
+ *
+ * the squares are kept in board order so they can be encoded as runs of
+ * neighboring squares, and their values as runs of the same value, which
+ * is what a big cascade is mostly made of. a click that opens ten thousand
+ * squares turns into a message of a kilobyte or two. encoded layout:
+ * <pre>
+ *   byte   format version
+ *   byte   status ordinal, plus 0x80 if this move changed it
+ *   varint move count after the move
+ *   varint number of square runs, then for each run:
+ *            varint gap since the end of the last run, varint run length
+ *   varint number of value runs, then for each run:
+ *            byte value, varint how many squares in a row have it
+ * </pre>
+ * varints are seven bits a byte, low bits first, top bit set when more follow
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * the squares one move changed, with their new values, in board order
+ */
+public final class ChangeSet {
+    /** the newest encoded format version */
+    public static final byte VERSION = 1;
+    /** values 0 to 8 are opened numbers, and this is an opened mine */
+    public static final int MINE = 9;
+    /** a square that just got flagged */
+    public static final int FLAGGED = 10;
+    /** a square that just got unflagged and is hidden again */
+    public static final int HIDDEN = 11;
+    /** a mine that wasn't opened but shows now that the game is over */
+    public static final int MINE_SHOWN = 12;
+    /** how many low bits of an entry hold the value */
+    private static final int VALUE_BITS = 4;
+    /** picks the value out of an entry */
+    private static final long VALUE_MASK = (1 << VALUE_BITS) - 1;
+    /** the most squares a board can have, so the highest square index a change set can name, plus one */
+    private static final long MAX_SQUARES = Integer.MAX_VALUE - 8;
+
+    /** each changed square's index shifted up past its value, kept sorted once sealed */
+    private long[] entries;
+    /** how many entries are used */
+    private int size = 0;
+    /** the game's status after the move */
+    private final GameStatus status;
+    /** true if the move won or lost the game */
+    private final boolean statusChanged;
+    /** how many moves the game has had after this one */
+    private final long moveCount;
+
+    /**
+     * creates an empty change set for the engine or the decoder to fill
+     *
+     * @param status        the game's status after the move
+     * @param statusChanged true if the move won or lost the game
+     * @param moveCount     how many moves the game has had after this one
+     * @param capacity      how many squares to make room for
+     */
+    ChangeSet(GameStatus status, boolean statusChanged, long moveCount, int capacity) {
+        this.status = status;
+        this.statusChanged = statusChanged;
+        this.moveCount = moveCount;
+        this.entries = new long[Math.max(capacity, 4)];
+    }
+
+    /**
+     * adds a changed square
+     *
+     * @param cellIndex the square
+     * @param value     0 to 8, MINE, FLAGGED, HIDDEN or MINE_SHOWN
+     */
+    void add(int cellIndex, int value) {
+        if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+        entries[size++] = ((long) cellIndex << VALUE_BITS) | value;
+    }
+
+    /** puts the squares in board order once they've all been added */
+    void seal() {
+        Arrays.sort(entries, 0, size);
+    }
+
+    /**
+     * gets how many squares changed
+     *
+     * @return the count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * checks if the move changed nothing
+     *
+     * @return true if no squares changed
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * gets one changed square, in board order
+     *
+     * @param position from 0 to size - 1
+     * @return the square's index
+     */
+    public int getCell(int position) {
+        if (position >= size) throw new IndexOutOfBoundsException("position " + position + " out of " + size);
+        return (int) (entries[position] >>> VALUE_BITS);
+    }
+
+    /**
+     * gets what a changed square shows now
+     *
+     * @param position from 0 to size - 1
+     * @return 0 to 8, MINE, FLAGGED, HIDDEN or MINE_SHOWN
+     */
+    public int getValue(int position) {
+        if (position >= size) throw new IndexOutOfBoundsException("position " + position + " out of " + size);
+        return (int) (entries[position] & VALUE_MASK);
+    }
+
+    /**
+     * gets the game's status after the move
+     *
+     * @return the status
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * checks if the move won or lost the game
+     *
+     * @return true if it did
+     */
+    public boolean isStatusChanged() {
+        return statusChanged;
+    }
+
+    /**
+     * gets how many moves the game has had after this one
+     *
+     * @return the move count
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * packs the change set into bytes for sending somewhere else
+     *
+     * @return the encoded change set
+     */
+    public byte[] encode() {
+        // one pass to size the output exactly, a second to fill it
+        int runs = 0;
+        int valueRuns = 0;
+        int length = 2 + varintLength(moveCount);
+        int end = 0;
+        for (int i = 0; i < size; ) {
+            int start = (int) (entries[i] >>> VALUE_BITS);
+            int run = 1;
+            while (i + run < size && (int) (entries[i + run] >>> VALUE_BITS) == start + run) run++;
+            length += varintLength(start - end) + varintLength(run);
+            runs++;
+            end = start + run;
+            i += run;
+        }
+        for (int i = 0; i < size; ) {
+            int repeat = valueRunAt(i);
+            length += 1 + varintLength(repeat);
+            valueRuns++;
+            i += repeat;
+        }
+        length += varintLength(runs) + varintLength(valueRuns);
+
+        byte[] out = new byte[length];
+        out[0] = VERSION;
+        out[1] = (byte) (status.ordinal() | (statusChanged ? 0x80 : 0));
+        int position = writeVarint(out, 2, moveCount);
+        position = writeVarint(out, position, runs);
+        end = 0;
+        for (int i = 0; i < size; ) {
+            int start = (int) (entries[i] >>> VALUE_BITS);
+            int run = 1;
+            while (i + run < size && (int) (entries[i + run] >>> VALUE_BITS) == start + run) run++;
+            position = writeVarint(out, position, start - end);
+            position = writeVarint(out, position, run);
+            end = start + run;
+            i += run;
+        }
+        position = writeVarint(out, position, valueRuns);
+        for (int i = 0; i < size; ) {
+            int repeat = valueRunAt(i);
+            out[position++] = (byte) (entries[i] & VALUE_MASK);
+            position = writeVarint(out, position, repeat);
+            i += repeat;
+        }
+        return out;
+    }
+
+    /**
+     * counts how many squares in a row starting at an entry have its value
+     *
+     * @param position the first entry
+     * @return how many share the value, at least 1
+     */
+    private int valueRunAt(int position) {
+        long value = entries[position] & VALUE_MASK;
+        int repeat = 1;
+        while (position + repeat < size && (entries[position + repeat] & VALUE_MASK) == value) repeat++;
+        return repeat;
+    }
+
+    /**
+     * unpacks a change set that encode made. every count is checked against
+     * the bytes left and the squares the runs add up to before anything is
+     * made from it, so bad bytes get an exception instead of a huge array
+     *
+     * @param bytes the encoded change set
+     * @return the change set
+     * @throws IllegalArgumentException if the bytes aren't a change set
+     */
+    public static ChangeSet decode(byte[] bytes) {
+        int[] position = {0};
+        try {
+            if (bytes[position[0]++] != VERSION) throw new IllegalArgumentException("unsupported change set version");
+            int statusByte = bytes[position[0]++] & 0xFF;
+            GameStatus[] statuses = GameStatus.values();
+            if ((statusByte & 0x7F) >= statuses.length) throw new IllegalArgumentException("bad status in change set");
+            long moveCount = readCount(bytes, position, Long.MAX_VALUE, "move count");
+
+            // a square run takes at least two bytes, a gap and a length
+            int runs = (int) readCount(bytes, position, (bytes.length - position[0]) / 2, "number of square runs");
+            int[] starts = new int[runs];
+            int[] lengths = new int[runs];
+            long total = 0;
+            long end = 0;
+            for (int run = 0; run < runs; run++) {
+                long start = end + readCount(bytes, position, MAX_SQUARES - end, "gap between square runs");
+                long length = readCount(bytes, position, MAX_SQUARES - start, "square run length");
+                if (length == 0) throw new IllegalArgumentException("empty square run in change set");
+                starts[run] = (int) start;
+                lengths[run] = (int) length;
+                end = start + length;
+                total += length;
+            }
+
+            ChangeSet changes = new ChangeSet(statuses[statusByte & 0x7F], (statusByte & 0x80) != 0, moveCount,
+                    (int) Math.min(total, bytes.length));
+            // a value run takes at least two bytes, the value and how many
+            int valueRuns = (int) readCount(bytes, position, (bytes.length - position[0]) / 2, "number of value runs");
+            int run = 0;
+            int inRun = 0;
+            for (int valueRun = 0; valueRun < valueRuns; valueRun++) {
+                int value = bytes[position[0]++] & 0xFF;
+                if (value > MINE_SHOWN) throw new IllegalArgumentException("bad value " + value + " in change set");
+                long repeat = readCount(bytes, position, total - changes.size, "value run length");
+                if (repeat == 0) throw new IllegalArgumentException("empty value run in change set");
+                for (long i = 0; i < repeat; i++) {
+                    while (inRun == lengths[run]) {
+                        run++;
+                        inRun = 0;
+                    }
+                    changes.add(starts[run] + inRun++, value);
+                }
+            }
+            if (changes.size != total) throw new IllegalArgumentException("change set values don't match its squares");
+            if (position[0] != bytes.length) throw new IllegalArgumentException("change set has bytes left over");
+            return changes;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("change set is cut short or corrupt", e);
+        }
+    }
+
+    /**
+     * reads a varint and checks it's a count that makes sense where it is
+     *
+     * @param bytes    the encoded bytes
+     * @param position where to read from, moved past the number
+     * @param max      the biggest it can be
+     * @param what     what it counts, for the message
+     * @return the number, from 0 to max
+     * @throws IllegalArgumentException if it's negative or more than max
+     */
+    private static long readCount(byte[] bytes, int[] position, long max, String what) {
+        long value = readVarint(bytes, position);
+        if (value < 0 || value > max) throw new IllegalArgumentException("bad " + what + " in change set: " + value);
+        return value;
+    }
+
+    /**
+     * figures out how many bytes writeVarint takes for a number
+     *
+     * @param value the number, never negative
+     * @return 1 to 10
+     */
+    private static int varintLength(long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * writes a number seven bits at a time
+     *
+     * @param out      where to write it, with room for it
+     * @param position where it starts
+     * @param value    the number, never negative
+     * @return the position just past it
+     */
+    private static int writeVarint(byte[] out, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * reads a number writeVarint wrote
+     *
+     * @param bytes    the encoded bytes
+     * @param position where to read from, moved past the number
+     * @return the number
+     * @throws IllegalArgumentException if it runs past ten bytes
+     */
+    private static long readVarint(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0 && shift < 64);
+        if (b < 0) throw new IllegalArgumentException("varint too long in change set");
+        return value;
+    }
+}
@@ -0,0 +1,549 @@
+/**
+ * this class is the board for endless games. it's split into square chunks
+ * that only come into being the first time something looks at them: a
+ * chunk's mines come from a seed worked out from the game seed and the
+ * chunk's position, so the same chunk always gets the same mines, and its
+ * numbers are counted from its own mines and its neighbors' edges, so they
+ * come out right across chunk borders. the chunks in use are kept in memory,
+ * least recently used first, and once there are too many the oldest one is
+ * dropped. a chunk nobody has opened or flagged anything on can simply be
+ * made again, and one that has been played on gets its reveal and flag bits
+ * written to a spill file and read back when it's needed again. memory goes
+ * with how much of the board has been looked at lately, not with its size
+ *
+ * squares are found by row and column, which can be negative. the board goes
+ * EDGE squares out from the middle in every direction, which is as good as
+ * endless. it isn't thread safe, just like Board
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * a lazily made, chunked board with an lru cache of chunks and a spill file for played ones
+ */
+public class ChunkedBoard implements Closeable {
+    /** chunks are 1 shl this many squares on a side */
+    public static final int CHUNK_SHIFT = 6;
+    /** how many squares wide and tall a chunk is */
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    /** how many squares a chunk has */
+    public static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    /** squares this far or further from the middle are off the board */
+    public static final int EDGE = 1 << 30;
+    /** how many chunks stay in memory when nobody says otherwise */
+    public static final int DEFAULT_HOT_CHUNKS = 256;
+    /** how many chunks' mines are cached for each chunk kept in memory */
+    private static final int MINE_CACHE_FACTOR = 4;
+    /** picks a square's row or column inside its chunk */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /** spreads chunk keys out before they seed a chunk's mines */
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+    /** how many bytes a spilled chunk takes: a bit per square for revealed, then one for flagged */
+    private static final int SPILL_RECORD_BYTES = CHUNK_CELLS / 8 * 2;
+
+    /**
+     * one chunk's squares, laid out and bit-packed just like Board
+     */
+    private static final class Chunk {
+        /** the chunk's row among chunks */
+        final int chunkRow;
+        /** the chunk's column among chunks */
+        final int chunkColumn;
+        /** one byte per square, row by row, with Board's bits and count */
+        final byte[] cells = new byte[CHUNK_CELLS];
+        /** true if it was played on since it was last written to the spill file */
+        boolean dirty;
+        /** false once it's been dropped from memory, so anyone holding it knows to look it up again */
+        boolean hot = true;
+
+        /**
+         * creates an empty chunk
+         *
+         * @param chunkRow    the chunk's row among chunks
+         * @param chunkColumn the chunk's column among chunks
+         */
+        Chunk(int chunkRow, int chunkColumn) {
+            this.chunkRow = chunkRow;
+            this.chunkColumn = chunkColumn;
+        }
+    }
+
+    /** the game seed every chunk's mines come from */
+    private final long seed;
+    /** how many mines each chunk gets, before the safe start is cleared */
+    private final int minesPerChunk;
+    /** how many chunks stay in memory */
+    private final int hotChunks;
+    /** the chunks in memory by key, least recently used first */
+    private final Map<Long, Chunk> hot;
+    /** where each played chunk that has been spilled lives in the spill file, by key */
+    private final Map<Long, Integer> spillSlots = new HashMap<>();
+    /**
+     * the mines of recently laid out chunks by key, a row of bits per square
+     * row, so laying out a chunk doesn't redo its neighbors' mines every time
+     */
+    private final Map<Long, long[]> mineCache;
+    /** the spill file, made the first time a played chunk is dropped */
+    private RandomAccessFile spillFile;
+    /** where the spill file is, so it can be deleted */
+    private Path spillPath;
+    /** the chunk looked up last, since most lookups land in the same one */
+    private Chunk lastChunk;
+    /** how many chunks have been laid out, counting ones laid out again */
+    private long chunksGenerated = 0;
+    /** how many times a played chunk was read back from the spill file */
+    private long chunksReloaded = 0;
+
+    /** scratch for the mines of a chunk and its eight neighbors, a row of bits per square row */
+    private final long[][] around = new long[9][CHUNK_SIZE];
+    /** scratch for the bits of a row's counts */
+    private final long[] sums = new long[4];
+    /** scratch for a spill record */
+    private final byte[] record = new byte[SPILL_RECORD_BYTES];
+
+    /**
+     * creates an endless board
+     *
+     * @param seed        picks where every mine goes
+     * @param mineDensity how many squares out of one have mines
+     * @param hotChunks   how many chunks to keep in memory, at least 16
+     */
+    public ChunkedBoard(long seed, double mineDensity, int hotChunks) {
+        if (!(mineDensity > 0 && mineDensity < 1)) throw new IllegalArgumentException("mine density must be between 0 and 1");
+        if (hotChunks < 16) throw new IllegalArgumentException("need room for at least 16 chunks");
+        this.seed = seed;
+        this.minesPerChunk = (int) Math.round(mineDensity * CHUNK_CELLS);
+        this.hotChunks = hotChunks;
+        this.hot = new LinkedHashMap<>(hotChunks * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= ChunkedBoard.this.hotChunks) return false;
+                drop(eldest.getValue());
+                return true;
+            }
+        };
+        this.mineCache = new LinkedHashMap<>(hotChunks * 8, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > ChunkedBoard.this.hotChunks * MINE_CACHE_FACTOR;
+            }
+        };
+    }
+
+    /**
+     * gets the seed every chunk's mines come from
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * gets how many squares out of one have mines, before the safe start is cleared
+     *
+     * @return the mine density
+     */
+    public double getMineDensity() {
+        return minesPerChunk / (double) CHUNK_CELLS;
+    }
+
+    /**
+     * checks if a position is on the board
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return true if it's less than EDGE from the middle both ways
+     */
+    public boolean isInBounds(int rowIndex, int columnIndex) {
+        return rowIndex > -EDGE && rowIndex < EDGE && columnIndex > -EDGE && columnIndex < EDGE;
+    }
+
+    /**
+     * checks if a square is one of the nine around the middle, which never have mines
+     * so every game has somewhere safe to start
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return true if it's in the safe start
+     */
+    public static boolean isSafeStart(int rowIndex, int columnIndex) {
+        return rowIndex >= -1 && rowIndex <= 1 && columnIndex >= -1 && columnIndex <= 1;
+    }
+
+    /**
+     * checks if a square has a mine
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return true if there's a mine there
+     */
+    public boolean isMine(int rowIndex, int columnIndex) {
+        return (cell(rowIndex, columnIndex) & Board.MINE) != 0;
+    }
+
+    /**
+     * checks if a square has been revealed
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return true if it's open
+     */
+    public boolean isRevealed(int rowIndex, int columnIndex) {
+        return (cell(rowIndex, columnIndex) & Board.REVEALED) != 0;
+    }
+
+    /**
+     * checks if a square has a flag on it
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return true if it's flagged
+     */
+    public boolean isFlagged(int rowIndex, int columnIndex) {
+        return (cell(rowIndex, columnIndex) & Board.FLAGGED) != 0;
+    }
+
+    /**
+     * gets how many mines are next to a square, counting ones in the next chunk over
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return how many neighbors have mines
+     */
+    public int getAdjacentMineCount(int rowIndex, int columnIndex) {
+        return (cell(rowIndex, columnIndex) & 0xFF) >>> Board.COUNT_SHIFT;
+    }
+
+    /**
+     * marks a square as revealed
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     */
+    public void reveal(int rowIndex, int columnIndex) {
+        Chunk chunk = chunkAt(rowIndex, columnIndex);
+        chunk.cells[cellOf(rowIndex, columnIndex)] |= Board.REVEALED;
+        chunk.dirty = true;
+    }
+
+    /**
+     * puts a flag on a square or takes it off
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @param flagged     true to put a flag there
+     */
+    public void setFlagged(int rowIndex, int columnIndex, boolean flagged) {
+        Chunk chunk = chunkAt(rowIndex, columnIndex);
+        int cellIndex = cellOf(rowIndex, columnIndex);
+        if (flagged) {
+            chunk.cells[cellIndex] |= Board.FLAGGED;
+        } else {
+            chunk.cells[cellIndex] &= ~Board.FLAGGED;
+        }
+        chunk.dirty = true;
+    }
+
+    /**
+     * reveals a square for a cascade unless it's already open or flagged, with
+     * one chunk lookup instead of one per check
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return how many mines are next to it, or -1 if it was left alone
+     */
+    int open(int rowIndex, int columnIndex) {
+        Chunk chunk = chunkAt(rowIndex, columnIndex);
+        int cellIndex = cellOf(rowIndex, columnIndex);
+        int cell = chunk.cells[cellIndex];
+        if ((cell & (Board.REVEALED | Board.FLAGGED)) != 0) return -1;
+        chunk.cells[cellIndex] = (byte) (cell | Board.REVEALED);
+        chunk.dirty = true;
+        return (cell & 0xFF) >>> Board.COUNT_SHIFT;
+    }
+
+    /**
+     * gets how many chunks are in memory right now
+     *
+     * @return the count, never more than the hot chunk limit
+     */
+    public int getHotChunkCount() {
+        return hot.size();
+    }
+
+    /**
+     * gets how many played chunks have a copy in the spill file
+     *
+     * @return the count
+     */
+    public int getSpilledChunkCount() {
+        return spillSlots.size();
+    }
+
+    /**
+     * gets how many chunks have been laid out so far, counting ones laid out again after being dropped
+     *
+     * @return the count
+     */
+    public long getChunksGenerated() {
+        return chunksGenerated;
+    }
+
+    /**
+     * gets how many times a played chunk was read back from the spill file
+     *
+     * @return the count
+     */
+    public long getChunksReloaded() {
+        return chunksReloaded;
+    }
+
+    /**
+     * deletes the spill file. the board can't be used after this
+     *
+     * @throws IOException if the file can't be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        hot.clear();
+        mineCache.clear();
+        lastChunk = null;
+        if (spillFile != null) {
+            spillFile.close();
+            Files.deleteIfExists(spillPath);
+            spillFile = null;
+        }
+    }
+
+    /**
+     * gets the byte for a square
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return its bits and count
+     */
+    private int cell(int rowIndex, int columnIndex) {
+        return chunkAt(rowIndex, columnIndex).cells[cellOf(rowIndex, columnIndex)];
+    }
+
+    /**
+     * gets a square's index inside its chunk
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return the index into the chunk's cells
+     */
+    private static int cellOf(int rowIndex, int columnIndex) {
+        return ((rowIndex & CHUNK_MASK) << CHUNK_SHIFT) | (columnIndex & CHUNK_MASK);
+    }
+
+    /**
+     * gets the chunk a square is in, laying it out or reading it back first if
+     * it isn't in memory. the one looked up last is remembered until it gets
+     * dropped, so walking around inside a chunk never touches the map
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return the chunk
+     */
+    private Chunk chunkAt(int rowIndex, int columnIndex) {
+        int chunkRow = rowIndex >> CHUNK_SHIFT;
+        int chunkColumn = columnIndex >> CHUNK_SHIFT;
+        Chunk chunk = lastChunk;
+        if (chunk != null && chunk.hot && chunk.chunkRow == chunkRow && chunk.chunkColumn == chunkColumn) return chunk;
+
+        long key = keyOf(chunkRow, chunkColumn);
+        chunk = hot.get(key);
+        if (chunk == null) {
+            chunk = load(chunkRow, chunkColumn, key);
+            hot.put(key, chunk);
+        }
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    /**
+     * packs a chunk's position into one number
+     *
+     * @param chunkRow    the chunk's row among chunks
+     * @param chunkColumn the chunk's column among chunks
+     * @return the key
+     */
+    private static long keyOf(int chunkRow, int chunkColumn) {
+        return ((long) chunkRow << 32) | (chunkColumn & 0xFFFFFFFFL);
+    }
+
+    /**
+     * lays a chunk out from its seed and, if it was played on before, puts its
+     * reveals and flags back from the spill file
+     *
+     * @param chunkRow    the chunk's row among chunks
+     * @param chunkColumn the chunk's column among chunks
+     * @param key         the chunk's key
+     * @return the chunk
+     */
+    private Chunk load(int chunkRow, int chunkColumn, long key) {
+        long startNanos = GameMetrics.startTimer();
+        Chunk chunk = new Chunk(chunkRow, chunkColumn);
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                minesOf(chunkRow + dr, chunkColumn + dc, around[(dr + 1) * 3 + dc + 1]);
+            }
+        }
+        // a chunk row is exactly one long of mines, so each row's counts are
+        // its three rows shifted into line and added 64 squares at a time
+        byte[] cells = chunk.cells;
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            long up = minesAround(row - 1, 1);
+            long down = minesAround(row + 1, 1);
+            long mines = minesAround(row, 1);
+            MineCounts.add(
+                    MineCounts.shiftedRight(up, minesAround(row - 1, 0) >>> 63), up,
+                    MineCounts.shiftedLeft(up, minesAround(row - 1, 2) & 1),
+                    MineCounts.shiftedRight(mines, minesAround(row, 0) >>> 63),
+                    MineCounts.shiftedLeft(mines, minesAround(row, 2) & 1),
+                    MineCounts.shiftedRight(down, minesAround(row + 1, 0) >>> 63), down,
+                    MineCounts.shiftedLeft(down, minesAround(row + 1, 2) & 1), sums);
+            MineCounts.write(sums, mines, cells, row << CHUNK_SHIFT, CHUNK_SIZE);
+        }
+        chunksGenerated++;
+        GameMetrics.record(GameMetrics.GENERATION, startNanos);
+
+        Integer slot = spillSlots.get(key);
+        if (slot != null) {
+            readRecord(slot);
+            for (int cellIndex = 0; cellIndex < CHUNK_CELLS; cellIndex++) {
+                if ((record[cellIndex >>> 3] & (1 << (cellIndex & 7))) != 0) cells[cellIndex] |= Board.REVEALED;
+                if ((record[CHUNK_CELLS / 8 + (cellIndex >>> 3)] & (1 << (cellIndex & 7))) != 0) {
+                    cells[cellIndex] |= Board.FLAGGED;
+                }
+            }
+            chunksReloaded++;
+        }
+        return chunk;
+    }
+
+    /**
+     * gets a row of mines load got for a chunk and its neighbors, for a row
+     * given relative to the middle chunk, up to one row into a neighbor
+     *
+     * @param row         the row, from -1 to CHUNK_SIZE
+     * @param chunkColumn 0 for the chunk to the left, 1 for the middle, 2 for the right
+     * @return the row's mines, bit i for column i
+     */
+    private long minesAround(int row, int chunkColumn) {
+        return around[((row >> CHUNK_SHIFT) + 1) * 3 + chunkColumn][row & CHUNK_MASK];
+    }
+
+    /**
+     * works out where a chunk's mines are from its seed, leaving the safe start empty
+     *
+     * @param chunkRow    the chunk's row among chunks
+     * @param chunkColumn the chunk's column among chunks
+     * @param mines       filled with a row of bits per square row
+     */
+    private void minesOf(int chunkRow, int chunkColumn, long[] mines) {
+        long key = keyOf(chunkRow, chunkColumn);
+        long[] known = mineCache.get(key);
+        if (known != null) {
+            System.arraycopy(known, 0, mines, 0, CHUNK_SIZE);
+            return;
+        }
+        Arrays.fill(mines, 0);
+        SplittableRandom random = new SplittableRandom(seed + key * SEED_MIX);
+        // picking again when a square already has a mine takes under two tries
+        // on average at the densities games use, and needs no shuffle array
+        for (int placed = 0; placed < minesPerChunk; ) {
+            int cellIndex = random.nextInt(CHUNK_CELLS);
+            long bit = 1L << (cellIndex & CHUNK_MASK);
+            if ((mines[cellIndex >>> CHUNK_SHIFT] & bit) != 0) continue;
+            mines[cellIndex >>> CHUNK_SHIFT] |= bit;
+            placed++;
+        }
+        for (int row = -1; row <= 1; row++) {
+            for (int column = -1; column <= 1; column++) {
+                if (row >> CHUNK_SHIFT == chunkRow && column >> CHUNK_SHIFT == chunkColumn) {
+                    mines[row & CHUNK_MASK] &= ~(1L << (column & CHUNK_MASK));
+                }
+            }
+        }
+        mineCache.put(key, mines.clone());
+    }
+
+    /**
+     * takes a chunk out of memory, writing its reveals and flags to the spill
+     * file first if it changed since they were last written
+     *
+     * @param chunk the chunk being dropped
+     */
+    private void drop(Chunk chunk) {
+        chunk.hot = false;
+        if (chunk == lastChunk) lastChunk = null;
+        if (!chunk.dirty) return;
+
+        Arrays.fill(record, (byte) 0);
+        byte[] cells = chunk.cells;
+        for (int cellIndex = 0; cellIndex < CHUNK_CELLS; cellIndex++) {
+            if ((cells[cellIndex] & Board.REVEALED) != 0) record[cellIndex >>> 3] |= (byte) (1 << (cellIndex & 7));
+            if ((cells[cellIndex] & Board.FLAGGED) != 0) {
+                record[CHUNK_CELLS / 8 + (cellIndex >>> 3)] |= (byte) (1 << (cellIndex & 7));
+            }
+        }
+        long key = keyOf(chunk.chunkRow, chunk.chunkColumn);
+        Integer slot = spillSlots.get(key);
+        if (slot == null) {
+            slot = spillSlots.size();
+            spillSlots.put(key, slot);
+        }
+        writeRecord(slot);
+        chunk.dirty = false;
+    }
+
+    /**
+     * writes the scratch record to a slot in the spill file, making the file if there isn't one yet
+     *
+     * @param slot which record
+     */
+    private void writeRecord(int slot) {
+        try {
+            if (spillFile == null) {
+                spillPath = Files.createTempFile("minesweeper-endless-", ".chunks");
+                spillPath.toFile().deleteOnExit();
+                spillFile = new RandomAccessFile(spillPath.toFile(), "rw");
+            }
+            spillFile.seek((long) slot * SPILL_RECORD_BYTES);
+            spillFile.write(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("couldn't spill a chunk to disk", e);
+        }
+    }
+
+    /**
+     * reads a slot of the spill file into the scratch record
+     *
+     * @param slot which record
+     */
+    private void readRecord(int slot) {
+        try {
+            spillFile.seek((long) slot * SPILL_RECORD_BYTES);
+            spillFile.readFully(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("couldn't read a spilled chunk back", e);
+        }
+    }
+}
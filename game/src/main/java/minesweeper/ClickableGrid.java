@@ -0,0 +1,859 @@
+/**
+ * this is the main game window class where you actually play minesweeper
+ * it shows the board in a scrollable, zoomable board view and passes clicks
+ * on to the game engine, which does the mine placement, revealing and win checking
+ *
+ * the engine runs on the window's GameWorker, never on the swing thread:
+ * clicks, hints, undo, saving and loading are all queued to it in order, and
+ * what they change comes back as updates that the board view applies to its
+ * own copy of the squares. so the game and its history are only touched on
+ * the worker, even the first game, which may have to be laid out on the spot,
+ * and the window stays responsive during a huge cascade or a slow hint
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * this is the main game window where you actually play minesweeper
+ */
+public class ClickableGrid extends JFrame implements ActionListener, BoardView.CellListener {
+    /**
+     * how many squares a move can change before the worker sends a copy of
+     * the whole board instead, so the swing thread never spends more than a
+     * fraction of a frame on one move however big the cascade
+     */
+    private static final int WHOLE_BOARD_CHANGES = 1 << 14;
+    /** the name wins are recorded under, from the minesweeper.player system property or the login name */
+    private static final String PLAYER_NAME = System.getProperty("minesweeper.player", System.getProperty("user.name", "player"));
+
+    /**
+     * what the label at the top should say, worked out on the worker so the
+     * swing thread doesn't have to look at the game
+     */
+    private static final class StatusReport {
+        /** whether the game is still going, won or lost */
+        final GameStatus status;
+        /** how many flags are down */
+        final int flaggedTiles;
+        /** how long the game had been going when this was made, 0 before the first reveal */
+        final long elapsedNanos;
+        /** what to say after a win about where it placed, or "" */
+        final String placement;
+
+        /**
+         * creates a report
+         *
+         * @param status       whether the game is still going, won or lost
+         * @param flaggedTiles how many flags are down
+         * @param elapsedNanos how long the game had been going
+         * @param placement    where a win placed, or ""
+         */
+        StatusReport(GameStatus status, int flaggedTiles, long elapsedNanos, String placement) {
+            this.status = status;
+            this.flaggedTiles = flaggedTiles;
+            this.elapsedNanos = elapsedNanos;
+            this.placement = placement;
+        }
+    }
+
+    /** how many columns wide the board is */
+    private int boardColumns;
+    /** how many rows tall the board is */
+    private int boardRows;
+    /** total number of mines hidden in this game */
+    private int totalMines;
+    /** whether new games only get boards that can be cleared without guessing */
+    private boolean noGuess;
+    /** the game engine that holds the board and all the game logic, only used on the worker, null until the first game is ready */
+    private MinesweeperGame game;
+    /** the game the board view is showing, which clicks are meant for */
+    private MinesweeperGame shownGame;
+    /** whether the shown game's moves are being recorded, so they can be saved */
+    private boolean movesRecorded;
+    /** how many jobs that change the board have been queued, so a hint worked out or a replay started before one can be dropped */
+    private int boardJobs = 0;
+    /** runs the game logic off the swing thread */
+    private final GameWorker worker = new GameWorker("minesweeper-engine", this::recover);
+    /** the component that draws the board and turns clicks into squares */
+    private final BoardView boardView;
+    /** the label at the top that shows how many mines and flags there are */
+    private final JLabel statusLabel;
+    /** Restart button */
+    private JButton resetButton;
+    /** Difficulty button */
+    private JButton difficultyButton;
+    /** Hint button */
+    private JButton hintButton;
+    /** Save button */
+    private JButton saveButton;
+    /** Load button */
+    private JButton loadButton;
+    /** Undo button */
+    private JButton undoButton;
+    /** Redo button */
+    private JButton redoButton;
+    /** Scores button */
+    private JButton scoresButton;
+    /** what the label at the top says right now */
+    private StatusReport shownStatus;
+    /** when the shown game's clock started, by this thread's System.nanoTime */
+    private long clockStartNanos;
+    /** ticks the time at the top along while a game is going */
+    private final Timer clock = new Timer(100, e -> updateStatus());
+    /** whether a win in the current game goes on the leaderboard, only used on the worker */
+    private boolean ranked = true;
+    /** every state the game has been in, for undo and redo, only used on the worker, null until the first game is ready */
+    private GameHistory history;
+    /** the menu the redo button pops up when there's more than one move to redo */
+    private final JPopupMenu branchMenu = new JPopupMenu();
+    /** picks where games get saved to and loaded from, kept so it remembers the last folder */
+    private final JFileChooser fileChooser = new JFileChooser();
+    /** the menu the difficulty button pops up */
+    private final JPopupMenu difficultyMenu = new JPopupMenu();
+    /** the difficulty menu's switch for no-guess boards */
+    private final JCheckBoxMenuItem noGuessItem = new JCheckBoxMenuItem("no guessing");
+    /** the menu the save button pops up, for saving the board or the moves */
+    private final JPopupMenu saveMenu = new JPopupMenu();
+    /** steps through a move log while one is being played back, or null */
+    private Timer replayTimer;
+    /** works out safe squares and mine chances for the hint overlay, only used on the worker */
+    private final Solver solver = new Solver();
+
+    /**
+     * creates a new minesweeper game window and sets everything up
+     *
+     * @param boardColumns how many columns you want
+     * @param boardRows    how many rows you want
+     * @param totalMines   how many mines you want 
+     */
+    public ClickableGrid(int boardColumns, int boardRows, int totalMines) {
+        this(boardColumns, boardRows, totalMines, false);
+    }
+
+    /**
+     * creates a new minesweeper game window, optionally with boards that never need a guess
+     *
+     * @param boardColumns how many columns you want
+     * @param boardRows    how many rows you want
+     * @param totalMines   how many mines you want
+     * @param noGuess      true to only hand out boards that can be cleared by logic alone
+     */
+    public ClickableGrid(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        setTitle("Minesweeper");
+        this.boardColumns = boardColumns;
+        this.boardRows = boardRows;
+        this.noGuess = noGuess;
+        this.totalMines = totalMines;
+        // the first game comes from the worker like every other, since a no-guess
+        // or custom size board may have to be laid out on the spot. until it shows
+        // up the view draws a blank board of the same size, and shownGame stays
+        // null so clicks on it go nowhere
+        MinesweeperGame blank = new MinesweeperGame(boardColumns, boardRows, totalMines, MinePlacer.newSeed(), true);
+
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                stopReplay();
+                clock.stop();
+                worker.close();
+            }
+        });
+        Container contentPane = getContentPane();
+        contentPane.setLayout(new BorderLayout());
+        Color background = new Color(220, 220, 235);
+        contentPane.setBackground(background);
+
+        statusLabel = new JLabel("Mines: " + this.totalMines + " | Flags: 0");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        statusLabel.setForeground(new Color(40, 40, 60));
+        contentPane.add(statusLabel, BorderLayout.NORTH);
+
+        boardView = new BoardView(blank);
+        boardView.setCellListener(this);
+        JScrollPane scrollPane = new JScrollPane(boardView);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 20));
+        scrollPane.getViewport().setBackground(background);
+        scrollPane.setBackground(background);
+        contentPane.add(scrollPane, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        buttonPanel.setBackground(background);
+
+        resetButton = new JButton("restart");
+        resetButton.setPreferredSize(new Dimension(100, 30));
+        resetButton.setBackground(new Color(180, 200, 220));
+        resetButton.addActionListener(this);
+        buttonPanel.add(resetButton);
+
+        difficultyButton = new JButton("difficulty");
+        difficultyButton.setPreferredSize(new Dimension(100, 30));
+        difficultyButton.setBackground(new Color(200, 190, 220));
+        difficultyButton.addActionListener(this);
+        buttonPanel.add(difficultyButton);
+        for (Difficulty difficulty : Difficulty.values()) {
+            JMenuItem item = new JMenuItem(difficulty.name().toLowerCase());
+            item.addActionListener(e -> newGame(difficulty.getBoardColumns(), difficulty.getBoardRows(), difficulty.getTotalMines()));
+            difficultyMenu.add(item);
+        }
+        difficultyMenu.addSeparator();
+        noGuessItem.setSelected(noGuess);
+        noGuessItem.addActionListener(e -> {
+            this.noGuess = noGuessItem.isSelected();
+            restart();
+        });
+        difficultyMenu.add(noGuessItem);
+
+        hintButton = new JButton("hint");
+        hintButton.setPreferredSize(new Dimension(100, 30));
+        hintButton.setBackground(new Color(200, 220, 190));
+        hintButton.addActionListener(this);
+        buttonPanel.add(hintButton);
+
+        saveButton = new JButton("save");
+        saveButton.setPreferredSize(new Dimension(100, 30));
+        saveButton.setBackground(new Color(220, 210, 190));
+        saveButton.addActionListener(this);
+        buttonPanel.add(saveButton);
+        JMenuItem saveGameItem = new JMenuItem("game");
+        saveGameItem.addActionListener(e -> saveGame());
+        saveMenu.add(saveGameItem);
+        JMenuItem saveMovesItem = new JMenuItem("moves");
+        saveMovesItem.addActionListener(e -> saveMoves());
+        saveMenu.add(saveMovesItem);
+
+        loadButton = new JButton("load");
+        loadButton.setPreferredSize(new Dimension(100, 30));
+        loadButton.setBackground(new Color(220, 200, 200));
+        loadButton.addActionListener(this);
+        buttonPanel.add(loadButton);
+
+        undoButton = new JButton("undo");
+        undoButton.setPreferredSize(new Dimension(70, 30));
+        undoButton.setBackground(new Color(210, 210, 220));
+        undoButton.addActionListener(this);
+        buttonPanel.add(undoButton);
+
+        redoButton = new JButton("redo");
+        redoButton.setPreferredSize(new Dimension(70, 30));
+        redoButton.setBackground(new Color(210, 210, 220));
+        redoButton.addActionListener(this);
+        buttonPanel.add(redoButton);
+
+        scoresButton = new JButton("scores");
+        scoresButton.setPreferredSize(new Dimension(80, 30));
+        scoresButton.setBackground(new Color(220, 220, 190));
+        scoresButton.addActionListener(this);
+        buttonPanel.add(scoresButton);
+        contentPane.add(buttonPanel, BorderLayout.SOUTH);
+
+        // ctrl+z undoes, ctrl+y or ctrl+shift+z redoes
+        JRootPane rootPane = getRootPane();
+        rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("ctrl Z"), "undo");
+        rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("ctrl Y"), "redo");
+        rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("ctrl shift Z"), "redo");
+        rootPane.getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                undo();
+            }
+        });
+        rootPane.getActionMap().put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                redo();
+            }
+        });
+
+        pack();
+        setLocation(100, 100);
+
+        worker.submit(() -> showGame(takeGame(boardColumns, boardRows, totalMines, noGuess), true));
+        ScoreStore.openSharedInBackground();
+        setVisible(true);
+    }
+
+    /**
+     * handles the restart, difficulty, hint, save, load, undo, redo and scores buttons
+     *
+     * @param e the action event
+     */
+    public void actionPerformed(ActionEvent e) {
+        if (e.getSource() == resetButton) {
+            restart();
+        } else if (e.getSource() == difficultyButton) {
+            difficultyMenu.show(difficultyButton, 0, difficultyButton.getHeight());
+        } else if (e.getSource() == hintButton) {
+            showHint();
+        } else if (e.getSource() == saveButton) {
+            saveMenu.show(saveButton, 0, saveButton.getHeight());
+        } else if (e.getSource() == loadButton) {
+            loadGame();
+        } else if (e.getSource() == undoButton) {
+            undo();
+        } else if (e.getSource() == redoButton) {
+            redo();
+        } else if (e.getSource() == scoresButton) {
+            showScores();
+        }
+    }
+
+    /**
+     * reveals the square that was left clicked
+     *
+     * @param cellIndex the square the board view worked out was clicked
+     */
+    public void revealClicked(int cellIndex) {
+        stopReplay();
+        queueMove(shownGame, MoveLog.REVEAL, cellIndex);
+    }
+
+    /**
+     * flags or unflags the square that was right clicked
+     *
+     * @param cellIndex the square the board view worked out was clicked
+     */
+    public void flagClicked(int cellIndex) {
+        stopReplay();
+        queueMove(shownGame, MoveLog.FLAG, cellIndex);
+    }
+
+    /**
+     * opens the neighbors of a number that already has all its flags
+     *
+     * @param cellIndex the square the board view worked out was clicked
+     */
+    public void chordClicked(int cellIndex) {
+        stopReplay();
+        queueMove(shownGame, MoveLog.CHORD, cellIndex);
+    }
+
+    /**
+     * queues a move for the worker, for both clicks and replays
+     *
+     * @param target    the game the move was made on
+     * @param operation MoveLog.REVEAL, FLAG or CHORD
+     * @param cellIndex the square the move is on
+     */
+    private void queueMove(MinesweeperGame target, int operation, int cellIndex) {
+        boardView.clearHint();
+        boardJobs++;
+        worker.submit(() -> applyMove(target, operation, cellIndex));
+    }
+
+    /**
+     * makes a move on the game and sends what it changed back to the window.
+     * runs on the worker, and drops moves made on a game that's been swapped
+     * out since, since their squares may not even be on the new board
+     *
+     * @param target    the game the move was made on
+     * @param operation MoveLog.REVEAL, FLAG or CHORD
+     * @param cellIndex the square the move is on
+     */
+    private void applyMove(MinesweeperGame target, int operation, int cellIndex) {
+        if (target == null || target != game) return;
+        Board board = game.getBoard();
+        int rowIndex = board.rowOf(cellIndex);
+        int columnIndex = board.columnOf(cellIndex);
+        if (operation == MoveLog.REVEAL) {
+            game.revealTile(rowIndex, columnIndex);
+        } else if (operation == MoveLog.FLAG) {
+            game.toggleFlag(rowIndex, columnIndex);
+        } else {
+            game.chord(rowIndex, columnIndex);
+        }
+        ChangeSet changes = game.getChanges();
+        if (changes.isEmpty()) return;
+        history.record();
+        String placement = "";
+        if (changes.isStatusChanged() && changes.getStatus() == GameStatus.WON) placement = recordWin();
+        if (changes.size() > WHOLE_BOARD_CHANGES) {
+            showWholeBoard(placement);
+            return;
+        }
+        StatusReport report = report(placement);
+        worker.show(() -> showChanges(changes, report));
+    }
+
+    /**
+     * puts a win on the leaderboard, unless undo, a hint or loading the game
+     * helped it along. the score store files it away in the background, so
+     * this doesn't wait on the disk. runs on the worker
+     *
+     * @return where it placed, to go after the win message
+     */
+    private String recordWin() {
+        if (!ranked) return " Not ranked, since undo, a hint or loading helped.";
+        ScoreStore scores;
+        try {
+            scores = ScoreStore.getShared();
+        } catch (UncheckedIOException e) {
+            return " Couldn't record the time: " + e.getMessage();
+        }
+        ScoreStore.Score score = new ScoreStore.Score(game.getBoardColumns(), game.getBoardRows(), game.getTotalMines(),
+                game.isNoGuess(), game.getElapsedNanos(), System.currentTimeMillis(), PLAYER_NAME);
+        long place = scores.record(score);
+        long games = scores.getGameCount(game.getBoardColumns(), game.getBoardRows(), game.getTotalMines(), game.isNoGuess());
+        return " That's #" + place + " of " + games + " on this board.";
+    }
+
+    /**
+     * works out what the label at the top should say. runs on the worker
+     *
+     * @param placement where a win placed, or ""
+     * @return the report
+     */
+    private StatusReport report(String placement) {
+        return new StatusReport(game.getStatus(), game.getFlaggedTiles(), game.getElapsedNanos(), placement);
+    }
+
+    /** takes back the last move, even one that lost the game */
+    private void undo() {
+        stopReplay();
+        boardJobs++;
+        worker.submit(() -> {
+            if (game == null) return;
+            if (history.undo()) {
+                ranked = false;
+                showWholeBoard("");
+            }
+        });
+    }
+
+    /**
+     * makes the last undone move again. if different moves were tried from
+     * here, it asks which one to go back down
+     */
+    private void redo() {
+        stopReplay();
+        boardJobs++;
+        worker.submit(() -> {
+            if (game == null) return;
+            if (history.getBranchCount() < 2) {
+                if (history.redo()) showWholeBoard("");
+                return;
+            }
+            Board board = game.getBoard();
+            String[] branches = new String[history.getBranchCount()];
+            for (int branch = 0; branch < branches.length; branch++) {
+                GameState state = history.getBranch(branch);
+                int operation = state.getLastOperation();
+                String move = operation == MoveLog.REVEAL ? "reveal" : operation == MoveLog.FLAG ? "flag" : "chord";
+                int cellIndex = state.getLastMoveCell();
+                branches[branch] = move + " row " + (board.rowOf(cellIndex) + 1) + ", column "
+                        + (board.columnOf(cellIndex) + 1) + " (" + state.getStatus().name().toLowerCase() + ")";
+            }
+            GameState from = history.getCurrent();
+            worker.show(() -> showBranchMenu(from, branches));
+        });
+    }
+
+    /**
+     * pops up the moves redo can go down and goes down the one picked, as
+     * long as the game hasn't moved on from where the menu was made
+     *
+     * @param from     the state the branches start from
+     * @param branches a description of each branch's move
+     */
+    private void showBranchMenu(GameState from, String[] branches) {
+        branchMenu.removeAll();
+        for (int branch = 0; branch < branches.length; branch++) {
+            JMenuItem item = new JMenuItem(branches[branch]);
+            int chosen = branch;
+            item.addActionListener(e -> {
+                boardJobs++;
+                worker.submit(() -> {
+                    if (history.getCurrent() != from) return;
+                    history.redo(chosen);
+                    showWholeBoard("");
+                });
+            });
+            branchMenu.add(item);
+        }
+        branchMenu.show(redoButton, 0, redoButton.getHeight());
+    }
+
+    /**
+     * sends the whole board and the status to the window, after the game
+     * jumped to another state or a move changed so much of it that handing
+     * over a fresh copy is quicker for the swing thread than going through
+     * the changes one square at a time. runs on the worker
+     *
+     * @param placement where a win placed, or ""
+     */
+    private void showWholeBoard(String placement) {
+        MinesweeperGame restored = game;
+        byte[] faces = game.getFaces();
+        StatusReport report = report(placement);
+        worker.show(() -> {
+            boardView.setGame(restored, faces, report.status != GameStatus.PLAYING);
+            showStatus(report);
+        });
+    }
+
+    /**
+     * gets the window back in step after a job on the worker threw, since
+     * the game may have changed squares part way through a move that the
+     * view never heard about. the whole board is sent over again and the
+     * player is told what went wrong. runs on the worker
+     *
+     * @param e what the job threw
+     */
+    private void recover(RuntimeException e) {
+        if (game == null) return;
+        showWholeBoard("");
+        worker.show(() -> JOptionPane.showMessageDialog(this, "something went wrong, so the board was reloaded: " + e));
+    }
+
+    /**
+     * repaints only the squares a move changed and ends the game if it's over.
+     * a game that just ended lists its hidden mines in the changes too, so
+     * nothing else needs repainting
+     *
+     * @param changes what the move changed
+     * @param report  what the label at the top should say after it
+     */
+    private void showChanges(ChangeSet changes, StatusReport report) {
+        boardView.applyChanges(changes);
+        showStatus(report);
+    }
+
+    /**
+     * shows the mine and flag count and the running time at the top, or how
+     * the game ended. the time keeps ticking on the swing thread from when
+     * the report says the game started, without asking the worker
+     *
+     * @param report what the label should say
+     */
+    private void showStatus(StatusReport report) {
+        shownStatus = report;
+        clockStartNanos = System.nanoTime() - report.elapsedNanos;
+        if (report.status == GameStatus.PLAYING && report.elapsedNanos > 0) {
+            clock.start();
+        } else {
+            clock.stop();
+        }
+        if (report.status == GameStatus.PLAYING) {
+            updateStatus();
+        } else {
+            endGame(report);
+        }
+    }
+
+    /**
+     * ends the game and shows you what happened (won or hit a mine) and how long it took
+     *
+     * @param report how the game ended
+     */
+    private void endGame(StatusReport report) {
+        String time = String.format("%.3f", report.elapsedNanos / 1e9);
+        if (report.status == GameStatus.WON) {
+            statusLabel.setText("You cleared the board in " + time + " seconds! Congratulations!" + report.placement);
+        } else {
+            statusLabel.setText("Boom! You hit a mine after " + time + " seconds.");
+        }
+    }
+
+    /**
+     * has the worker look up the best times for the board being played and
+     * shows them, along with how many games have been won on it
+     */
+    private void showScores() {
+        int boardColumns = this.boardColumns;
+        int boardRows = this.boardRows;
+        int totalMines = this.totalMines;
+        boolean noGuess = this.noGuess;
+        worker.submit(() -> {
+            StringBuilder text = new StringBuilder();
+            text.append(boardColumns).append(" x ").append(boardRows).append(", ").append(totalMines).append(" mines")
+                    .append(noGuess ? ", no guessing" : "").append('\n');
+            try {
+                ScoreStore scores = ScoreStore.getShared();
+                List<ScoreStore.Score> top = scores.getTopScores(boardColumns, boardRows, totalMines, noGuess);
+                text.append(scores.getGameCount(boardColumns, boardRows, totalMines, noGuess)).append(" games won\n\n");
+                for (int i = 0; i < top.size(); i++) {
+                    ScoreStore.Score score = top.get(i);
+                    text.append(String.format("%2d. %9.3f s  %-20s %tF %<tR%n", i + 1, score.getElapsedNanos() / 1e9,
+                            score.getPlayerName(), new Date(score.getFinishedAtMillis())));
+                }
+            } catch (UncheckedIOException e) {
+                text.append("couldn't open the scores: ").append(e.getMessage());
+            }
+            worker.show(() -> {
+                JTextArea area = new JTextArea(text.toString());
+                area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+                area.setEditable(false);
+                JOptionPane.showMessageDialog(this, area, "best times", JOptionPane.PLAIN_MESSAGE);
+            });
+        });
+    }
+
+    /** starts a new game with the same difficulty settings */
+    private void restart() {
+        newGame(boardColumns, boardRows, totalMines);
+    }
+
+    /**
+     * starts a new game in this window with a ready board from the shared
+     * pool. the old game goes back to the pool to be cleared and reused, and
+     * the window only resizes if the board size changed, so playing game
+     * after game doesn't pile up windows or memory. the board is fetched on
+     * the worker, since a no-guess one may have to be laid out on the spot
+     *
+     * @param boardColumns how many columns you want
+     * @param boardRows    how many rows you want
+     * @param totalMines   how many mines you want
+     */
+    private void newGame(int boardColumns, int boardRows, int totalMines) {
+        stopReplay();
+        boolean noGuess = this.noGuess;
+        boardJobs++;
+        worker.submit(() -> showGame(takeGame(boardColumns, boardRows, totalMines, noGuess), true));
+    }
+
+    /**
+     * gets a ready game from the shared pool, a no-guess one if that's switched
+     * on, and starts recording its moves
+     *
+     * @param boardColumns how many columns you want
+     * @param boardRows    how many rows you want
+     * @param totalMines   how many mines you want
+     * @param noGuess      true for a board that can be cleared by logic alone
+     * @return the game
+     */
+    private static MinesweeperGame takeGame(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        MinesweeperGame newGame = BoardPool.getShared().take(boardColumns, boardRows, totalMines, noGuess);
+        if (newGame.getMoveLog() == null) newGame.startMoveLog();
+        return newGame;
+    }
+
+    /**
+     * points out where to start on a no-guess board that was laid out before
+     * the first click, since that's the square it can be solved from. runs on the worker
+     */
+    private void showOpening() {
+        if (game.isNoGuess() && !game.isSafeFirstClick() && game.getRevealedSafeTiles() == 0 && !game.isGameOver()) {
+            int openingCell = NoGuessPlacer.openingCell(game.getBoard());
+            worker.show(() -> boardView.showSafeHint(openingCell));
+        }
+    }
+
+    /**
+     * switches this window over to a game, resizing it if the board size changed.
+     * a loaded game keeps the no-guess setting it was made with. runs on the worker
+     *
+     * @param newGame   the game to play
+     * @param rankable  true if winning it can go on the leaderboard, false for loaded and replayed games
+     */
+    private void showGame(MinesweeperGame newGame, boolean rankable) {
+        if (game != null && newGame != game) BoardPool.getShared().recycle(game);
+        game = newGame;
+        ranked = rankable;
+        history = new GameHistory(newGame);
+        byte[] faces = newGame.getFaces();
+        StatusReport report = report("");
+        GameStatus status = report.status;
+        boolean recorded = newGame.getMoveLog() != null;
+        worker.show(() -> {
+            boolean sameSize = newGame.getBoardColumns() == boardColumns && newGame.getBoardRows() == boardRows;
+            shownGame = newGame;
+            movesRecorded = recorded;
+            boardColumns = newGame.getBoardColumns();
+            boardRows = newGame.getBoardRows();
+            totalMines = newGame.getTotalMines();
+            noGuess = newGame.hasNoGuessPlacer();
+            noGuessItem.setSelected(noGuess);
+
+            boardView.setGame(newGame, faces, status != GameStatus.PLAYING);
+            if (!sameSize) pack();
+            showStatus(report);
+        });
+        if (status == GameStatus.PLAYING) showOpening();
+    }
+
+    /** asks where to save the game and has the worker write a snapshot there */
+    private void saveGame() {
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path path = fileChooser.getSelectedFile().toPath();
+        worker.submit(() -> {
+            if (game == null) return;
+            try {
+                BoardSnapshot.save(game, path);
+            } catch (IOException ex) {
+                worker.show(() -> JOptionPane.showMessageDialog(this, "couldn't save the game: " + ex.getMessage()));
+            }
+        });
+    }
+
+    /** asks where to save this game's moves and has the worker write the move log there */
+    private void saveMoves() {
+        if (!movesRecorded) {
+            JOptionPane.showMessageDialog(this, "this game was loaded part way through, so its moves weren't recorded");
+            return;
+        }
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path path = fileChooser.getSelectedFile().toPath();
+        worker.submit(() -> {
+            if (game == null) return;
+            try {
+                game.getMoveLog().save(path);
+            } catch (IOException ex) {
+                worker.show(() -> JOptionPane.showMessageDialog(this, "couldn't save the moves: " + ex.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * asks for a saved game and carries on playing it in this window, or for
+     * a move log and plays it back at a speed you pick. the file is read on the worker
+     */
+    private void loadGame() {
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path path = fileChooser.getSelectedFile().toPath();
+        stopReplay();
+        boardJobs++;
+        worker.submit(() -> {
+            try {
+                if (MoveLog.isMoveLog(path)) {
+                    MoveLog log = MoveLog.load(path);
+                    worker.show(() -> askReplaySpeed(log));
+                } else {
+                    showGame(BoardSnapshot.load(path), false);
+                }
+            } catch (IOException ex) {
+                worker.show(() -> JOptionPane.showMessageDialog(this, "couldn't load the game: " + ex.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * asks how fast to play a loaded move log back, then plays it
+     *
+     * @param log the moves to play back
+     */
+    private void askReplaySpeed(MoveLog log) {
+        String[] speeds = {"1x", "2x", "5x", "20x", "100x"};
+        Object speed = JOptionPane.showInputDialog(this, "replay speed", "replay",
+                JOptionPane.QUESTION_MESSAGE, null, speeds, speeds[0]);
+        if (speed == null) return;
+        replay(log, Double.parseDouble(speed.toString().replace("x", "")));
+    }
+
+    /**
+     * plays a move log back in this window, waiting between moves as long as
+     * the player did divided by the speed. clicking the board stops it and
+     * lets you carry on from there. the game is made on the worker, since a
+     * no-guess one is laid out on the spot, and the moves start once it's showing
+     *
+     * @param log   the moves to play back
+     * @param speed how many times faster than the original game to play
+     */
+    public void replay(MoveLog log, double speed) {
+        if (speed <= 0) throw new IllegalArgumentException("replay speed must be positive");
+        stopReplay();
+        boardJobs++;
+        int jobsBefore = boardJobs;
+        worker.submit(() -> {
+            MinesweeperGame replayGame = log.newGame();
+            replayGame.startMoveLog();
+            showGame(replayGame, false);
+            worker.show(() -> {
+                if (boardJobs == jobsBefore) playBack(replayGame, log.reader(), speed);
+            });
+        });
+    }
+
+    /**
+     * starts the timer that feeds a move log's moves to a game already showing
+     * in this window. runs on the swing thread
+     *
+     * @param replayGame the game the moves go on
+     * @param reader     the moves, before the first one
+     * @param speed      how many times faster than the original game to play
+     */
+    private void playBack(MinesweeperGame replayGame, MoveLog.Reader reader, double speed) {
+        if (!reader.next()) return;
+        replayTimer = new Timer(0, null);
+        replayTimer.setRepeats(false);
+        replayTimer.addActionListener(e -> {
+            queueMove(replayGame, reader.getOperation(), reader.getCellIndex());
+            if (reader.next()) {
+                replayTimer.setInitialDelay((int) Math.min(Integer.MAX_VALUE, (long) (reader.getDeltaMillis() / speed)));
+                replayTimer.restart();
+            } else {
+                replayTimer = null;
+            }
+        });
+        replayTimer.setInitialDelay((int) Math.min(Integer.MAX_VALUE, (long) (reader.getDeltaMillis() / speed)));
+        replayTimer.start();
+    }
+
+    /** stops a replay that's playing, leaving the board where it got to */
+    private void stopReplay() {
+        if (replayTimer != null) {
+            replayTimer.stop();
+            replayTimer = null;
+        }
+    }
+
+    /**
+     * has the worker ask the solver about the board. if it knows a safe
+     * square that square turns green, otherwise every hidden square gets
+     * tinted from green to red by its chance of hiding a mine, with the exact
+     * chance in its tooltip. a hint that comes back after another move was
+     * queued is dropped, since it's about a board that's gone. a game that
+     * took a hint doesn't go on the leaderboard
+     */
+    private void showHint() {
+        int jobsBefore = boardJobs;
+        worker.submit(() -> {
+            if (game == null || game.isGameOver()) return;
+            ranked = false;
+
+            if (!game.areMinesPlaced()) {
+                // the first click is always safe, so any square works
+                int middleCell = game.getBoard().indexOf(game.getBoardRows() / 2, game.getBoardColumns() / 2);
+                worker.show(() -> {
+                    if (boardJobs == jobsBefore) boardView.showSafeHint(middleCell);
+                });
+                return;
+            }
+            if (game.isNoGuess() && game.getRevealedSafeTiles() == 0) {
+                showOpening();
+                return;
+            }
+
+            solver.rescan(game);
+            int safeCell = solver.findSafeCell();
+            if (safeCell >= 0) {
+                worker.show(() -> {
+                    if (boardJobs == jobsBefore) boardView.showSafeHint(safeCell);
+                });
+                return;
+            }
+            double[] probabilities = solver.computeProbabilities();
+            worker.show(() -> {
+                if (boardJobs == jobsBefore) boardView.showProbabilities(probabilities);
+            });
+        });
+    }
+
+    /** updates the top label to show how many mines and flags there are and how long the game's been going */
+    private void updateStatus() {
+        if (shownStatus.status != GameStatus.PLAYING) return;
+        long elapsedNanos = clock.isRunning() ? System.nanoTime() - clockStartNanos : shownStatus.elapsedNanos;
+        statusLabel.setText("Mines: " + totalMines + " - Flags: " + shownStatus.flaggedTiles
+                + " - Time: " + String.format("%.1f", elapsedNanos / 1e9));
+    }
+}
@@ -0,0 +1,573 @@
+/**
+ * this class makes datasets of boards from the command line. worker threads
+ * generate boards for a range of seeds a chunk at a time, work out the
+ * nearby mine numbers with two sliding 3-wide sums over the whole grid
+ * instead of visiting each mine's neighbors, and encode each board into the
+ * chunk. one writer streams the chunks to a file in seed order, gzipped if
+ * the file name ends in .gz. there's a fixed pool of chunks, so workers wait
+ * when the writer falls behind and memory stays the same however many boards you ask for
+ *
+ * usage: DatasetExporter &lt;board&gt; &lt;count&gt; &lt;first seed&gt; &lt;output|-&gt; [binary|csv] [threads] [solve]
+ * where board is a preset like "hard" or COLSxROWSxMINES, and MINES can be a
+ * density like "20.6%". "solve" also checks each board with the solver from
+ * a fixed opening, which is much slower
+ *
+ * binary files start with a header (int magic "MSDS", byte version, int
+ * columns, int rows, int mines, byte 1 if boards were solver checked, else 0),
+ * then one record per board: long seed, int 3bv, int openings, byte solvable
+ * (1 yes, 0 no, -1 not checked), then the squares row by row, two to a byte
+ * with the even square in the low nibble, 0 to 8 for a number and 9 for a mine
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * a streaming, backpressured board generator and exporter for building datasets
+ */
+public class DatasetExporter {
+    /** the first four bytes of a binary dataset, "MSDS" */
+    public static final int MAGIC = 0x4D534453;
+    /** the binary format version */
+    public static final byte VERSION = 1;
+    /** how many boards go in one chunk */
+    private static final int CHUNK_BOARDS = 512;
+    /** how many chunks each worker thread gets in the pool */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /** how many bytes a binary record takes before its squares */
+    private static final int RECORD_HEADER_BYTES = 8 + 4 + 4 + 1;
+    /** the characters csv uses for the numbers 0 to 8 and for a mine */
+    private static final byte[] CSV_CELLS = "012345678*".getBytes(StandardCharsets.US_ASCII);
+
+    /** how many columns wide the boards are */
+    private final int boardColumns;
+    /** how many rows tall the boards are */
+    private final int boardRows;
+    /** how many mines each board has */
+    private final int totalMines;
+    /** true for csv, false for binary */
+    private final boolean csv;
+    /** whether each board gets checked with the solver */
+    private final boolean solve;
+    /** how many worker threads generate boards */
+    private final int threads;
+
+    /**
+     * a block of encoded boards passed from a worker to the writer
+     */
+    private static final class Chunk {
+        /** the encoded records */
+        final byte[] bytes;
+        /** how many bytes of records are in it */
+        int length;
+        /** which chunk of the seed range this is, or -1 when a worker failed */
+        long number;
+
+        /**
+         * creates an empty chunk
+         *
+         * @param capacity how many bytes it can hold
+         */
+        Chunk(int capacity) {
+            bytes = new byte[capacity];
+        }
+    }
+
+    /**
+     * sets up an exporter
+     *
+     * @param boardColumns how many columns wide the boards are
+     * @param boardRows    how many rows tall the boards are
+     * @param totalMines   how many mines each board has, capped at the number of squares
+     * @param csv          true for csv, false for binary
+     * @param solve        whether to check each board with the solver
+     * @param threads      how many worker threads to generate boards on
+     */
+    public DatasetExporter(int boardColumns, int boardRows, int totalMines, boolean csv, boolean solve, int threads) {
+        if (boardColumns <= 0 || boardRows <= 0) {
+            throw new IllegalArgumentException("board must be at least 1x1");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.boardColumns = boardColumns;
+        this.boardRows = boardRows;
+        this.totalMines = Math.max(0, Math.min(totalMines, boardColumns * boardRows));
+        this.csv = csv;
+        this.solve = solve;
+        this.threads = threads;
+    }
+
+    /**
+     * works out the biggest a chunk's records can get
+     *
+     * @return the chunk size in bytes
+     */
+    private int chunkCapacity() {
+        int cellCount = boardColumns * boardRows;
+        int recordBytes = csv ? 80 + cellCount : RECORD_HEADER_BYTES + (cellCount + 1) / 2;
+        return recordBytes * CHUNK_BOARDS;
+    }
+
+    /**
+     * generates boards for a range of seeds and streams them out in seed order
+     *
+     * @param firstSeed  the seed of the first board
+     * @param boardCount how many boards to make
+     * @param out        where the records go. it isn't closed
+     * @throws IOException          if writing fails
+     * @throws InterruptedException if the thread is interrupted while waiting on the workers
+     */
+    public void export(long firstSeed, long boardCount, OutputStream out) throws IOException, InterruptedException {
+        writeHeader(out);
+        long chunkCount = (boardCount + CHUNK_BOARDS - 1) / CHUNK_BOARDS;
+        int poolSize = threads * CHUNKS_PER_THREAD;
+        BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(poolSize);
+        BlockingQueue<Chunk> full = new ArrayBlockingQueue<>(poolSize + threads);
+        for (int i = 0; i < poolSize; i++) {
+            free.add(new Chunk(chunkCapacity()));
+        }
+        AtomicLong nextChunk = new AtomicLong();
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Worker worker = new Worker(firstSeed, boardCount, chunkCount, nextChunk, free, full);
+            workers[t] = new Thread(worker, "dataset-worker-" + t);
+            workers[t].setDaemon(true);
+            workers[t].start();
+        }
+
+        // chunks can finish out of order, so early ones wait here until it's
+        // their turn. a worker only claims a chunk number once it holds a free
+        // chunk, so the next one needed is always on its way and this can't get stuck
+        Map<Long, Chunk> waiting = new HashMap<>();
+        try {
+            for (long number = 0; number < chunkCount; number++) {
+                Chunk chunk = waiting.remove(number);
+                while (chunk == null) {
+                    Chunk done = full.take();
+                    if (done.number < 0) throw new IOException("a dataset worker failed");
+                    if (done.number == number) {
+                        chunk = done;
+                    } else {
+                        waiting.put(done.number, done);
+                    }
+                }
+                out.write(chunk.bytes, 0, chunk.length);
+                free.put(chunk);
+            }
+        } finally {
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * writes the binary header or the csv column names
+     *
+     * @param out where to write them
+     * @throws IOException if writing fails
+     */
+    private void writeHeader(OutputStream out) throws IOException {
+        if (csv) {
+            out.write("seed,columns,rows,mines,three_bv,openings,solvable,cells\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(boardColumns);
+        data.writeInt(boardRows);
+        data.writeInt(totalMines);
+        data.writeByte(solve ? 1 : 0);
+        data.flush();
+    }
+
+    /**
+     * generates chunks of boards until the seed range runs out. every worker
+     * keeps its own scratch grids, so nothing is allocated per board
+     */
+    private final class Worker implements Runnable {
+        /** the seed of the first board in the whole range */
+        private final long firstSeed;
+        /** how many boards the whole range has */
+        private final long boardCount;
+        /** how many chunks the whole range has */
+        private final long chunkCount;
+        /** hands out chunk numbers to the workers */
+        private final AtomicLong nextChunk;
+        /** empty chunks to fill */
+        private final BlockingQueue<Chunk> free;
+        /** filled chunks for the writer */
+        private final BlockingQueue<Chunk> full;
+
+        /** how wide the padded grids are, one extra column on each side */
+        private final int width = boardColumns + 2;
+        /** 1 where there's a mine, in a grid with a border of empty squares */
+        private final byte[] mines;
+        /** each square plus its left and right neighbors */
+        private final byte[] rowSums;
+        /** each square's 3x3 block sum, which is its nearby mine count for safe squares */
+        private final byte[] counts;
+        /** which board last visited each padded square while counting openings, -1 on the border */
+        private final int[] visited;
+        /** work queue for filling openings */
+        private final int[] queue;
+        /** the squares the placer picked for mines */
+        private final int[] chosen;
+        /** scratch bitset for the placer */
+        private final long[] taken;
+        /** picks the mines, reseeded for every board */
+        private final MinePlacer placer = new MinePlacer(0);
+        /** checks boards when solving is on */
+        private final Solver solver = new Solver();
+        /** counts boards so the visited marks never need clearing */
+        private int visitMark = 0;
+        /** the padded square the last board's opening is on, or -1 if it has none */
+        private int openingSquare;
+
+        /**
+         * creates a worker with its own scratch space
+         *
+         * @param firstSeed  the seed of the first board in the whole range
+         * @param boardCount how many boards the whole range has
+         * @param chunkCount how many chunks the whole range has
+         * @param nextChunk  hands out chunk numbers
+         * @param free       empty chunks to fill
+         * @param full       filled chunks for the writer
+         */
+        Worker(long firstSeed, long boardCount, long chunkCount, AtomicLong nextChunk,
+               BlockingQueue<Chunk> free, BlockingQueue<Chunk> full) {
+            this.firstSeed = firstSeed;
+            this.boardCount = boardCount;
+            this.chunkCount = chunkCount;
+            this.nextChunk = nextChunk;
+            this.free = free;
+            this.full = full;
+            int paddedCells = width * (boardRows + 2);
+            mines = new byte[paddedCells];
+            rowSums = new byte[paddedCells];
+            counts = new byte[paddedCells];
+            visited = new int[paddedCells];
+            queue = new int[paddedCells];
+            chosen = new int[totalMines];
+            taken = new long[(boardColumns * boardRows + 63) >>> 6];
+            for (int i = 0; i < paddedCells; i++) {
+                int row = i / width;
+                int column = i % width;
+                if (row == 0 || row == boardRows + 1 || column == 0 || column == width - 1) visited[i] = -1;
+            }
+        }
+
+        /** fills chunks until there are none left, and tells the writer if anything goes wrong */
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Chunk chunk = free.take();
+                    long number = nextChunk.getAndIncrement();
+                    if (number >= chunkCount) return;
+                    chunk.number = number;
+                    chunk.length = 0;
+                    long first = number * CHUNK_BOARDS;
+                    long last = Math.min(first + CHUNK_BOARDS, boardCount);
+                    for (long board = first; board < last; board++) {
+                        chunk.length = writeBoard(firstSeed + board, chunk.bytes, chunk.length);
+                    }
+                    full.put(chunk);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | Error e) {
+                Chunk failed = new Chunk(0);
+                failed.number = -1;
+                full.offer(failed);
+                throw e;
+            }
+        }
+
+        /**
+         * generates one board and encodes it
+         *
+         * @param seed   the board's seed
+         * @param bytes  the chunk to write into
+         * @param offset where in the chunk to write
+         * @return where the next record goes
+         */
+        private int writeBoard(long seed, byte[] bytes, int offset) {
+            placer.reseed(seed);
+            int mineCount = placer.sampleCells(boardColumns * boardRows, totalMines, chosen, taken);
+            for (int i = 0; i < mineCount; i++) {
+                mines[padded(chosen[i])] = 1;
+            }
+            countAdjacent();
+            int openings = countOpenings();
+            int threeBV = openings + countIsolatedNumbers();
+            int solvable = solve ? checkSolvable(seed) : -1;
+
+            int next = csv ? writeCsv(seed, threeBV, openings, solvable, bytes, offset)
+                    : writeBinary(seed, threeBV, openings, solvable, bytes, offset);
+            for (int i = 0; i < mineCount; i++) {
+                mines[padded(chosen[i])] = 0;
+            }
+            return next;
+        }
+
+        /**
+         * turns a board square index into its place in the padded grids
+         *
+         * @param cellIndex the square's index on the board
+         * @return the padded index
+         */
+        private int padded(int cellIndex) {
+            int row = cellIndex / boardColumns;
+            return (row + 1) * width + cellIndex - row * boardColumns + 1;
+        }
+
+        /**
+         * works out every square's 3x3 mine sum as a separable convolution:
+         * first each square plus its left and right neighbors, then those sums
+         * for the rows above, at and below. both passes are plain loops over
+         * whole arrays with no branches, which the jit turns into vector adds,
+         * and the empty border means no edge checks
+         */
+        private void countAdjacent() {
+            int length = mines.length;
+            for (int i = 1; i < length - 1; i++) {
+                rowSums[i] = (byte) (mines[i - 1] + mines[i] + mines[i + 1]);
+            }
+            for (int i = width; i < length - width; i++) {
+                counts[i] = (byte) (rowSums[i - width] + rowSums[i] + rowSums[i + width]);
+            }
+        }
+
+        /**
+         * counts the openings, the connected patches of zeros plus the
+         * numbers around them, which each take one click to clear. also
+         * remembers the square of the opening nearest the middle
+         *
+         * @return how many openings there are
+         */
+        private int countOpenings() {
+            visitMark++;
+            int openings = 0;
+            openingSquare = -1;
+            long bestDistance = Long.MAX_VALUE;
+            int middleRow = boardRows / 2 + 1;
+            int middleColumn = boardColumns / 2 + 1;
+            for (int row = 1; row <= boardRows; row++) {
+                for (int i = row * width + 1, end = row * width + boardColumns; i <= end; i++) {
+                    if (mines[i] != 0 || counts[i] != 0) continue;
+                    long distance = (long) (row - middleRow) * (row - middleRow)
+                            + (long) (i - row * width - middleColumn) * (i - row * width - middleColumn);
+                    if (distance < bestDistance) {
+                        bestDistance = distance;
+                        openingSquare = i;
+                    }
+                    if (visited[i] == visitMark) continue;
+                    openings++;
+                    fillOpening(i);
+                }
+            }
+            return openings;
+        }
+
+        /**
+         * marks a patch of zeros and the numbers around it as visited
+         *
+         * @param start a zero square in the patch
+         */
+        private void fillOpening(int start) {
+            int head = 0;
+            int tail = 0;
+            visited[start] = visitMark;
+            queue[tail++] = start;
+            while (head < tail) {
+                int square = queue[head++];
+                for (int dy = -width; dy <= width; dy += width) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int neighbor = square + dy + dx;
+                        if (visited[neighbor] == visitMark || visited[neighbor] < 0) continue;
+                        visited[neighbor] = visitMark;
+                        if (counts[neighbor] == 0) queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+
+        /**
+         * counts the safe squares that no opening reaches, which each take their own click
+         *
+         * @return how many there are
+         */
+        private int countIsolatedNumbers() {
+            int isolated = 0;
+            for (int row = 1; row <= boardRows; row++) {
+                for (int i = row * width + 1, end = row * width + boardColumns; i <= end; i++) {
+                    if (mines[i] == 0 && visited[i] != visitMark) isolated++;
+                }
+            }
+            return isolated;
+        }
+
+        /**
+         * plays the board with the solver from the opening nearest the middle
+         *
+         * @param seed the board's seed, which gives the same mines on a real game
+         * @return 1 if it clears without guessing, 0 if not
+         */
+        private int checkSolvable(long seed) {
+            if (openingSquare < 0) return 0;
+            MinesweeperGame game = new MinesweeperGame(boardColumns, boardRows, totalMines, seed, false);
+            int row = openingSquare / width - 1;
+            int column = openingSquare % width - 1;
+            return solver.clearsWithoutGuessing(game, game.getBoard().indexOf(row, column)) ? 1 : 0;
+        }
+
+        /**
+         * encodes a board as a binary record
+         *
+         * @param seed      the board's seed
+         * @param threeBV   the fewest clicks that clear it
+         * @param openings  how many openings it has
+         * @param solvable  1, 0 or -1 for not checked
+         * @param bytes     the chunk to write into
+         * @param offset    where in the chunk to write
+         * @return where the next record goes
+         */
+        private int writeBinary(long seed, int threeBV, int openings, int solvable, byte[] bytes, int offset) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[offset++] = (byte) (seed >>> shift);
+            }
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[offset++] = (byte) (threeBV >>> shift);
+            }
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[offset++] = (byte) (openings >>> shift);
+            }
+            bytes[offset++] = (byte) solvable;
+
+            int pending = -1;
+            for (int row = 1; row <= boardRows; row++) {
+                for (int i = row * width + 1, end = row * width + boardColumns; i <= end; i++) {
+                    int value = mines[i] != 0 ? 9 : counts[i];
+                    if (pending < 0) {
+                        pending = value;
+                    } else {
+                        bytes[offset++] = (byte) (pending | value << 4);
+                        pending = -1;
+                    }
+                }
+            }
+            if (pending >= 0) bytes[offset++] = (byte) pending;
+            return offset;
+        }
+
+        /**
+         * encodes a board as a csv line
+         *
+         * @param seed      the board's seed
+         * @param threeBV   the fewest clicks that clear it
+         * @param openings  how many openings it has
+         * @param solvable  1, 0 or -1 for not checked
+         * @param bytes     the chunk to write into
+         * @param offset    where in the chunk to write
+         * @return where the next line goes
+         */
+        private int writeCsv(long seed, int threeBV, int openings, int solvable, byte[] bytes, int offset) {
+            String fields = seed + "," + boardColumns + "," + boardRows + "," + totalMines + ","
+                    + threeBV + "," + openings + "," + (solvable < 0 ? "" : String.valueOf(solvable)) + ",";
+            for (int i = 0; i < fields.length(); i++) {
+                bytes[offset++] = (byte) fields.charAt(i);
+            }
+            for (int row = 1; row <= boardRows; row++) {
+                for (int i = row * width + 1, end = row * width + boardColumns; i <= end; i++) {
+                    bytes[offset++] = CSV_CELLS[mines[i] != 0 ? 9 : counts[i]];
+                }
+            }
+            bytes[offset++] = '\n';
+            return offset;
+        }
+    }
+
+    /**
+     * runs the exporter from the command line
+     *
+     * @param args board, count, first seed, output file or - for stdout, then
+     *             optionally binary or csv, thread count and "solve"
+     * @throws IOException          if writing fails
+     * @throws InterruptedException if interrupted while waiting on the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("usage: DatasetExporter <board> <count> <firstSeed> <output|-> [binary|csv] [threads] [solve]");
+            return;
+        }
+        int[] size = parseBoard(args[0]);
+        long count = Long.parseLong(args[1]);
+        long firstSeed = Long.parseLong(args[2]);
+        String output = args[3];
+        boolean csv = args.length > 4 && args[4].equals("csv");
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        boolean solve = args.length > 6 && args[6].equals("solve");
+
+        DatasetExporter exporter = new DatasetExporter(size[0], size[1], size[2], csv, solve, threads);
+        OutputStream sink = output.equals("-") ? System.out : Files.newOutputStream(Paths.get(output));
+        if (output.endsWith(".gz")) {
+            sink = new GZIPOutputStream(sink, 1 << 16) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            };
+        } else {
+            sink = new BufferedOutputStream(sink, 1 << 16);
+        }
+
+        long start = System.nanoTime();
+        try (OutputStream out = sink) {
+            exporter.export(firstSeed, count, out);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("wrote %d boards in %.2f s (%.0f boards/s)%n", count, seconds, count / seconds);
+    }
+
+    /**
+     * reads a board size from a preset name like "hard" or COLSxROWSxMINES,
+     * where MINES can also be a density like "20%"
+     *
+     * @param board the board description
+     * @return the columns, rows and mines
+     */
+    static int[] parseBoard(String board) {
+        String[] parts = board.toLowerCase().split("x");
+        if (parts.length != 3) {
+            Difficulty difficulty = Difficulty.valueOf(board.toUpperCase());
+            return new int[]{difficulty.getBoardColumns(), difficulty.getBoardRows(), difficulty.getTotalMines()};
+        }
+        int columns = Integer.parseInt(parts[0]);
+        int rows = Integer.parseInt(parts[1]);
+        int mines;
+        if (parts[2].endsWith("%")) {
+            double density = Double.parseDouble(parts[2].substring(0, parts[2].length() - 1)) / 100;
+            mines = (int) Math.round(density * columns * rows);
+        } else {
+            mines = Integer.parseInt(parts[2]);
+        }
+        return new int[]{columns, rows, mines};
+    }
+}
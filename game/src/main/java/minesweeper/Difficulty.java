@@ -0,0 +1,76 @@
+/**
+ * this enum lists the board presets from the menu screen so the window,
+ * the simulator and anything else use the same sizes
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+/**
+ * the easy, medium and hard board sizes and mine counts
+ */
+public enum Difficulty {
+    /** 9x9 with 10 mines */
+    EASY(9, 9, 10),
+    /** 16x16 with 40 mines */
+    MEDIUM(16, 16, 40),
+    /** 30x16 with 99 mines */
+    HARD(30, 16, 99);
+
+    /** how many columns wide the board is */
+    private final int boardColumns;
+    /** how many rows tall the board is */
+    private final int boardRows;
+    /** how many mines are hidden in the board */
+    private final int totalMines;
+
+    /**
+     * sets up one preset
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines are hidden in the board
+     */
+    Difficulty(int boardColumns, int boardRows, int totalMines) {
+        this.boardColumns = boardColumns;
+        this.boardRows = boardRows;
+        this.totalMines = totalMines;
+    }
+
+    /**
+     * gets how many columns wide the board is
+     *
+     * @return the column count
+     */
+    public int getBoardColumns() {
+        return boardColumns;
+    }
+
+    /**
+     * gets how many rows tall the board is
+     *
+     * @return the row count
+     */
+    public int getBoardRows() {
+        return boardRows;
+    }
+
+    /**
+     * gets how many mines are hidden in the board
+     *
+     * @return the mine count
+     */
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    /**
+     * gets how many squares out of one have mines, which is what endless games go by
+     *
+     * @return mines over squares
+     */
+    public double getMineDensity() {
+        return totalMines / (double) (boardColumns * boardRows);
+    }
+}
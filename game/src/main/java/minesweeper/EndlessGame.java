@@ -0,0 +1,288 @@
+/**
+ * this class is the game engine for endless mode. it plays on a ChunkedBoard
+ * with the same reveal, flag and chord rules as MinesweeperGame, except there's
+ * no winning, just seeing how much of the board you can open before you hit
+ * a mine. the nine squares around the middle never have mines, so that's
+ * where every game starts
+ *
+ * cascades walk the board by row and column, so they cross chunk borders
+ * like any other square, and the board remembers the chunk it looked in last
+ * so only the squares on a border cost a chunk lookup
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * the rules for an endless game, on top of a chunked board
+ */
+public class EndlessGame implements Closeable {
+    /**
+     * the fewest mines out of one square allowed. with fewer, the empty
+     * squares join up into regions that go on forever and one click would
+     * never stop opening
+     */
+    public static final double MIN_MINE_DENSITY = 0.12;
+    /** the most mines out of one square allowed */
+    public static final double MAX_MINE_DENSITY = 0.5;
+
+    /** the board being played on */
+    private final ChunkedBoard board;
+    /** whether the game is still going or was lost */
+    private GameStatus status = GameStatus.PLAYING;
+    /** how many squares have been opened */
+    private long revealedCount = 0;
+    /** how many flags are down */
+    private long flagCount = 0;
+    /** how many moves changed the board */
+    private long moveCount = 0;
+    /** the row of the mine that ended the game */
+    private int explodedRow;
+    /** the column of the mine that ended the game */
+    private int explodedColumn;
+    /** the empty squares a cascade still has to open around, each a row and column packed together */
+    private long[] pending = new long[256];
+
+    /**
+     * creates an endless game with the default number of chunks in memory
+     *
+     * @param seed        picks where every mine goes
+     * @param mineDensity how many squares out of one have mines
+     */
+    public EndlessGame(long seed, double mineDensity) {
+        this(seed, mineDensity, ChunkedBoard.DEFAULT_HOT_CHUNKS);
+    }
+
+    /**
+     * creates an endless game
+     *
+     * @param seed        picks where every mine goes
+     * @param mineDensity how many squares out of one have mines, from MIN_MINE_DENSITY to MAX_MINE_DENSITY
+     * @param hotChunks   how many chunks the board keeps in memory
+     */
+    public EndlessGame(long seed, double mineDensity, int hotChunks) {
+        if (mineDensity < MIN_MINE_DENSITY || mineDensity > MAX_MINE_DENSITY) {
+            throw new IllegalArgumentException("mine density must be between " + MIN_MINE_DENSITY + " and " + MAX_MINE_DENSITY);
+        }
+        this.board = new ChunkedBoard(seed, mineDensity, hotChunks);
+    }
+
+    /**
+     * gets the board being played on
+     *
+     * @return the board
+     */
+    public ChunkedBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * gets whether the game is still going or was lost
+     *
+     * @return PLAYING or LOST
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * checks if a mine has been hit
+     *
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return status != GameStatus.PLAYING;
+    }
+
+    /**
+     * gets how many squares have been opened, which is the score
+     *
+     * @return the count
+     */
+    public long getRevealedCount() {
+        return revealedCount;
+    }
+
+    /**
+     * gets how many flags are down
+     *
+     * @return the count
+     */
+    public long getFlagCount() {
+        return flagCount;
+    }
+
+    /**
+     * gets how many moves changed the board
+     *
+     * @return the count
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * checks if a square is the mine that ended the game
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @return true if the game was lost on that square
+     */
+    public boolean isExploded(int rowIndex, int columnIndex) {
+        return status == GameStatus.LOST && rowIndex == explodedRow && columnIndex == explodedColumn;
+    }
+
+    /**
+     * opens a square, and every square around it too if it has no mines next
+     * to it, on and on across chunks
+     *
+     * @param rowIndex    which row the square is in
+     * @param columnIndex which column the square is in
+     * @return how many squares this opened, 0 if nothing changed
+     */
+    public long revealTile(int rowIndex, int columnIndex) {
+        long startNanos = GameMetrics.startTimer();
+        if (!board.isInBounds(rowIndex, columnIndex) || isGameOver()) return 0;
+        if (board.isRevealed(rowIndex, columnIndex) || board.isFlagged(rowIndex, columnIndex)) return 0;
+
+        moveCount++;
+        long opened = open(rowIndex, columnIndex);
+        GameMetrics.recordMove(GameMetrics.REVEAL, startNanos, (int) Math.min(opened, Integer.MAX_VALUE));
+        return opened;
+    }
+
+    /**
+     * chords a revealed number: if it has as many flags around it as its
+     * number says, every other hidden neighbor opens, with cascades from any
+     * empty ones. if a flag was wrong, a mine opens and the game is lost
+     *
+     * @param rowIndex    which row the number is in
+     * @param columnIndex which column the number is in
+     * @return how many squares this opened, 0 if the number isn't satisfied
+     */
+    public long chord(int rowIndex, int columnIndex) {
+        long startNanos = GameMetrics.startTimer();
+        if (!board.isInBounds(rowIndex, columnIndex) || isGameOver()) return 0;
+        int adjacentMines = board.getAdjacentMineCount(rowIndex, columnIndex);
+        if (!board.isRevealed(rowIndex, columnIndex) || adjacentMines == 0) return 0;
+
+        int flags = 0;
+        for (int row = rowIndex - 1; row <= rowIndex + 1; row++) {
+            for (int column = columnIndex - 1; column <= columnIndex + 1; column++) {
+                if (board.isInBounds(row, column) && board.isFlagged(row, column)) flags++;
+            }
+        }
+        if (flags != adjacentMines) return 0;
+
+        long opened = 0;
+        for (int row = rowIndex - 1; row <= rowIndex + 1 && !isGameOver(); row++) {
+            for (int column = columnIndex - 1; column <= columnIndex + 1 && !isGameOver(); column++) {
+                if (board.isInBounds(row, column)) opened += open(row, column);
+            }
+        }
+        if (opened > 0) moveCount++;
+        GameMetrics.recordMove(GameMetrics.CHORD, startNanos, (int) Math.min(opened, Integer.MAX_VALUE));
+        return opened;
+    }
+
+    /**
+     * puts a flag on a hidden square or takes it off
+     *
+     * @param rowIndex    which row the square is in
+     * @param columnIndex which column the square is in
+     * @return true if the flag changed
+     */
+    public boolean toggleFlag(int rowIndex, int columnIndex) {
+        long startNanos = GameMetrics.startTimer();
+        if (!board.isInBounds(rowIndex, columnIndex) || isGameOver()) return false;
+        if (board.isRevealed(rowIndex, columnIndex)) return false;
+
+        moveCount++;
+        boolean flagged = !board.isFlagged(rowIndex, columnIndex);
+        board.setFlagged(rowIndex, columnIndex, flagged);
+        flagCount += flagged ? 1 : -1;
+        GameMetrics.record(GameMetrics.FLAG, startNanos);
+        return true;
+    }
+
+    /**
+     * deletes the board's spill file
+     *
+     * @throws IOException if it can't be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        board.close();
+    }
+
+    /**
+     * opens one square, losing the game if it's a mine and cascading if it's empty
+     *
+     * @param rowIndex    which row the square is in
+     * @param columnIndex which column the square is in
+     * @return how many squares opened, 0 if it was already open or flagged
+     */
+    private long open(int rowIndex, int columnIndex) {
+        if (board.isMine(rowIndex, columnIndex) && !board.isFlagged(rowIndex, columnIndex)) {
+            board.reveal(rowIndex, columnIndex);
+            status = GameStatus.LOST;
+            explodedRow = rowIndex;
+            explodedColumn = columnIndex;
+            return 1;
+        }
+        int count = board.open(rowIndex, columnIndex);
+        if (count < 0) return 0;
+        long opened = 1 + (count == 0 ? cascade(rowIndex, columnIndex) : 0);
+        revealedCount += opened;
+        return opened;
+    }
+
+    /**
+     * opens everything around an empty square, and around every empty square
+     * that opens along the way. none of them can be mines, since an empty
+     * square has no mines next to it
+     *
+     * @param rowIndex    the empty square's row
+     * @param columnIndex the empty square's column
+     * @return how many squares opened, not counting the first one
+     */
+    private long cascade(int rowIndex, int columnIndex) {
+        long opened = 0;
+        int size = 0;
+        pending[size++] = pack(rowIndex, columnIndex);
+        while (size > 0) {
+            long square = pending[--size];
+            int row = (int) (square >> 32);
+            int column = (int) square;
+            for (int neighborRow = row - 1; neighborRow <= row + 1; neighborRow++) {
+                for (int neighborColumn = column - 1; neighborColumn <= column + 1; neighborColumn++) {
+                    if (!board.isInBounds(neighborRow, neighborColumn)) continue;
+                    int count = board.open(neighborRow, neighborColumn);
+                    if (count < 0) continue;
+                    opened++;
+                    if (count == 0) {
+                        if (size == pending.length) pending = Arrays.copyOf(pending, size * 2);
+                        pending[size++] = pack(neighborRow, neighborColumn);
+                    }
+                }
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * packs a row and column into one number for the cascade's to-do list
+     *
+     * @param rowIndex    the row
+     * @param columnIndex the column
+     * @return the row in the high half and the column in the low half
+     */
+    private static long pack(int rowIndex, int columnIndex) {
+        return ((long) rowIndex << 32) | (columnIndex & 0xFFFFFFFFL);
+    }
+}
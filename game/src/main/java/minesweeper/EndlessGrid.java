@@ -0,0 +1,191 @@
+/**
+ * this is the window for endless games. it works like ClickableGrid, but the
+ * board goes on forever, so there's no restarting on the same board, no
+ * mine count and no winning, just how many squares you opened before a mine
+ * got you. closing the window throws away the game's spill file
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.IOException;
+
+/**
+ * the window where endless games are played
+ */
+public class EndlessGrid extends JFrame implements ActionListener, EndlessView.SquareListener {
+    /** how many squares out of one have mines in this window's games */
+    private double mineDensity;
+    /** the game being played */
+    private EndlessGame game;
+    /** the component that draws the board and turns clicks into squares */
+    private final EndlessView endlessView;
+    /** the label at the top that shows the score and flags */
+    private final JLabel statusLabel;
+    /** New game button */
+    private final JButton newGameButton;
+    /** Difficulty button */
+    private final JButton difficultyButton;
+    /** Back to the start button */
+    private final JButton homeButton;
+    /** the menu the difficulty button pops up */
+    private final JPopupMenu difficultyMenu = new JPopupMenu();
+
+    /**
+     * creates a window and starts an endless game in it
+     *
+     * @param mineDensity how many squares out of one have mines
+     */
+    public EndlessGrid(double mineDensity) {
+        setTitle("Minesweeper - endless");
+        this.mineDensity = mineDensity;
+        this.game = new EndlessGame(MinePlacer.newSeed(), mineDensity);
+
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                closeGame();
+            }
+        });
+        Container contentPane = getContentPane();
+        contentPane.setLayout(new BorderLayout());
+        Color background = new Color(220, 220, 235);
+        contentPane.setBackground(background);
+
+        statusLabel = new JLabel();
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        statusLabel.setForeground(new Color(40, 40, 60));
+        contentPane.add(statusLabel, BorderLayout.NORTH);
+
+        endlessView = new EndlessView(game);
+        endlessView.setSquareListener(this);
+        JPanel viewPanel = new JPanel(new BorderLayout());
+        viewPanel.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 20));
+        viewPanel.setBackground(background);
+        viewPanel.add(endlessView, BorderLayout.CENTER);
+        contentPane.add(viewPanel, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        buttonPanel.setBackground(background);
+
+        newGameButton = new JButton("new game");
+        newGameButton.setPreferredSize(new Dimension(100, 30));
+        newGameButton.setBackground(new Color(180, 200, 220));
+        newGameButton.addActionListener(this);
+        buttonPanel.add(newGameButton);
+
+        difficultyButton = new JButton("difficulty");
+        difficultyButton.setPreferredSize(new Dimension(100, 30));
+        difficultyButton.setBackground(new Color(200, 190, 220));
+        difficultyButton.addActionListener(this);
+        buttonPanel.add(difficultyButton);
+        for (Difficulty difficulty : Difficulty.values()) {
+            JMenuItem item = new JMenuItem(difficulty.name().toLowerCase());
+            item.addActionListener(e -> {
+                this.mineDensity = difficulty.getMineDensity();
+                newGame();
+            });
+            difficultyMenu.add(item);
+        }
+
+        homeButton = new JButton("to start");
+        homeButton.setPreferredSize(new Dimension(100, 30));
+        homeButton.setBackground(new Color(200, 220, 190));
+        homeButton.addActionListener(this);
+        buttonPanel.add(homeButton);
+        contentPane.add(buttonPanel, BorderLayout.SOUTH);
+
+        pack();
+        setLocation(100, 100);
+
+        updateStatus();
+        setVisible(true);
+    }
+
+    /**
+     * handles the new game, difficulty and to start buttons
+     *
+     * @param e the action event
+     */
+    public void actionPerformed(ActionEvent e) {
+        if (e.getSource() == newGameButton) {
+            newGame();
+        } else if (e.getSource() == difficultyButton) {
+            difficultyMenu.show(difficultyButton, 0, difficultyButton.getHeight());
+        } else if (e.getSource() == homeButton) {
+            endlessView.goHome();
+        }
+    }
+
+    /**
+     * reveals the square that was left clicked
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     */
+    public void revealClicked(int rowIndex, int columnIndex) {
+        if (game.revealTile(rowIndex, columnIndex) > 0) showMove();
+    }
+
+    /**
+     * flags or unflags the square that was right clicked
+     *
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     */
+    public void flagClicked(int rowIndex, int columnIndex) {
+        if (game.toggleFlag(rowIndex, columnIndex)) showMove();
+    }
+
+    /**
+     * opens the neighbors of a number that already has all its flags
+     *
+     * @param rowIndex    the number's row
+     * @param columnIndex the number's column
+     */
+    public void chordClicked(int rowIndex, int columnIndex) {
+        if (game.chord(rowIndex, columnIndex) > 0) showMove();
+    }
+
+    /**
+     * repaints after a move. a cascade can open squares far outside the
+     * window, but only the ones in view need painting, which is never more
+     * than a window's worth whatever the move did
+     */
+    private void showMove() {
+        endlessView.repaint();
+        updateStatus();
+    }
+
+    /** throws the game away and starts a fresh one with a new seed */
+    private void newGame() {
+        closeGame();
+        game = new EndlessGame(MinePlacer.newSeed(), mineDensity);
+        endlessView.setGame(game);
+        updateStatus();
+    }
+
+    /** deletes the game's spill file, since nothing can go back to it */
+    private void closeGame() {
+        try {
+            game.close();
+        } catch (IOException e) {
+            // it's a temp file that gets deleted on exit anyway
+        }
+    }
+
+    /** updates the label at the top with the score, or how the game ended */
+    private void updateStatus() {
+        if (game.isGameOver()) {
+            statusLabel.setText("Boom! You opened " + game.getRevealedCount() + " squares.");
+        } else {
+            statusLabel.setText("Opened: " + game.getRevealedCount() + " - Flags: " + game.getFlagCount()
+                    + " - start on the green squares, drag or use the arrows to look around");
+        }
+    }
+}
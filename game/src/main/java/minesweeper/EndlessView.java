@@ -0,0 +1,376 @@
+/**
+ * this class draws an endless game. there's no edge to scroll to, so instead
+ * of sitting in a scroll pane it keeps track of which square is in the middle
+ * of the window and paints whatever squares are around it, asking the board
+ * for them as it goes, so chunks only get laid out once they come into view.
+ * drag with any button, use the wheel (with shift for sideways) or the arrow
+ * keys to look around, ctrl and the wheel to zoom, and home to go back to the start
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+/**
+ * a pannable, zoomable view of an endless board
+ */
+public class EndlessView extends JComponent {
+    /** how far the mouse has to move with a button down before it counts as a drag instead of a click */
+    private static final int DRAG_THRESHOLD = 4;
+    /** how many squares one notch of the wheel or one arrow key press moves */
+    private static final int SCROLL_SQUARES = 3;
+
+    /** the color behind revealed squares */
+    private static final Color REVEALED_COLOR = new Color(200, 200, 210);
+    /** the color behind hidden squares */
+    private static final Color HIDDEN_COLOR = new Color(220, 220, 235);
+    /** the color behind the mine that ended the game */
+    private static final Color EXPLODED_COLOR = Color.RED;
+    /** the color painted over the squares where every game starts */
+    private static final Color START_COLOR = new Color(0, 255, 0, 90);
+
+    /**
+     * gets told what the player did to a square, by row and column since an endless board has no square indexes
+     */
+    public interface SquareListener {
+        /**
+         * called when the left button is clicked on a square
+         *
+         * @param rowIndex    the square's row
+         * @param columnIndex the square's column
+         */
+        void revealClicked(int rowIndex, int columnIndex);
+
+        /**
+         * called when the right button is clicked on a square
+         *
+         * @param rowIndex    the square's row
+         * @param columnIndex the square's column
+         */
+        void flagClicked(int rowIndex, int columnIndex);
+
+        /**
+         * called when the middle button, or both the left and right buttons
+         * together, are let go on a square
+         *
+         * @param rowIndex    the square's row
+         * @param columnIndex the square's column
+         */
+        void chordClicked(int rowIndex, int columnIndex);
+    }
+
+    /** the game being drawn */
+    private EndlessGame game;
+    /** how many pixels wide and tall a square is right now */
+    private int cellSize = BoardView.DEFAULT_CELL_SIZE;
+    /** who gets told about clicks */
+    private SquareListener squareListener;
+    /** the board pixel, counting from the left edge of column 0, in the middle of the view */
+    private long centerX;
+    /** the board pixel, counting from the top edge of row 0, in the middle of the view */
+    private long centerY;
+    /** where the mouse was pressed, or null when no button is down */
+    private Point pressPoint;
+    /** where the mouse was the last time a drag moved the view */
+    private Point dragPoint;
+    /** whether the mouse moved far enough since it was pressed to be a drag */
+    private boolean dragging = false;
+    /** whether both buttons went down together, so letting go chords instead of clicking */
+    private boolean chording = false;
+
+    /** the shared tile pictures, already scaled to fit inside a square at the current zoom */
+    private Image[] sprites;
+
+    /**
+     * creates a view of an endless game, centered on where it starts
+     *
+     * @param game the game to draw
+     */
+    public EndlessView(EndlessGame game) {
+        this.game = game;
+        this.sprites = SpriteCache.getSprites(cellSize - inset() * 2);
+        goHome();
+
+        setOpaque(true);
+        setPreferredSize(new Dimension(30 * cellSize, 20 * cellSize));
+
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int both = InputEvent.BUTTON1_DOWN_MASK | InputEvent.BUTTON3_DOWN_MASK;
+                if ((e.getModifiersEx() & both) == both) {
+                    chording = true;
+                } else if (pressPoint == null) {
+                    pressPoint = e.getPoint();
+                    dragPoint = e.getPoint();
+                    dragging = false;
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (pressPoint == null || chording) return;
+                if (!dragging && pressPoint.distance(e.getPoint()) < DRAG_THRESHOLD) return;
+                dragging = true;
+                centerX -= e.getX() - dragPoint.x;
+                centerY -= e.getY() - dragPoint.y;
+                dragPoint = e.getPoint();
+                repaint();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                int anyButton = InputEvent.BUTTON1_DOWN_MASK | InputEvent.BUTTON2_DOWN_MASK | InputEvent.BUTTON3_DOWN_MASK;
+                boolean lastButton = (e.getModifiersEx() & anyButton) == 0;
+                if (chording) {
+                    // the first button let go does the chord, the other one is ignored
+                    if (pressPoint != null && squareListener != null) {
+                        squareListener.chordClicked(rowAt(e.getY()), columnAt(e.getX()));
+                    }
+                    pressPoint = null;
+                    if (lastButton) chording = false;
+                    return;
+                }
+                if (pressPoint != null && !dragging && squareListener != null) {
+                    int rowIndex = rowAt(e.getY());
+                    int columnIndex = columnAt(e.getX());
+                    if (SwingUtilities.isLeftMouseButton(e)) {
+                        squareListener.revealClicked(rowIndex, columnIndex);
+                    } else if (SwingUtilities.isRightMouseButton(e)) {
+                        squareListener.flagClicked(rowIndex, columnIndex);
+                    } else if (SwingUtilities.isMiddleMouseButton(e)) {
+                        squareListener.chordClicked(rowIndex, columnIndex);
+                    }
+                }
+                if (lastButton) pressPoint = null;
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown()) {
+                    zoomAround(e.getWheelRotation() < 0 ? cellSize + 4 : cellSize - 4, e.getPoint());
+                } else if (e.isShiftDown()) {
+                    scrollSquares(0, e.getWheelRotation() * SCROLL_SQUARES);
+                } else {
+                    scrollSquares(e.getWheelRotation() * SCROLL_SQUARES, 0);
+                }
+            }
+        };
+        addMouseListener(mouseHandler);
+        addMouseMotionListener(mouseHandler);
+        addMouseWheelListener(mouseHandler);
+
+        bindKey("UP", -SCROLL_SQUARES, 0);
+        bindKey("DOWN", SCROLL_SQUARES, 0);
+        bindKey("LEFT", 0, -SCROLL_SQUARES);
+        bindKey("RIGHT", 0, SCROLL_SQUARES);
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("HOME"), "home");
+        getActionMap().put("home", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                goHome();
+            }
+        });
+    }
+
+    /**
+     * makes a key move the view while the window has focus
+     *
+     * @param key     the key's name, like UP
+     * @param rows    how many squares down it moves, negative for up
+     * @param columns how many squares right it moves, negative for left
+     */
+    private void bindKey(String key, int rows, int columns) {
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(key), "scroll " + key);
+        getActionMap().put("scroll " + key, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                scrollSquares(rows, columns);
+            }
+        });
+    }
+
+    /**
+     * gets the gap left around each square at the current zoom, dropped when squares get tiny
+     *
+     * @return the gap in pixels
+     */
+    private int inset() {
+        return cellSize >= 16 ? 1 : 0;
+    }
+
+    /**
+     * sets who gets told about clicks
+     *
+     * @param squareListener the listener, or null for nobody
+     */
+    public void setSquareListener(SquareListener squareListener) {
+        this.squareListener = squareListener;
+    }
+
+    /**
+     * switches to drawing a different game, centered on where it starts
+     *
+     * @param game the game to draw
+     */
+    public void setGame(EndlessGame game) {
+        this.game = game;
+        goHome();
+    }
+
+    /** moves the view back to the middle of the safe start */
+    public void goHome() {
+        centerX = cellSize / 2;
+        centerY = cellSize / 2;
+        repaint();
+    }
+
+    /**
+     * moves the view by whole squares
+     *
+     * @param rows    how many squares down, negative for up
+     * @param columns how many squares right, negative for left
+     */
+    private void scrollSquares(int rows, int columns) {
+        centerX += (long) columns * cellSize;
+        centerY += (long) rows * cellSize;
+        repaint();
+    }
+
+    /**
+     * gets the board pixel at the left edge of the view
+     *
+     * @return the pixel, counting from the left edge of column 0
+     */
+    private long left() {
+        return centerX - getWidth() / 2;
+    }
+
+    /**
+     * gets the board pixel at the top edge of the view
+     *
+     * @return the pixel, counting from the top edge of row 0
+     */
+    private long top() {
+        return centerY - getHeight() / 2;
+    }
+
+    /**
+     * turns a pixel column in this component into a board column
+     *
+     * @param x the pixel column
+     * @return the board column under it
+     */
+    public int columnAt(int x) {
+        return (int) Math.floorDiv(left() + x, (long) cellSize);
+    }
+
+    /**
+     * turns a pixel row in this component into a board row
+     *
+     * @param y the pixel row
+     * @return the board row under it
+     */
+    public int rowAt(int y) {
+        return (int) Math.floorDiv(top() + y, (long) cellSize);
+    }
+
+    /**
+     * zooms so squares are the given size, keeping the square under the mouse under the mouse
+     *
+     * @param size  the new square size, kept between BoardView's smallest and biggest
+     * @param point where the mouse is, inside this component
+     */
+    private void zoomAround(int size, Point point) {
+        int clamped = Math.max(BoardView.MIN_CELL_SIZE, Math.min(BoardView.MAX_CELL_SIZE, size));
+        if (clamped == cellSize) return;
+        long fromCenterX = point.x - getWidth() / 2;
+        long fromCenterY = point.y - getHeight() / 2;
+        centerX = (centerX + fromCenterX) * clamped / cellSize - fromCenterX;
+        centerY = (centerY + fromCenterY) * clamped / cellSize - fromCenterY;
+        cellSize = clamped;
+        sprites = SpriteCache.getSprites(cellSize - inset() * 2);
+        repaint();
+    }
+
+    /**
+     * paints the squares that overlap the area swing wants redrawn. off the
+     * board is left the window's background color
+     *
+     * @param g the graphics to paint with
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(getParent() != null ? getParent().getBackground() : HIDDEN_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        ChunkedBoard board = game.getBoard();
+        long left = left();
+        long top = top();
+        int firstColumn = columnAt(clip.x);
+        int firstRow = rowAt(clip.y);
+        int lastColumn = columnAt(clip.x + clip.width - 1);
+        int lastRow = rowAt(clip.y + clip.height - 1);
+
+        for (int rowIndex = firstRow; rowIndex <= lastRow; rowIndex++) {
+            int y = (int) ((long) rowIndex * cellSize - top);
+            for (int columnIndex = firstColumn; columnIndex <= lastColumn; columnIndex++) {
+                if (!board.isInBounds(rowIndex, columnIndex)) continue;
+                paintCell(g, board, rowIndex, columnIndex, (int) ((long) columnIndex * cellSize - left), y);
+            }
+        }
+    }
+
+    /**
+     * paints one square: raised and blank while hidden, flat with its number
+     * once revealed, and with the mines in view showing once the game is over
+     *
+     * @param g           the graphics to paint with
+     * @param board       the board being drawn
+     * @param rowIndex    the square's row
+     * @param columnIndex the square's column
+     * @param x           the square's left edge in pixels
+     * @param y           the square's top edge in pixels
+     */
+    private void paintCell(Graphics g, ChunkedBoard board, int rowIndex, int columnIndex, int x, int y) {
+        int inset = inset();
+        int size = cellSize - inset * 2;
+        boolean revealed = board.isRevealed(rowIndex, columnIndex);
+        boolean showMine = board.isMine(rowIndex, columnIndex) && (revealed || game.isGameOver());
+
+        if (game.isExploded(rowIndex, columnIndex)) {
+            g.setColor(EXPLODED_COLOR);
+            g.fillRect(x + inset, y + inset, size, size);
+        } else if (revealed) {
+            g.setColor(REVEALED_COLOR);
+            g.fillRect(x + inset, y + inset, size, size);
+        } else {
+            g.setColor(HIDDEN_COLOR);
+            g.fill3DRect(x + inset, y + inset, size, size, true);
+        }
+
+        Image image = null;
+        if (showMine) {
+            image = sprites[SpriteCache.MINE];
+        } else if (board.isFlagged(rowIndex, columnIndex)) {
+            image = sprites[SpriteCache.FLAG];
+        } else if (revealed) {
+            int adjacentMines = board.getAdjacentMineCount(rowIndex, columnIndex);
+            if (adjacentMines > 0) image = sprites[adjacentMines];
+        }
+        if (image != null) {
+            g.drawImage(image, x + inset, y + inset, null);
+        }
+
+        if (!revealed && game.getMoveCount() == 0 && ChunkedBoard.isSafeStart(rowIndex, columnIndex)) {
+            g.setColor(START_COLOR);
+            g.fillRect(x + inset, y + inset, size, size);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * this class gives a game unlimited undo and redo with "what if" branches.
+ * it keeps a snapshot after every move in a tree: undoing goes up to the
+ * parent, and making a different move from there starts a new branch instead
+ * of throwing the old one away, so redo can go down either. the snapshots
+ * share everything they have in common, so the whole tree costs memory for
+ * what the moves changed, not a board per move
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * an undo and redo tree of snapshots for one game
+ */
+public final class GameHistory {
+    /**
+     * one state in the tree
+     */
+    private static final class Node {
+        /** the game as it was */
+        final GameState state;
+        /** the state before it, or null for the first */
+        final Node parent;
+        /** the states one move after it, oldest branch first */
+        final List<Node> children = new ArrayList<>(1);
+        /** the child redo goes to: the one undone from last, or the newest */
+        Node redoTo;
+
+        /**
+         * creates a state in the tree
+         *
+         * @param state  the game as it was
+         * @param parent the state before it, or null
+         */
+        Node(GameState state, Node parent) {
+            this.state = state;
+            this.parent = parent;
+        }
+    }
+
+    /** the game this is the history of */
+    private final MinesweeperGame game;
+    /** where the game is now */
+    private Node current;
+    /** how many states the tree holds */
+    private int size = 1;
+
+    /**
+     * starts a history at the game's current state
+     *
+     * @param game the game
+     */
+    public GameHistory(MinesweeperGame game) {
+        this.game = game;
+        this.current = new Node(game.snapshot(), null);
+    }
+
+    /**
+     * adds the game's current state after a move. if the move was made after
+     * an undo it starts a new branch next to the ones already there
+     */
+    public void record() {
+        Node node = new Node(game.snapshot(), current);
+        current.children.add(node);
+        current.redoTo = node;
+        current = node;
+        size++;
+    }
+
+    /**
+     * checks if there's a move to undo
+     *
+     * @return true if the game isn't at the first state
+     */
+    public boolean canUndo() {
+        return current.parent != null;
+    }
+
+    /**
+     * puts the game back one move
+     *
+     * @return true if it went back, false if there was nothing to undo
+     */
+    public boolean undo() {
+        if (current.parent == null) return false;
+        current.parent.redoTo = current;
+        current = current.parent;
+        game.restore(current.state);
+        return true;
+    }
+
+    /**
+     * checks if there's a move to redo
+     *
+     * @return true if a move was undone from here or made after it
+     */
+    public boolean canRedo() {
+        return current.redoTo != null;
+    }
+
+    /**
+     * makes the move that was undone from here again, or the newest branch's move
+     *
+     * @return true if it went forward, false if there was nothing to redo
+     */
+    public boolean redo() {
+        if (current.redoTo == null) return false;
+        current = current.redoTo;
+        game.restore(current.state);
+        return true;
+    }
+
+    /**
+     * gets how many different moves were made from here
+     *
+     * @return the number of branches redo could go down
+     */
+    public int getBranchCount() {
+        return current.children.size();
+    }
+
+    /**
+     * gets the state a branch leads to, to show what move it was
+     *
+     * @param branch from 0 for the oldest to getBranchCount - 1
+     * @return the state one move down that branch
+     */
+    public GameState getBranch(int branch) {
+        return current.children.get(branch).state;
+    }
+
+    /**
+     * goes down a particular branch
+     *
+     * @param branch from 0 for the oldest to getBranchCount - 1
+     */
+    public void redo(int branch) {
+        current.redoTo = current.children.get(branch);
+        redo();
+    }
+
+    /**
+     * gets the state the game is at
+     *
+     * @return the current state
+     */
+    public GameState getCurrent() {
+        return current.state;
+    }
+
+    /**
+     * gets how many states the tree holds, across every branch
+     *
+     * @return the count
+     */
+    public int size() {
+        return size;
+    }
+}
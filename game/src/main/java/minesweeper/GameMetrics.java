@@ -0,0 +1,380 @@
+/**
+ * this class keeps track of how the game engine is doing while people play:
+ * how long reveals, flags, chords, mine placement and win checks take, how
+ * many squares each move opens, how long players wait between moves, and
+ * how many games of each difficulty get started, won and lost. everything is
+ * recorded into lock-free counters and histograms, shown through JMX and
+ * optionally printed every so often
+ *
+ * it's off unless the minesweeper.metrics system property is true or it's
+ * switched on through JMX. while it's off, the engine's only cost is reading
+ * one boolean per move, so it can stay compiled in for live games. setting
+ * minesweeper.metrics.dumpSeconds prints a report to standard error that often
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * process-wide metrics for the game engine
+ */
+public final class GameMetrics {
+    /** the operation for revealing a square */
+    public static final int REVEAL = 0;
+    /** the operation for flagging or unflagging a square */
+    public static final int FLAG = 1;
+    /** the operation for chording a number */
+    public static final int CHORD = 2;
+    /** the operation for hiding the mines */
+    public static final int GENERATION = 3;
+    /** the operation for checking if the game is won */
+    public static final int WIN_CHECK = 4;
+    /** the name JMX shows the metrics under */
+    public static final String OBJECT_NAME = "minesweeper:type=GameMetrics";
+
+    /** the operations' names, in operation order */
+    private static final String[] OPERATION_NAMES = {"reveal", "flag", "chord", "generation", "win_check"};
+    /** the name of the bucket for games that aren't a menu preset */
+    private static final String CUSTOM = "custom";
+
+    /** whether anything is being recorded, read once per move */
+    private static volatile boolean enabled = Boolean.getBoolean("minesweeper.metrics");
+    /** how long each operation took, in nanoseconds */
+    private static final Histogram[] latencies = new Histogram[OPERATION_NAMES.length];
+    /** how many squares each reveal or chord opened */
+    private static final Histogram cascadeSizes = new Histogram();
+    /** how long players waited between moves, in nanoseconds */
+    private static final Histogram moveGaps = new Histogram();
+    /** games started for each difficulty, with custom sizes last */
+    private static final LongAdder[] gamesStarted = new LongAdder[Difficulty.values().length + 1];
+    /** games won for each difficulty, with custom sizes last */
+    private static final LongAdder[] gamesWon = new LongAdder[gamesStarted.length];
+    /** games lost for each difficulty, with custom sizes last */
+    private static final LongAdder[] gamesLost = new LongAdder[gamesStarted.length];
+    /** prints the periodic report, made the first time one is asked for */
+    private static ScheduledExecutorService dumper;
+    /** the periodic report that's scheduled, or null */
+    private static ScheduledFuture<?> dump;
+    /** whether the metrics have been registered with JMX */
+    private static boolean registered = false;
+
+    static {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram();
+        }
+        for (int i = 0; i < gamesStarted.length; i++) {
+            gamesStarted[i] = new LongAdder();
+            gamesWon[i] = new LongAdder();
+            gamesLost[i] = new LongAdder();
+        }
+        long dumpSeconds = Long.getLong("minesweeper.metrics.dumpSeconds", 0);
+        if (dumpSeconds > 0) startDump(dumpSeconds, System.err);
+    }
+
+    /** this class only has static methods */
+    private GameMetrics() {
+    }
+
+    /**
+     * checks if metrics are being recorded
+     *
+     * @return true if they are
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * switches recording on or off. what's already recorded is kept
+     *
+     * @param on true to record
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * starts timing an operation
+     *
+     * @return the time now, or 0 when metrics are off so the matching record call does nothing
+     */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * records how long an operation took
+     *
+     * @param operation  REVEAL, FLAG, CHORD, GENERATION or WIN_CHECK
+     * @param startNanos what startTimer returned when the operation started
+     */
+    public static void record(int operation, long startNanos) {
+        if (startNanos == 0) return;
+        latencies[operation].record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * records how long a reveal or chord took and how many squares it opened
+     *
+     * @param operation  REVEAL or CHORD
+     * @param startNanos what startTimer returned when the move started
+     * @param opened     how many squares the move opened
+     */
+    public static void recordMove(int operation, long startNanos, int opened) {
+        if (startNanos == 0) return;
+        latencies[operation].record(System.nanoTime() - startNanos);
+        cascadeSizes.record(opened);
+    }
+
+    /**
+     * records how long a player waited between two moves
+     *
+     * @param gapNanos the wait in nanoseconds
+     */
+    public static void recordMoveGap(long gapNanos) {
+        moveGaps.record(gapNanos);
+    }
+
+    /**
+     * counts a game whose first move was just made
+     *
+     * @param game the game
+     */
+    public static void gameStarted(MinesweeperGame game) {
+        gamesStarted[difficultyOf(game)].increment();
+    }
+
+    /**
+     * counts a game that just ended
+     *
+     * @param game the game
+     * @param won  true if it was won
+     */
+    public static void gameEnded(MinesweeperGame game, boolean won) {
+        (won ? gamesWon : gamesLost)[difficultyOf(game)].increment();
+    }
+
+    /**
+     * works out which menu preset a game is, if any
+     *
+     * @param game the game
+     * @return the preset's ordinal, or the custom bucket after them
+     */
+    private static int difficultyOf(MinesweeperGame game) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.getBoardColumns() == game.getBoardColumns() && difficulty.getBoardRows() == game.getBoardRows()
+                    && difficulty.getTotalMines() == game.getTotalMines()) {
+                return difficulty.ordinal();
+            }
+        }
+        return gamesStarted.length - 1;
+    }
+
+    /**
+     * gets the name of a difficulty bucket
+     *
+     * @param index the preset's ordinal, or the custom bucket after them
+     * @return the name
+     */
+    private static String difficultyName(int index) {
+        return index < Difficulty.values().length ? Difficulty.values()[index].name().toLowerCase() : CUSTOM;
+    }
+
+    /**
+     * gets the histogram of an operation's latencies, in nanoseconds
+     *
+     * @param operation REVEAL, FLAG, CHORD, GENERATION or WIN_CHECK
+     * @return the histogram
+     */
+    public static Histogram getLatencies(int operation) {
+        return latencies[operation];
+    }
+
+    /**
+     * gets the histogram of how many squares each reveal or chord opened
+     *
+     * @return the histogram
+     */
+    public static Histogram getCascadeSizes() {
+        return cascadeSizes;
+    }
+
+    /**
+     * gets the histogram of how long players waited between moves, in nanoseconds
+     *
+     * @return the histogram
+     */
+    public static Histogram getMoveGaps() {
+        return moveGaps;
+    }
+
+    /** forgets everything recorded so far */
+    public static void reset() {
+        for (Histogram histogram : latencies) {
+            histogram.reset();
+        }
+        cascadeSizes.reset();
+        moveGaps.reset();
+        for (int i = 0; i < gamesStarted.length; i++) {
+            gamesStarted[i].reset();
+            gamesWon[i].reset();
+            gamesLost[i].reset();
+        }
+    }
+
+    /**
+     * writes out everything recorded so far as a few lines of text
+     *
+     * @return the report
+     */
+    public static String report() {
+        StringBuilder text = new StringBuilder("minesweeper metrics").append(enabled ? "" : " (off)").append('\n');
+        for (int i = 0; i < gamesStarted.length; i++) {
+            long started = gamesStarted[i].sum();
+            if (started == 0) continue;
+            text.append(String.format("  %-10s started %d, won %d, lost %d%n",
+                    difficultyName(i), started, gamesWon[i].sum(), gamesLost[i].sum()));
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            Histogram histogram = latencies[i];
+            if (histogram.getCount() == 0) continue;
+            text.append(String.format("  %-10s n=%d p50=%.1fus p99=%.1fus max=%.1fus%n", OPERATION_NAMES[i],
+                    histogram.getCount(), histogram.getValueAtPercentile(50) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3, histogram.getMax() / 1e3));
+        }
+        if (cascadeSizes.getCount() > 0) {
+            text.append(String.format("  %-10s p50=%d p99=%d max=%d squares%n", "cascade",
+                    cascadeSizes.getValueAtPercentile(50), cascadeSizes.getValueAtPercentile(99), cascadeSizes.getMax()));
+        }
+        if (moveGaps.getCount() > 0) {
+            text.append(String.format("  %-10s p50=%.0fms p99=%.0fms max=%.0fms%n", "gap",
+                    moveGaps.getValueAtPercentile(50) / 1e6, moveGaps.getValueAtPercentile(99) / 1e6, moveGaps.getMax() / 1e6));
+        }
+        return text.toString();
+    }
+
+    /**
+     * starts printing the report every so often on a background thread,
+     * replacing any report that was already scheduled
+     *
+     * @param periodSeconds how many seconds apart
+     * @param out           where to print it
+     */
+    public static synchronized void startDump(long periodSeconds, PrintStream out) {
+        if (periodSeconds <= 0) throw new IllegalArgumentException("the dump period must be positive");
+        stopDump();
+        if (dumper == null) {
+            dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        dump = dumper.scheduleAtFixedRate(() -> out.print(report()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /** stops the periodic report if one is scheduled */
+    public static synchronized void stopDump() {
+        if (dump != null) {
+            dump.cancel(false);
+            dump = null;
+        }
+    }
+
+    /**
+     * shows the metrics through JMX under OBJECT_NAME. calling it again does nothing
+     */
+    public static synchronized void registerMBean() {
+        if (registered) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+            registered = true;
+        } catch (JMException e) {
+            throw new IllegalStateException("couldn't register the game metrics with JMX", e);
+        }
+    }
+
+    /**
+     * the JMX view, which just reads the static metrics
+     */
+    private static final class MXBean implements GameMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return GameMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean on) {
+            GameMetrics.setEnabled(on);
+        }
+
+        @Override
+        public Map<String, Long> getGameCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < gamesStarted.length; i++) {
+                String name = difficultyName(i);
+                counts.put(name + ".started", gamesStarted[i].sum());
+                counts.put(name + ".won", gamesWon[i].sum());
+                counts.put(name + ".lost", gamesLost[i].sum());
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getOperationCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < latencies.length; i++) {
+                counts.put(OPERATION_NAMES[i], latencies[i].getCount());
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, Double> getLatencyMicros() {
+            Map<String, Double> micros = new LinkedHashMap<>();
+            for (int i = 0; i < latencies.length; i++) {
+                micros.put(OPERATION_NAMES[i] + ".p50", latencies[i].getValueAtPercentile(50) / 1e3);
+                micros.put(OPERATION_NAMES[i] + ".p99", latencies[i].getValueAtPercentile(99) / 1e3);
+                micros.put(OPERATION_NAMES[i] + ".max", latencies[i].getMax() / 1e3);
+            }
+            return micros;
+        }
+
+        @Override
+        public Map<String, Double> getDistributions() {
+            Map<String, Double> values = new LinkedHashMap<>();
+            values.put("cascade.p50", (double) cascadeSizes.getValueAtPercentile(50));
+            values.put("cascade.p99", (double) cascadeSizes.getValueAtPercentile(99));
+            values.put("cascade.max", (double) cascadeSizes.getMax());
+            values.put("gap.p50", moveGaps.getValueAtPercentile(50) / 1e6);
+            values.put("gap.p99", moveGaps.getValueAtPercentile(99) / 1e6);
+            values.put("gap.max", moveGaps.getMax() / 1e6);
+            return values;
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+
+        @Override
+        public void reset() {
+            GameMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * this interface is what GameMetrics shows through JMX, so tools like
+ * jconsole can watch a running game and switch the metrics on and off
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.Map;
+
+/**
+ * the JMX view of the game engine's metrics
+ */
+public interface GameMetricsMXBean {
+    /**
+     * checks if the engine is recording metrics
+     *
+     * @return true if it is
+     */
+    boolean isEnabled();
+
+    /**
+     * switches recording on or off
+     *
+     * @param enabled true to record
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * gets how many games were started, won and lost for each difficulty,
+     * keyed like "hard.won"
+     *
+     * @return the counts
+     */
+    Map<String, Long> getGameCounts();
+
+    /**
+     * gets how many of each operation were recorded, keyed by operation name
+     *
+     * @return the counts
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * gets the median, 99th percentile and max latency of each operation in
+     * microseconds, keyed like "reveal.p99"
+     *
+     * @return the latencies
+     */
+    Map<String, Double> getLatencyMicros();
+
+    /**
+     * gets the median, 99th percentile and max cascade size and time between
+     * moves in milliseconds, keyed like "cascade.p50" and "gap.max"
+     *
+     * @return the distributions
+     */
+    Map<String, Double> getDistributions();
+
+    /**
+     * gets the same text the periodic dump prints
+     *
+     * @return the report
+     */
+    String getReport();
+
+    /** forgets everything recorded so far */
+    void reset();
+}
@@ -0,0 +1,738 @@
+/**
+ * this class hosts lots of games at once for clients on other processes,
+ * talking a simple line-based protocol over tcp. each game is the same
+ * engine the window plays, without any swing. a few nio event loops share
+ * the connections, and the games live in partitions picked by session id,
+ * each with its own lock, so moves on different games never wait on each
+ * other. games nobody has touched for a while are squeezed down to a
+ * snapshot a couple of hundred bytes long and brought back on their next move
+ *
+ * every request is one line, words split by single spaces, and gets exactly
+ * one line back, so clients can send many requests before reading the replies:
+ * <pre>
+ *   NEW board [noguess]    OK id columns rows mines [opening square]
+ *   REVEAL id row column   OK status moves changes
+ *   FLAG id row column     OK status moves changes
+ *   CHORD id row column    OK status moves changes
+ *   STATE id               OK status moves columns rows values
+ *   RESTART id             OK id [opening square]
+ *   CLOSE id               OK id
+ *   not ready yet          ERR retry message
+ *   anything wrong         ERR message
+ * </pre>
+ * board is easy, medium, hard or COLUMNSxROWSxMINES. status is PLAYING, WON
+ * or LOST. the move replies only carry the squares the move changed, as a
+ * ChangeSet encoded to bytes and then to base64, so a huge cascade is still a
+ * short line. STATE lists every square's value in row order, 0 to 8 for a
+ * number, * for a mine, F for a flag and # for hidden, with all the mines
+ * showing once the game is over. no-guess games come laid out to be
+ * opened from the square given after NEW and RESTART, and only in the easy,
+ * medium and hard sizes, since laying out a big one can take seconds. they
+ * always come ready made from the pool, never laid out on an event loop, so
+ * when the pool has run dry NEW and RESTART answer ERR retry and the client
+ * should ask again shortly, by which time the pool has made more
+ *
+ * preset games come from the shared BoardPool. custom sizes are made on the
+ * spot instead, with their mines laid on the first reveal, so clients can't
+ * make the pool keep games of every size they think up
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * a multi-session minesweeper server on a few nio event loops
+ */
+public final class GameServer implements Closeable {
+    /** the port the server listens on unless told otherwise */
+    public static final int DEFAULT_PORT = 7777;
+    /** how long a game can sit untouched before it's squeezed into a snapshot, unless told otherwise */
+    public static final long DEFAULT_EVICT_AFTER_MILLIS = 30_000;
+    /** how long a game can sit untouched before it's thrown away, unless told otherwise */
+    public static final long DEFAULT_EXPIRE_AFTER_MILLIS = 60 * 60_000;
+    /** how many partitions the games are split into, a power of two */
+    private static final int PARTITIONS = 64;
+    /** the biggest board a client can ask for */
+    private static final int MAX_CELLS = 1 << 20;
+    /** the error for a no-guess game the pool hasn't got ready yet, which is worth asking for again */
+    private static final String NOT_READY = "retry no-guess board not ready yet";
+    /** the longest request line, anything longer gets an error */
+    private static final int MAX_LINE_LENGTH = 256;
+    /** once this many reply bytes are waiting to be sent, the connection stops being read until they go */
+    private static final int MAX_PENDING_BYTES = 4 << 20;
+    /** turns encoded change sets into text for the reply line */
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+
+    /** the socket new connections come in on */
+    private final ServerSocketChannel serverChannel;
+    /** the event loops the connections are shared between */
+    private final EventLoop[] loops;
+    /** takes new connections and hands them to the event loops in turn */
+    private final Thread acceptor;
+    /** the games, split up by session id */
+    private final Partition[] partitions = new Partition[PARTITIONS];
+    /** the id the next game gets */
+    private final AtomicLong nextId = new AtomicLong(1);
+    /** squeezes idle games into snapshots and drops expired ones */
+    private final ScheduledExecutorService evictor;
+    /** how long a game can sit untouched before it's squeezed, in nanoseconds */
+    private final long evictAfterNanos;
+    /** how long a game can sit untouched before it's thrown away, in nanoseconds */
+    private final long expireAfterNanos;
+    /** how many requests have been answered */
+    private final LongAdder requestCount = new LongAdder();
+    /** how many games are squeezed into snapshots right now */
+    private final AtomicInteger evictedCount = new AtomicInteger();
+    /** set once the server is shutting down */
+    private volatile boolean closed = false;
+
+    /**
+     * starts a server and its threads
+     *
+     * @param address           where to listen
+     * @param loopCount         how many event loop threads to run
+     * @param evictAfterMillis  how long a game can sit untouched before it's squeezed into a snapshot
+     * @param expireAfterMillis how long a game can sit untouched before it's thrown away
+     * @throws IOException if the socket can't be opened
+     */
+    public GameServer(InetSocketAddress address, int loopCount, long evictAfterMillis, long expireAfterMillis)
+            throws IOException {
+        if (loopCount < 1 || evictAfterMillis <= 0 || expireAfterMillis < evictAfterMillis) {
+            throw new IllegalArgumentException("need at least one loop and 0 < evictAfter <= expireAfter");
+        }
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions[i] = new Partition();
+        }
+        this.evictAfterNanos = TimeUnit.MILLISECONDS.toNanos(evictAfterMillis);
+        this.expireAfterNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterMillis);
+
+        // get the pool laying out preset games, no-guess ones above all, before the first NEW
+        for (Difficulty difficulty : Difficulty.values()) {
+            BoardPool.getShared().prepare(difficulty.getBoardColumns(), difficulty.getBoardRows(),
+                    difficulty.getTotalMines(), true);
+            BoardPool.getShared().prepare(difficulty.getBoardColumns(), difficulty.getBoardRows(),
+                    difficulty.getTotalMines(), false);
+        }
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        loops = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            loops[i] = new EventLoop(i);
+        }
+        acceptor = new Thread(this::accept, "game-server-accept");
+        acceptor.start();
+
+        evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "game-server-evict");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(100, Math.min(evictAfterMillis / 4, 5_000));
+        evictor.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * gets the port the server is listening on, handy when it was started on port 0
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * gets how many games are being hosted, counting squeezed ones
+     *
+     * @return the session count
+     */
+    public int getSessionCount() {
+        int count = 0;
+        for (Partition partition : partitions) {
+            synchronized (partition) {
+                count += partition.sessions.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * gets how many games are squeezed into snapshots right now
+     *
+     * @return the count
+     */
+    public int getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    /**
+     * gets how many requests have been answered
+     *
+     * @return the count
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /** stops listening, closes every connection and stops every thread */
+    public void close() {
+        closed = true;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        evictor.shutdownNow();
+    }
+
+    /** the acceptor thread: hands each new connection to the next event loop */
+    private void accept() {
+        int next = 0;
+        while (!closed) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                loops[next].add(channel);
+                next = (next + 1) % loops.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (closed) return;
+            }
+        }
+    }
+
+    /**
+     * squeezes games that have sat untouched long enough into snapshots, and
+     * throws away ones that have sat so long nobody's coming back. only one
+     * partition is locked at a time
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Partition partition : partitions) {
+            synchronized (partition) {
+                Iterator<Session> sessions = partition.sessions.values().iterator();
+                while (sessions.hasNext()) {
+                    Session session = sessions.next();
+                    long idle = now - session.lastUsedNanos;
+                    if (idle >= expireAfterNanos) {
+                        if (session.game == null) evictedCount.decrementAndGet();
+                        sessions.remove();
+                    } else if (idle >= evictAfterNanos && session.game != null) {
+                        session.snapshot = BoardSnapshot.toBytes(session.game);
+                        BoardPool.getShared().recycle(session.game);
+                        session.game = null;
+                        evictedCount.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * finds the partition a session lives in
+     *
+     * @param id the session id
+     * @return its partition
+     */
+    private Partition partitionOf(long id) {
+        return partitions[(int) (id & (PARTITIONS - 1))];
+    }
+
+    /**
+     * answers one request line
+     *
+     * @param line  the request, without its line break
+     * @param reply where the one-line answer goes, without its line break
+     */
+    private void execute(String line, StringBuilder reply) {
+        requestCount.increment();
+        String[] words = line.split(" ");
+        String command = words[0];
+        try {
+            if (command.equals("REVEAL") || command.equals("FLAG") || command.equals("CHORD")) {
+                move(command, words, reply);
+            } else if (command.equals("NEW")) {
+                newSession(words, reply);
+            } else if (command.equals("STATE") || command.equals("RESTART") || command.equals("CLOSE")) {
+                if (words.length != 2) throw new IllegalArgumentException("usage: " + command + " id");
+                session(command, Long.parseLong(words[1]), reply);
+            } else {
+                reply.append("ERR unknown command ").append(command);
+            }
+        } catch (IllegalArgumentException e) {
+            reply.setLength(0);
+            reply.append("ERR ").append(e.getMessage());
+        } catch (RuntimeException e) {
+            // a bug shouldn't take the whole event loop down with it
+            reply.setLength(0);
+            reply.append("ERR server error ").append(e);
+        }
+    }
+
+    /**
+     * starts a new game
+     *
+     * @param words the request's words
+     * @param reply where the answer goes
+     */
+    private void newSession(String[] words, StringBuilder reply) {
+        if (words.length < 2 || words.length > 3 || (words.length == 3 && !words[2].equals("noguess"))) {
+            throw new IllegalArgumentException("usage: NEW board [noguess]");
+        }
+        int[] size;
+        try {
+            size = DatasetExporter.parseBoard(words[1]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown board " + words[1]);
+        }
+        if (size[0] <= 0 || size[1] <= 0 || (long) size[0] * size[1] > MAX_CELLS || size[2] < 0) {
+            throw new IllegalArgumentException("boards can have 1 to " + MAX_CELLS + " squares");
+        }
+        boolean noGuess = words.length == 3;
+        MinesweeperGame game;
+        if (isPreset(size) && noGuess) {
+            game = BoardPool.getShared().poll(size[0], size[1], size[2], true);
+            if (game == null) throw new IllegalArgumentException(NOT_READY);
+        } else if (isPreset(size)) {
+            // a normal game's mines wait for its first reveal, so making one on a miss is cheap
+            game = BoardPool.getShared().take(size[0], size[1], size[2], false);
+        } else if (noGuess) {
+            throw new IllegalArgumentException("no-guess games only come in easy, medium and hard");
+        } else {
+            game = new MinesweeperGame(size[0], size[1], size[2], new MinePlacer(MinePlacer.newSeed()), true);
+        }
+        long id = nextId.getAndIncrement();
+        Session session = new Session(game);
+        Partition partition = partitionOf(id);
+        synchronized (partition) {
+            partition.sessions.put(id, session);
+        }
+        reply.append("OK ").append(id).append(' ').append(game.getBoardColumns()).append(' ')
+                .append(game.getBoardRows()).append(' ').append(game.getTotalMines());
+        appendOpening(game, reply);
+    }
+
+    /**
+     * checks if a board size is one of the menu presets, which are the only
+     * sizes the pool keeps games of
+     *
+     * @param size columns, rows and mines
+     * @return true if it matches easy, medium or hard
+     */
+    private static boolean isPreset(int[] size) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.getBoardColumns() == size[0] && difficulty.getBoardRows() == size[1]
+                    && difficulty.getTotalMines() == size[2]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * makes a reveal, flag or chord and sends back its change set
+     *
+     * @param command REVEAL, FLAG or CHORD
+     * @param words   the request's words
+     * @param reply   where the answer goes
+     */
+    private void move(String command, String[] words, StringBuilder reply) {
+        if (words.length != 4) throw new IllegalArgumentException("usage: " + command + " id row column");
+        long id = Long.parseLong(words[1]);
+        int rowIndex = Integer.parseInt(words[2]);
+        int columnIndex = Integer.parseInt(words[3]);
+        Partition partition = partitionOf(id);
+        synchronized (partition) {
+            MinesweeperGame game = wake(partition, id);
+            if (!game.isInBounds(rowIndex, columnIndex)) throw new IllegalArgumentException("square is off the board");
+            if (command.equals("FLAG")) {
+                game.toggleFlag(rowIndex, columnIndex);
+            } else if (command.equals("REVEAL")) {
+                game.revealTile(rowIndex, columnIndex);
+            } else {
+                game.chord(rowIndex, columnIndex);
+            }
+            reply.append("OK ");
+            appendHeader(game, reply);
+            reply.append(' ').append(ENCODER.encodeToString(game.getChanges().encode()));
+        }
+    }
+
+    /**
+     * answers STATE, RESTART or CLOSE
+     *
+     * @param command which one
+     * @param id      the session id
+     * @param reply   where the answer goes
+     */
+    private void session(String command, long id, StringBuilder reply) {
+        Partition partition = partitionOf(id);
+        synchronized (partition) {
+            if (command.equals("CLOSE")) {
+                Session session = partition.sessions.remove(id);
+                if (session == null) throw new IllegalArgumentException("no session " + id);
+                if (session.game == null) {
+                    evictedCount.decrementAndGet();
+                } else {
+                    BoardPool.getShared().recycle(session.game);
+                }
+                reply.append("OK ").append(id);
+                return;
+            }
+            MinesweeperGame game = wake(partition, id);
+            if (command.equals("RESTART")) {
+                if (game.hasNoGuessPlacer()) {
+                    // laying out a no-guess board here would hold up the whole loop,
+                    // so the session gets a ready one instead and the old one goes back
+                    MinesweeperGame ready = BoardPool.getShared().poll(game.getBoardColumns(), game.getBoardRows(),
+                            game.getTotalMines(), true);
+                    if (ready == null) throw new IllegalArgumentException(NOT_READY);
+                    partition.sessions.get(id).game = ready;
+                    BoardPool.getShared().recycle(game);
+                    game = ready;
+                } else {
+                    game.restart(MinePlacer.newSeed());
+                }
+                reply.append("OK ").append(id);
+                appendOpening(game, reply);
+                return;
+            }
+            Board board = game.getBoard();
+            reply.append("OK ");
+            appendHeader(game, reply);
+            reply.append(' ').append(game.getBoardColumns()).append(' ').append(game.getBoardRows()).append(' ');
+            for (int cellIndex = 0; cellIndex < board.getCellCount(); cellIndex++) {
+                reply.append(valueOf(game, board, cellIndex));
+            }
+        }
+    }
+
+    /**
+     * finds a session's game, bringing it back from its snapshot if it was
+     * squeezed. the caller holds the partition's lock
+     *
+     * @param partition the session's partition
+     * @param id        the session id
+     * @return the game
+     */
+    private MinesweeperGame wake(Partition partition, long id) {
+        Session session = partition.sessions.get(id);
+        if (session == null) throw new IllegalArgumentException("no session " + id);
+        session.lastUsedNanos = System.nanoTime();
+        if (session.game == null) {
+            try {
+                session.game = BoardSnapshot.fromBytes(session.snapshot).restore();
+            } catch (IOException e) {
+                throw new IllegalStateException("session " + id + " has a broken snapshot", e);
+            }
+            session.snapshot = null;
+            evictedCount.decrementAndGet();
+        }
+        return session.game;
+    }
+
+    /**
+     * writes a game's status and move count
+     *
+     * @param game  the game
+     * @param reply where they go
+     */
+    private static void appendHeader(MinesweeperGame game, StringBuilder reply) {
+        reply.append(game.getStatus()).append(' ').append(game.getMoveCount());
+    }
+
+    /**
+     * writes the square a no-guess game that was laid out ahead of time
+     * should be opened from, since it can only be solved from there
+     *
+     * @param game  the game
+     * @param reply where it goes
+     */
+    private static void appendOpening(MinesweeperGame game, StringBuilder reply) {
+        if (game.isNoGuess() && !game.isSafeFirstClick()) {
+            reply.append(' ').append(NoGuessPlacer.openingCell(game.getBoard()));
+        }
+    }
+
+    /**
+     * works out the character a client sees for a square
+     *
+     * @param game      the game
+     * @param board     its board
+     * @param cellIndex the square
+     * @return 0 to 8, * for a mine, F for a flag or # for hidden
+     */
+    private static char valueOf(MinesweeperGame game, Board board, int cellIndex) {
+        if (board.isRevealed(cellIndex)) {
+            return board.isMine(cellIndex) ? '*' : (char) ('0' + board.getAdjacentMineCount(cellIndex));
+        }
+        if (board.isFlagged(cellIndex)) return 'F';
+        return game.isGameOver() && board.isMine(cellIndex) ? '*' : '#';
+    }
+
+    /**
+     * one hosted game, either live or squeezed into a snapshot
+     */
+    private static final class Session {
+        /** the game, or null while it's squeezed */
+        private MinesweeperGame game;
+        /** the squeezed game, or null while it's live */
+        private byte[] snapshot;
+        /** when the game was last touched, from System.nanoTime */
+        private long lastUsedNanos = System.nanoTime();
+
+        /**
+         * creates a live session
+         *
+         * @param game the game
+         */
+        Session(MinesweeperGame game) {
+            this.game = game;
+        }
+    }
+
+    /**
+     * one slice of the sessions, locked on its own
+     */
+    private static final class Partition {
+        /** the sessions in this slice by id, only touched while holding this partition's lock */
+        private final HashMap<Long, Session> sessions = new HashMap<>();
+    }
+
+    /**
+     * one selector thread and the connections it looks after
+     */
+    private final class EventLoop {
+        /** waits for the connections to have something to read or room to write */
+        private final Selector selector;
+        /** connections the acceptor handed over that haven't been registered yet */
+        private final ConcurrentLinkedQueue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+
+        /**
+         * creates an event loop and starts its thread
+         *
+         * @param number which loop this is, for the thread name
+         * @throws IOException if the selector can't be opened
+         */
+        EventLoop(int number) throws IOException {
+            selector = Selector.open();
+            Thread thread = new Thread(this::run, "game-server-loop-" + number);
+            thread.start();
+        }
+
+        /**
+         * hands this loop a new connection
+         *
+         * @param channel the connection
+         */
+        void add(SocketChannel channel) {
+            incoming.offer(channel);
+            selector.wakeup();
+        }
+
+        /** the loop: register new connections, then serve whichever are ready */
+        private void run() {
+            while (!closed) {
+                try {
+                    selector.select(this::handle);
+                } catch (IOException e) {
+                    break;
+                }
+                SocketChannel channel;
+                while ((channel = incoming.poll()) != null) {
+                    try {
+                        channel.configureBlocking(false);
+                        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                    } catch (IOException e) {
+                        closeQuietly(channel);
+                    }
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+
+        /**
+         * serves one ready connection
+         *
+         * @param key the connection's key
+         */
+        private void handle(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable()) connection.read(key);
+                if (key.isValid() && key.isWritable()) connection.flush(key);
+            } catch (IOException e) {
+                key.cancel();
+                closeQuietly(key.channel());
+            }
+        }
+    }
+
+    /**
+     * one client connection: bytes in, request lines, reply lines, bytes out
+     */
+    private final class Connection {
+        /** the client's socket */
+        private final SocketChannel channel;
+        /** bytes read from the client */
+        private final ByteBuffer in = ByteBuffer.allocate(16 * 1024);
+        /** reply bytes waiting to be sent, in write mode */
+        private ByteBuffer out = ByteBuffer.allocate(16 * 1024);
+        /** the request line read so far */
+        private final StringBuilder line = new StringBuilder();
+        /** the replies to the requests read in one go */
+        private final StringBuilder replies = new StringBuilder();
+        /** scratch space for one reply */
+        private final StringBuilder reply = new StringBuilder();
+        /** true while skipping the rest of a line that was too long */
+        private boolean skipping = false;
+
+        /**
+         * creates a connection
+         *
+         * @param channel the client's socket
+         */
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * reads what the client sent, answers every whole line in it and
+         * sends the answers
+         *
+         * @param key the connection's key
+         * @throws IOException if the socket fails
+         */
+        void read(SelectionKey key) throws IOException {
+            int count = channel.read(in);
+            if (count < 0) {
+                key.cancel();
+                channel.close();
+                return;
+            }
+            in.flip();
+            while (in.hasRemaining()) {
+                char c = (char) (in.get() & 0xFF);
+                if (c == '\n') {
+                    if (skipping) {
+                        replies.append("ERR line too long\n");
+                        skipping = false;
+                    } else {
+                        reply.setLength(0);
+                        execute(line.toString(), reply);
+                        replies.append(reply).append('\n');
+                    }
+                    line.setLength(0);
+                } else if (c != '\r' && !skipping) {
+                    if (line.length() >= MAX_LINE_LENGTH) {
+                        skipping = true;
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+            in.clear();
+            queue(replies);
+            replies.setLength(0);
+            flush(key);
+        }
+
+        /**
+         * adds replies to the bytes waiting to be sent
+         *
+         * @param text the replies, all ascii
+         */
+        private void queue(CharSequence text) {
+            int length = text.length();
+            if (out.remaining() < length) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + length));
+                out.flip();
+                bigger.put(out);
+                out = bigger;
+            }
+            for (int i = 0; i < length; i++) {
+                out.put((byte) text.charAt(i));
+            }
+        }
+
+        /**
+         * sends as many waiting bytes as the socket takes, then only asks to
+         * write again if some are left, and stops reading while too many are
+         *
+         * @param key the connection's key
+         * @throws IOException if the socket fails
+         */
+        void flush(SelectionKey key) throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+            int pending = out.position();
+            if (pending == 0) {
+                key.interestOps(SelectionKey.OP_READ);
+            } else if (pending >= MAX_PENDING_BYTES) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    /**
+     * closes something without caring if it fails
+     *
+     * @param closeable the thing to close
+     */
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // nothing more to do with it
+        }
+    }
+
+    /**
+     * runs a server until the process is killed
+     *
+     * @param args optional port, event loop count, and seconds before idle games are squeezed
+     * @throws IOException if the socket can't be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int loops = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long evictAfterMillis = args.length > 2 ? Long.parseLong(args[2]) * 1000 : DEFAULT_EVICT_AFTER_MILLIS;
+        GameMetrics.registerMBean();
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), loops,
+                evictAfterMillis, Math.max(evictAfterMillis, DEFAULT_EXPIRE_AFTER_MILLIS));
+        System.out.println("minesweeper server on port " + server.getPort() + " with " + loops + " event loops");
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * this class is a saved moment of a game that the game can be put back to.
+ * it's cheap to take, since it shares the board's squares with every other
+ * state of the same game through a CellTrie and only the squares changed
+ * since the last one get copied. keeping a state per move costs memory for
+ * what each move changed, not for the whole board, so undo and redo can go
+ * back as far as the game does, and anything that wants to try a move, look
+ * at it and put the game back can do it without copying the board
+ *
+ * states only go back into the game they came from, and not after it's been restarted
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+/**
+ * an immutable snapshot of a game's board and counters, taken with MinesweeperGame.snapshot
+ */
+public final class GameState {
+    /**
+     * one move on the way to a state. each state keeps the newest one, and
+     * states share the moves they have in common
+     */
+    static final class Move {
+        /** MoveLog.REVEAL, FLAG or CHORD */
+        final int operation;
+        /** the square the move was made on */
+        final int cellIndex;
+        /** how many milliseconds after the move before it this one was made */
+        final long deltaMillis;
+        /** the move before this one, or null for the first */
+        final Move previous;
+
+        /**
+         * creates a move
+         *
+         * @param operation   MoveLog.REVEAL, FLAG or CHORD
+         * @param cellIndex   the square the move was made on
+         * @param deltaMillis how long after the move before it
+         * @param previous    the move before it, or null
+         */
+        Move(int operation, int cellIndex, long deltaMillis, Move previous) {
+            this.operation = operation;
+            this.cellIndex = cellIndex;
+            this.deltaMillis = deltaMillis;
+            this.previous = previous;
+        }
+    }
+
+    /** the game this came from */
+    final MinesweeperGame game;
+    /** which restart of the game this came from */
+    final int generation;
+    /** the board's squares */
+    final CellTrie cells;
+    /** whether the game was still going, won or lost */
+    final GameStatus status;
+    /** how many flags were down */
+    final int flaggedTiles;
+    /** how many safe squares were open */
+    final int revealedSafeTiles;
+    /** how many moves had been made */
+    final long moveCount;
+    /** whether the mines had been placed */
+    final boolean minesPlaced;
+    /** the newest move before this state, or null if there wasn't one */
+    final Move lastMove;
+    /** how long the game had been going, or -1 before the first reveal */
+    final long elapsedNanos;
+
+    /**
+     * saves a moment of a game
+     *
+     * @param game              the game
+     * @param generation        which restart of it this is
+     * @param cells             its squares
+     * @param status            whether it was still going, won or lost
+     * @param flaggedTiles      how many flags were down
+     * @param revealedSafeTiles how many safe squares were open
+     * @param moveCount         how many moves had been made
+     * @param minesPlaced       whether the mines had been placed
+     * @param lastMove          the newest move, or null
+     * @param elapsedNanos      how long the game had been going, or -1 before the first reveal
+     */
+    GameState(MinesweeperGame game, int generation, CellTrie cells, GameStatus status, int flaggedTiles,
+              int revealedSafeTiles, long moveCount, boolean minesPlaced, Move lastMove, long elapsedNanos) {
+        this.game = game;
+        this.generation = generation;
+        this.cells = cells;
+        this.status = status;
+        this.flaggedTiles = flaggedTiles;
+        this.revealedSafeTiles = revealedSafeTiles;
+        this.moveCount = moveCount;
+        this.minesPlaced = minesPlaced;
+        this.lastMove = lastMove;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * gets whether the game was still going, won or lost
+     *
+     * @return the status
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * gets how many moves had been made
+     *
+     * @return the move count
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * gets how long the game had been going
+     *
+     * @return the time in nanoseconds, 0 before the first reveal
+     */
+    public long getElapsedNanos() {
+        return Math.max(elapsedNanos, 0);
+    }
+
+    /**
+     * gets how many flags were down
+     *
+     * @return the flag count
+     */
+    public int getFlaggedTiles() {
+        return flaggedTiles;
+    }
+
+    /**
+     * gets how many safe squares were open
+     *
+     * @return the count
+     */
+    public int getRevealedSafeTiles() {
+        return revealedSafeTiles;
+    }
+
+    /**
+     * gets what the move that led here was
+     *
+     * @return MoveLog.REVEAL, FLAG or CHORD, or -1 if there were no moves yet
+     */
+    public int getLastOperation() {
+        return lastMove == null ? -1 : lastMove.operation;
+    }
+
+    /**
+     * gets which square the move that led here was made on
+     *
+     * @return the square's index, or -1 if there were no moves yet
+     */
+    public int getLastMoveCell() {
+        return lastMove == null ? -1 : lastMove.cellIndex;
+    }
+
+    /**
+     * reads a square as it was, without putting the game back
+     *
+     * @param cellIndex the square's index
+     * @return true if it was open
+     */
+    public boolean isRevealed(int cellIndex) {
+        return (cells.get(cellIndex) & Board.REVEALED) != 0;
+    }
+
+    /**
+     * reads a square as it was, without putting the game back
+     *
+     * @param cellIndex the square's index
+     * @return true if it had a flag
+     */
+    public boolean isFlagged(int cellIndex) {
+        return (cells.get(cellIndex) & Board.FLAGGED) != 0;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * this enum lists the states a minesweeper game can be in
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+/**
+ * whether a game is still going, was won, or was lost
+ */
+public enum GameStatus {
+    /** the player can still reveal and flag tiles */
+    PLAYING,
+    /** every safe tile has been revealed */
+    WON,
+    /** the player revealed a mine */
+    LOST
+}
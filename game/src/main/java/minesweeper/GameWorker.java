@@ -0,0 +1,129 @@
+/**
+ * this class runs a window's game logic on its own thread so the window
+ * never freezes, however big a cascade is or however long the solver or a
+ * no-guess board takes. the window hands it jobs in the order the player
+ * clicked and it runs them one at a time in that order, so clicks made while
+ * it's busy just wait their turn
+ *
+ * whatever a job wants to show goes back the other way as an update, and
+ * updates are run on the swing thread in batches: everything that piles up
+ * while the swing thread is painting or handling a batch goes over together
+ * in the next one. a burst of moves costs the window one repaint instead of
+ * one per move, and there's never more than one batch waiting in swing's queue
+ *
+ * the game and anything else the jobs use belong to the worker thread once
+ * it starts, and updates should only carry things that don't change after
+ * they're handed over, like a ChangeSet or a copied array
+ *
+ * a job that throws may have left the game part way through a move that the
+ * window never heard about, so the window gets told and can reload the whole
+ * board instead of carrying on out of step. jobs queued while the window is
+ * closing are dropped quietly
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * a single thread for a window's game jobs, with coalesced updates back to the swing thread
+ */
+final class GameWorker {
+    /** runs the jobs one at a time in the order they came */
+    private final ExecutorService executor;
+    /** runs on the worker after a job throws, to get the window back in step */
+    private final Consumer<RuntimeException> onFailure;
+    /** guards pending and batchQueued */
+    private final Object lock = new Object();
+    /** updates waiting for the next batch */
+    private List<Runnable> pending = new ArrayList<>();
+    /** whether a batch is already waiting in swing's queue */
+    private boolean batchQueued = false;
+
+    /**
+     * starts a worker thread
+     *
+     * @param name      the thread's name
+     * @param onFailure runs on the worker with the exception whenever a job throws
+     */
+    GameWorker(String name, Consumer<RuntimeException> onFailure) {
+        this.onFailure = onFailure;
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * queues a job to run on the worker after every job queued before it
+     *
+     * @param job the job
+     */
+    void submit(Runnable job) {
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            // the window closed while this was on its way, so there's nobody left to run it for
+        }
+    }
+
+    /**
+     * runs a job on the worker. a bug in one job shouldn't stop the clicks
+     * after it from going through, so its exception goes to onFailure instead
+     *
+     * @param job the job
+     */
+    private void run(Runnable job) {
+        try {
+            job.run();
+        } catch (RuntimeException e) {
+            try {
+                onFailure.accept(e);
+            } catch (RuntimeException again) {
+                System.err.println("couldn't recover from a failed job: " + again);
+            }
+        }
+    }
+
+    /**
+     * queues an update to run on the swing thread in the next batch, after
+     * every update queued before it. can be called from any thread
+     *
+     * @param update the update
+     */
+    void show(Runnable update) {
+        synchronized (lock) {
+            pending.add(update);
+            if (batchQueued) return;
+            batchQueued = true;
+        }
+        SwingUtilities.invokeLater(this::runBatch);
+    }
+
+    /** runs every update that's waiting, on the swing thread */
+    private void runBatch() {
+        List<Runnable> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            batchQueued = false;
+        }
+        for (Runnable update : batch) {
+            update.run();
+        }
+    }
+
+    /** drops any jobs that haven't started and lets the thread end after the one that's running */
+    void close() {
+        executor.shutdownNow();
+    }
+}
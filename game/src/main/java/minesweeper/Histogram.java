@@ -0,0 +1,139 @@
+/**
+ * this class counts how often values land in buckets that grow with the
+ * value, like HdrHistogram does: every power of two gets the same number of
+ * buckets, so small and huge values are both kept to within about 6 percent
+ * in a fixed, small array. recording is one atomic add on a bucket and a
+ * couple on the totals, with no locks and no allocation, so many threads can
+ * record into the same histogram
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * a lock-free log-linear histogram of non-negative longs
+ */
+public final class Histogram {
+    /** how many bits of each value after its top bit pick the bucket */
+    private static final int SUB_BUCKET_BITS = 4;
+    /** how many buckets each power of two is split into */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** enough buckets for every positive long */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** how many values landed in each bucket */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    /** how many values were recorded */
+    private final LongAdder totalCount = new LongAdder();
+    /** all the values added up, for the mean */
+    private final LongAdder totalSum = new LongAdder();
+    /** the biggest value recorded */
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+    /**
+     * counts one value
+     *
+     * @param value the value, with anything negative counted as 0
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(value));
+        totalCount.increment();
+        totalSum.add(value);
+        maxValue.accumulate(value);
+    }
+
+    /**
+     * works out which bucket a value goes in. values below two powers of
+     * sub-buckets get a bucket each, and after that each power of two is
+     * split evenly by the bits just under its top bit
+     *
+     * @param value the value, not negative
+     * @return the bucket
+     */
+    static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * works out the biggest value that lands in a bucket
+     *
+     * @param bucket the bucket
+     * @return its top value
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * gets how many values were recorded
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * gets the biggest value recorded
+     *
+     * @return the biggest value, or 0 if there's none
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * gets the average of the values recorded
+     *
+     * @return the mean, or 0 if there's none
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * gets a value that the given share of the recorded values are at or under,
+     * to within the bucket size. values recorded while this runs may or may not count
+     *
+     * @param percentile from 0 to 100
+     * @return the value, or 0 if there's none
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            count += snapshot[bucket];
+        }
+        if (count == 0) return 0;
+        long wanted = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= wanted) return Math.min(highestValueIn(bucket), getMax());
+        }
+        return getMax();
+    }
+
+    /** forgets every value recorded so far */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts.set(bucket, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        maxValue.reset();
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * this class puts load on a GameServer to see how many games and moves it
+ * can keep up with. it opens a number of connections, starts its share of
+ * the games on each one, then keeps every connection busy with batches of
+ * random reveals and flags, pipelined so a batch goes out before any of its
+ * replies come back. games that end get restarted. at the end it prints how
+ * many moves per second went through and how long batches took
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * a pipelined load generator for the game server
+ */
+public final class LoadGenerator {
+    /** the board every game is played on */
+    private static final String BOARD = "hard";
+    /** its columns, matching BOARD */
+    private static final int BOARD_COLUMNS = 30;
+    /** its rows, matching BOARD */
+    private static final int BOARD_ROWS = 16;
+    /** how many NEW requests go out at once while the games are being started */
+    private static final int START_BATCH = 256;
+    /** one in this many moves is a flag, the rest are reveals */
+    private static final int FLAG_EVERY = 8;
+    /** how much of a reply line gets kept, only its start is ever looked at */
+    private static final int KEEP_REPLY_CHARS = 64;
+
+    /** how many moves were answered across every connection */
+    private static final LongAdder moves = new LongAdder();
+    /** how many games ended and were restarted */
+    private static final LongAdder restarts = new LongAdder();
+    /** how long each batch took from sending it to reading its last reply, in nanoseconds */
+    private static final Histogram batchNanos = new Histogram();
+
+    /** nothing to make, everything here is static */
+    private LoadGenerator() {
+    }
+
+    /**
+     * one connection and the games it plays
+     */
+    private static final class Client implements Runnable {
+        /** the socket to the server */
+        private final Socket socket;
+        /** requests go out through here */
+        private final OutputStream out;
+        /** replies come in through here */
+        private final InputStream in;
+        /** the ids of this connection's games */
+        private final long[] ids;
+        /** which games have ended and need restarting */
+        private final boolean[] ended;
+        /** how many requests to send before reading replies */
+        private final int pipeline;
+        /** when to stop, from System.nanoTime, set once the games have started */
+        private long deadline;
+        /** picks games and squares */
+        private final SplittableRandom random;
+        /** the requests being built */
+        private final StringBuilder requests = new StringBuilder();
+        /** which game each request in the batch was for */
+        private final int[] batchGames;
+        /** bytes read from the server */
+        private final byte[] buffer = new byte[64 * 1024];
+        /** where the next unread byte is in the buffer */
+        private int position = 0;
+        /** how many bytes in the buffer are filled */
+        private int limit = 0;
+        /** the reply line being read */
+        private final StringBuilder line = new StringBuilder();
+
+        /**
+         * connects to the server
+         *
+         * @param host     where the server is
+         * @param port     its port
+         * @param games    how many games this connection plays
+         * @param pipeline how many requests to send before reading replies
+         * @param seed     seeds the random moves
+         * @throws IOException if the server can't be reached
+         */
+        Client(String host, int port, int games, int pipeline, long seed) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = socket.getInputStream();
+            ids = new long[games];
+            ended = new boolean[games];
+            this.pipeline = pipeline;
+            this.random = new SplittableRandom(seed);
+            this.batchGames = new int[Math.max(pipeline, START_BATCH)];
+        }
+
+        /**
+         * starts this connection's games, START_BATCH at a time
+         *
+         * @throws IOException if the server goes away
+         */
+        void startGames() throws IOException {
+            for (int first = 0; first < ids.length; first += START_BATCH) {
+                int count = Math.min(START_BATCH, ids.length - first);
+                requests.setLength(0);
+                for (int i = 0; i < count; i++) {
+                    requests.append("NEW ").append(BOARD).append('\n');
+                }
+                send();
+                for (int i = 0; i < count; i++) {
+                    String reply = readLine();
+                    if (!reply.startsWith("OK ")) throw new IOException("server said " + reply);
+                    int end = reply.indexOf(' ', 3);
+                    ids[first + i] = Long.parseLong(reply.substring(3, end));
+                }
+            }
+        }
+
+        /** plays random moves in pipelined batches until the deadline */
+        public void run() {
+            try {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    requests.setLength(0);
+                    for (int i = 0; i < pipeline; i++) {
+                        int game = random.nextInt(ids.length);
+                        batchGames[i] = game;
+                        if (ended[game]) {
+                            requests.append("RESTART ").append(ids[game]).append('\n');
+                            ended[game] = false;
+                            batchGames[i] = -1;
+                        } else {
+                            requests.append(random.nextInt(FLAG_EVERY) == 0 ? "FLAG " : "REVEAL ").append(ids[game])
+                                    .append(' ').append(random.nextInt(BOARD_ROWS))
+                                    .append(' ').append(random.nextInt(BOARD_COLUMNS)).append('\n');
+                        }
+                    }
+                    send();
+                    int answered = 0;
+                    for (int i = 0; i < pipeline; i++) {
+                        String reply = readLine();
+                        if (!reply.startsWith("OK ")) throw new IOException("server said " + reply);
+                        if (batchGames[i] < 0) {
+                            restarts.increment();
+                        } else {
+                            answered++;
+                            if (!reply.startsWith("OK PLAYING")) ended[batchGames[i]] = true;
+                        }
+                    }
+                    moves.add(answered);
+                    batchNanos.record(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                System.err.println("connection failed: " + e.getMessage());
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // done with it anyway
+                }
+            }
+        }
+
+        /**
+         * sends the requests that were built
+         *
+         * @throws IOException if the server goes away
+         */
+        private void send() throws IOException {
+            out.write(requests.toString().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        /**
+         * reads one reply line, keeping only its start
+         *
+         * @return up to KEEP_REPLY_CHARS of the line, without its line break
+         * @throws IOException if the server goes away
+         */
+        private String readLine() throws IOException {
+            line.setLength(0);
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit < 0) throw new IOException("server closed the connection");
+                }
+                byte b = buffer[position++];
+                if (b == '\n') return line.toString();
+                if (line.length() < KEEP_REPLY_CHARS) line.append((char) b);
+            }
+        }
+    }
+
+    /**
+     * runs the load
+     *
+     * @param args host, port, connections, games, seconds and pipeline depth, all optional
+     * @throws Exception if the server can't be reached or a connection thread is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 50_000;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int pipeline = args.length > 5 ? Integer.parseInt(args[5]) : 64;
+
+        long startingAt = System.nanoTime();
+        Client[] clients = new Client[connections];
+        for (int i = 0; i < connections; i++) {
+            int share = games / connections + (i < games % connections ? 1 : 0);
+            clients[i] = new Client(host, port, share, pipeline, i);
+        }
+        for (Client client : clients) {
+            client.startGames();
+        }
+        System.out.printf("started %d games on %d connections in %.2f s%n",
+                games, connections, (System.nanoTime() - startingAt) / 1e9);
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] threads = new Thread[connections];
+        for (int i = 0; i < connections; i++) {
+            clients[i].deadline = deadline;
+            threads[i] = new Thread(clients[i], "load-" + i);
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d moves and %d restarts in %.2f s: %.0f moves/s%n",
+                moves.sum(), restarts.sum(), elapsed, moves.sum() / elapsed);
+        System.out.printf("batches of %d: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", pipeline,
+                batchNanos.getValueAtPercentile(50) / 1e6, batchNanos.getValueAtPercentile(99) / 1e6,
+                batchNanos.getMax() / 1e6);
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * this class works out nearby mine counts 64 squares at a time. mines come
+ * in as rows of bits in a long, one bit per square, and the eight neighbor
+ * rows are shifted into line and added up with the bits of the count kept in
+ * four longs: bit i of the first long is the low bit of square i's count, and
+ * so on up. adding eight one bit numbers that way takes about thirty and, or
+ * and xor operations for the whole row, instead of eight reads per square
+ *
+ * the counts then go into the board's bytes eight squares per write, by
+ * spreading each byte of those four longs out to one bit per square byte
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * bit-parallel mine counting for up to 64 squares of a row at once
+ */
+final class MineCounts {
+    /** how many squares one row of bits holds */
+    static final int RUN = Long.SIZE;
+    /** SPREAD[b] has a 1 at the bottom of byte i for every bit i set in b */
+    private static final long[] SPREAD = new long[256];
+    /** reads and writes eight square bytes as one long */
+    private static final VarHandle EIGHT_CELLS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    static {
+        for (int bits = 0; bits < 256; bits++) {
+            long spread = 0;
+            for (int i = 0; i < 8; i++) {
+                if ((bits & (1 << i)) != 0) spread |= 1L << (i * 8);
+            }
+            SPREAD[bits] = spread;
+        }
+    }
+
+    /** there's nothing to make, it's just the counting */
+    private MineCounts() {
+    }
+
+    /**
+     * reads 64 bits of a bitset starting anywhere, not just on a word
+     *
+     * @param bits the bitset, bit (i & 63) of word i / 64 for bit i
+     * @param from the first bit to read
+     * @return bit from in bit 0 and up from there, with 0s past the end of the bitset
+     */
+    static long bitsAt(long[] bits, int from) {
+        int word = from >>> 6;
+        int shift = from & 63;
+        if (word >= bits.length) return 0;
+        long value = bits[word] >>> shift;
+        if (shift != 0 && word + 1 < bits.length) {
+            value |= bits[word + 1] << (RUN - shift);
+        }
+        return value;
+    }
+
+    /**
+     * reads one bit of a bitset
+     *
+     * @param bits the bitset
+     * @param at   which bit
+     * @return 1 if it's set, 0 if not
+     */
+    static long bitAt(long[] bits, int at) {
+        return bits[at >>> 6] >>> at & 1;
+    }
+
+    /**
+     * lines a row up with the squares to its right, so bit i holds the square left of square i
+     *
+     * @param row     the row's mines, bit i for square i
+     * @param outside 1 if there's a mine just left of square 0
+     * @return the row moved one square along
+     */
+    static long shiftedRight(long row, long outside) {
+        return row << 1 | outside;
+    }
+
+    /**
+     * lines a row up with the squares to its left, so bit i holds the square right of square i
+     *
+     * @param row     the row's mines, bit i for square i
+     * @param outside 1 if there's a mine just right of square 63
+     * @return the row moved one square along
+     */
+    static long shiftedLeft(long row, long outside) {
+        return row >>> 1 | outside << 63;
+    }
+
+    /**
+     * adds up eight neighbor rows, already lined up so bit i of each is one of
+     * square i's neighbors. each step is a full adder on 64 squares at once:
+     * the xor of three bits is their sum's low bit and the majority is the carry
+     *
+     * @param upLeft    the neighbors up and to the left
+     * @param up        the neighbors straight up
+     * @param upRight   the neighbors up and to the right
+     * @param left      the neighbors to the left
+     * @param right     the neighbors to the right
+     * @param downLeft  the neighbors down and to the left
+     * @param down      the neighbors straight down
+     * @param downRight the neighbors down and to the right
+     * @param sums      filled with the counts' bits, lowest first, needs room for 4
+     */
+    static void add(long upLeft, long up, long upRight, long left, long right,
+                    long downLeft, long down, long downRight, long[] sums) {
+        // ones: three adders take the eight inputs down to one bit, with four carries worth two
+        long ones1 = upLeft ^ up ^ upRight;
+        long twos1 = (upLeft & up) | (upRight & (upLeft ^ up));
+        long ones2 = left ^ right ^ downLeft;
+        long twos2 = (left & right) | (downLeft & (left ^ right));
+        long ones3 = ones1 ^ ones2 ^ down;
+        long twos3 = (ones1 & ones2) | (down & (ones1 ^ ones2));
+        long twos4 = ones3 & downRight;
+        // twos: the four carries go down to one bit, with two carries worth four
+        long twos5 = twos1 ^ twos2 ^ twos3;
+        long fours1 = (twos1 & twos2) | (twos3 & (twos1 ^ twos2));
+        long fours2 = twos5 & twos4;
+        sums[0] = ones3 ^ downRight;
+        sums[1] = twos5 ^ twos4;
+        sums[2] = fours1 ^ fours2;
+        sums[3] = fours1 & fours2;
+    }
+
+    /**
+     * adds a run of squares' mines and the counts add worked out into their
+     * bytes, a mine bit at the bottom and the count in the high nibble. the
+     * bits are or'd in, so flags and reveals already there are kept, but the
+     * squares mustn't have mines or counts yet. squares with no mine and no
+     * count are skipped eight at a time
+     *
+     * @param sums   the counts' bits from add
+     * @param mines  the squares' own mines, bit i for square i
+     * @param cells  the bytes to write into
+     * @param at     where square 0 of the run goes
+     * @param length how many squares the run has, up to 64
+     */
+    static void write(long[] sums, long mines, byte[] cells, int at, int length) {
+        long ones = sums[0];
+        long twos = sums[1];
+        long fours = sums[2];
+        long eights = sums[3];
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            long value = SPREAD[(int) (mines >>> i) & 0xFF] * Board.MINE
+                    | SPREAD[(int) (ones >>> i) & 0xFF] << Board.COUNT_SHIFT
+                    | SPREAD[(int) (twos >>> i) & 0xFF] << (Board.COUNT_SHIFT + 1)
+                    | SPREAD[(int) (fours >>> i) & 0xFF] << (Board.COUNT_SHIFT + 2)
+                    | SPREAD[(int) (eights >>> i) & 0xFF] << (Board.COUNT_SHIFT + 3);
+            if (value != 0) EIGHT_CELLS.set(cells, at + i, (long) EIGHT_CELLS.get(cells, at + i) | value);
+        }
+        for (; i < length; i++) {
+            int count = (int) (ones >>> i & 1) | (int) (twos >>> i & 1) << 1
+                    | (int) (fours >>> i & 1) << 2 | (int) (eights >>> i & 1) << 3;
+            cells[at + i] |= (byte) (count << Board.COUNT_SHIFT | (int) (mines >>> i & 1) * Board.MINE);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * this class hides mines on a board. it picks the squares with floyd's
+ * sampling trick, which is a partial fisher-yates shuffle that doesn't need
+ * the shuffled array, so it only does one random draw per mine no matter
+ * how crowded the board is. every placer has its own seeded random numbers,
+ * so the same seed always gives the same board
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * places mines in O(mines) time from an explicit seed, optionally keeping the first click safe
+ */
+public class MinePlacer {
+    /** the seed this placer's random numbers started from */
+    private long seed;
+    /** this placer's own random numbers, never shared between threads */
+    private SplittableRandom random;
+    /** scratch space for the squares that must stay free of mines, kept sorted */
+    private final int[] safeCells = new int[9];
+    /** scratch space for looking up the clicked square's neighbors */
+    private final int[] neighborBuffer = new int[8];
+
+    /**
+     * creates a placer with a fresh random seed
+     */
+    public MinePlacer() {
+        this(newSeed());
+    }
+
+    /**
+     * creates a placer that will always make the same boards for the same seed
+     *
+     * @param seed where the random numbers start from
+     */
+    public MinePlacer(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * starts this placer's random numbers over from a new seed, so one placer
+     * can be reused for game after game
+     *
+     * @param seed where the random numbers start from
+     */
+    public void reseed(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * tells whether this placer only makes boards that can be cleared without guessing
+     *
+     * @return false for a normal placer
+     */
+    public boolean isNoGuess() {
+        return false;
+    }
+
+    /**
+     * checks if the last board this placer laid out is sure to be clearable
+     * without guessing, which a no-guess placer can very rarely fail to manage
+     *
+     * @return false for a normal placer
+     */
+    public boolean isLastBoardNoGuess() {
+        return false;
+    }
+
+    /**
+     * makes up a seed for when the caller doesn't care which board they get
+     *
+     * @return a random seed
+     */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * gets the seed this placer started from, so the board can be made again later
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * hides mines anywhere on an empty board
+     *
+     * @param board      the board to put mines on, which shouldn't have any yet
+     * @param mineCount  how many mines to hide
+     * @return how many mines were actually hidden, capped at the number of squares
+     */
+    public int placeMines(Board board, int mineCount) {
+        return place(board, mineCount, 0);
+    }
+
+    /**
+     * hides mines on an empty board but keeps the clicked square and the
+     * squares around it clear, so the first click always opens something.
+     * if there are too many mines to leave that much room, only the clicked
+     * square itself is kept clear
+     *
+     * @param board       the board to put mines on, which shouldn't have any yet
+     * @param mineCount   how many mines to hide
+     * @param safeRow     the row of the first click
+     * @param safeColumn  the column of the first click
+     * @return how many mines were actually hidden, capped so the safe squares fit
+     */
+    public int placeMines(Board board, int mineCount, int safeRow, int safeColumn) {
+        int clickedCell = board.indexOf(safeRow, safeColumn);
+        int neighborCount = board.getNeighbors(clickedCell, neighborBuffer);
+
+        int safeCount;
+        if (mineCount <= board.getCellCount() - (neighborCount + 1)) {
+            System.arraycopy(neighborBuffer, 0, safeCells, 0, neighborCount);
+            safeCells[neighborCount] = clickedCell;
+            safeCount = neighborCount + 1;
+            Arrays.sort(safeCells, 0, safeCount);
+        } else {
+            safeCells[0] = clickedCell;
+            safeCount = 1;
+        }
+        return place(board, mineCount, safeCount);
+    }
+
+    /**
+     * picks squares for mines without a board, making the same draws as
+     * placeMines(board, mineCount) so the same seed gives the same squares.
+     * for code that builds its own grids, like the dataset exporter
+     *
+     * @param cellCount how many squares there are
+     * @param mineCount how many mines to pick squares for
+     * @param chosen    where the picked squares go, with room for mineCount of them
+     * @param taken     scratch bitset with room for cellCount bits, all clear. it's
+     *                  cleared again before returning
+     * @return how many squares were picked, capped at cellCount
+     */
+    public int sampleCells(int cellCount, int mineCount, int[] chosen, long[] taken) {
+        int mines = Math.max(0, Math.min(mineCount, cellCount));
+        int picked = 0;
+        for (int j = cellCount - mines; j < cellCount; j++) {
+            int cellIndex = random.nextInt(j + 1);
+            if ((taken[cellIndex >>> 6] & (1L << cellIndex)) != 0) {
+                cellIndex = j;
+            }
+            taken[cellIndex >>> 6] |= 1L << cellIndex;
+            chosen[picked++] = cellIndex;
+        }
+        for (int i = 0; i < picked; i++) {
+            taken[chosen[i] >>> 6] = 0;
+        }
+        return picked;
+    }
+
+    /**
+     * runs floyd's sampling over the squares that aren't kept safe. for each
+     * of the last mineCount positions j it draws a square from the first j + 1,
+     * and if that one already has a mine it takes square j instead, which gives
+     * every layout the same chance with exactly one draw per mine. the picks
+     * go into a bitset and the board gets them all at once, so the counts are
+     * worked out in one pass instead of eight fixes per mine
+     *
+     * @param board      the board to put mines on
+     * @param mineCount  how many mines to hide
+     * @param safeCount  how many squares at the front of safeCells must stay clear
+     * @return how many mines were hidden
+     */
+    private int place(Board board, int mineCount, int safeCount) {
+        int candidates = board.getCellCount() - safeCount;
+        int mines = Math.max(0, Math.min(mineCount, candidates));
+
+        long[] mineBits = new long[(board.getCellCount() + 63) >>> 6];
+        for (int j = candidates - mines; j < candidates; j++) {
+            int cellIndex = toCell(random.nextInt(j + 1), safeCount);
+            if ((mineBits[cellIndex >>> 6] & (1L << cellIndex)) != 0) {
+                cellIndex = toCell(j, safeCount);
+            }
+            mineBits[cellIndex >>> 6] |= 1L << cellIndex;
+        }
+        board.setMines(mineBits);
+        return mines;
+    }
+
+    /**
+     * turns a position among the non-safe squares into a real square index by
+     * stepping over the safe squares that come before it
+     *
+     * @param candidate the position among the squares mines are allowed on
+     * @param safeCount how many squares at the front of safeCells must stay clear
+     * @return the square index
+     */
+    private int toCell(int candidate, int safeCount) {
+        int cellIndex = candidate;
+        for (int i = 0; i < safeCount && safeCells[i] <= cellIndex; i++) {
+            cellIndex++;
+        }
+        return cellIndex;
+    }
+}
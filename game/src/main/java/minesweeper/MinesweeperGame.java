@@ -0,0 +1,812 @@
+/**
+ * this is the game engine class that holds the board and all the rules
+ * for revealing tiles, flagging them and deciding if you won or lost.
+ * it doesn't use any swing or awt so games can be played without a window
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+/**
+ * the minesweeper rules on their own, so a game can run headless or behind a window
+ */
+public class MinesweeperGame {
+    /** how many columns wide the board is */
+    private final int boardColumns;
+    /** how many rows tall the board is */
+    private final int boardRows;
+    /** total number of mines hidden in this game */
+    private final int totalMines;
+    /** the compact board that holds the mines, reveals, flags and nearby mine counts */
+    private final Board board;
+    /** whether the game is still going, won or lost */
+    private GameStatus status = GameStatus.PLAYING;
+    /** how many tiles the player has flagged so far */
+    private int flaggedTiles = 0;
+    /** the seed the mines were placed from */
+    private long seed;
+    /** hides the mines, kept around until the first click when that click is kept safe */
+    private final MinePlacer placer;
+    /** whether the mines wait for the first click so it can be kept safe */
+    private final boolean safeFirstClick;
+    /** whether the mines are on the board yet */
+    private boolean minesPlaced = false;
+    /** how many safe tiles have been revealed so far */
+    private int revealedSafeTiles = 0;
+    /** how many moves changed the board so far, counting reveals, chords and flags */
+    private long moveCount = 0;
+    /** the last move's operation, or -1 if the last call changed nothing */
+    private int lastOperation = -1;
+    /** the square the last move was made on */
+    private int lastMoveCell;
+    /** the game's status before the last move */
+    private GameStatus statusBeforeMove = GameStatus.PLAYING;
+    /** when the last move was made, for the time between moves, only kept while metrics are on */
+    private long lastMoveNanos;
+    /** where moves get recorded for replay, or null when nobody's recording */
+    private MoveLog moveLog;
+    /** the squares opened by the last move, reused so moves don't allocate */
+    private final CellBatch openedCells = new CellBatch();
+    /** scratch space for looking up a square's neighbors */
+    private final int[] neighborBuffer = new int[8];
+    /** whether snapshots have been taken, so moves need to be tracked for the next one */
+    private boolean snapshotting = false;
+    /** the board as of the last snapshot, or null when it has to be copied whole next time */
+    private CellTrie cellTrie;
+    /** the squares changed since cellTrie was brought up to date, repeats and all */
+    private final CellBatch changedCells = new CellBatch();
+    /** the newest move, with the ones before it hanging off it, while snapshotting */
+    private GameState.Move lastMove;
+    /** when lastMove was made, from System.nanoTime */
+    private long lastMoveAtNanos;
+    /** bumped by every restart so snapshots from before it can't be put back */
+    private int generation = 0;
+    /** whether the game's clock has started, which the first reveal does */
+    private boolean timerStarted = false;
+    /** when the clock started, from System.nanoTime */
+    private long timerStartNanos;
+    /** when the game was won or lost, from System.nanoTime */
+    private long finishedAtNanos;
+
+    /**
+     * creates a new game with a random seed and hides the mines right away
+     *
+     * @param boardColumns how many columns you want
+     * @param boardRows    how many rows you want
+     * @param totalMines   how many mines you want, capped so at least one tile is safe
+     */
+    public MinesweeperGame(int boardColumns, int boardRows, int totalMines) {
+        this(boardColumns, boardRows, totalMines, MinePlacer.newSeed(), false);
+    }
+
+    /**
+     * creates a new game whose mines come from the given seed, so the same
+     * seed and first click always give the same board
+     *
+     * @param boardColumns   how many columns you want
+     * @param boardRows      how many rows you want
+     * @param totalMines     how many mines you want, capped so at least one tile is safe
+     * @param seed           where the mine placement's random numbers start from
+     * @param safeFirstClick true to wait for the first click and keep it and its
+     *                       neighbors clear of mines
+     */
+    public MinesweeperGame(int boardColumns, int boardRows, int totalMines, long seed, boolean safeFirstClick) {
+        this(boardColumns, boardRows, totalMines, new MinePlacer(seed), safeFirstClick);
+    }
+
+    /**
+     * creates a new game whose mines come from the given placer, like a
+     * NoGuessPlacer for boards that never need a guess
+     *
+     * @param boardColumns   how many columns you want
+     * @param boardRows      how many rows you want
+     * @param totalMines     how many mines you want, capped so at least one tile is safe
+     * @param placer         hides the mines, now or on the first click, and again on every restart
+     * @param safeFirstClick true to wait for the first click and keep it and its
+     *                       neighbors clear of mines
+     */
+    public MinesweeperGame(int boardColumns, int boardRows, int totalMines, MinePlacer placer, boolean safeFirstClick) {
+        this.board = new Board(boardColumns, boardRows);
+        this.boardColumns = boardColumns;
+        this.boardRows = boardRows;
+        int maxMines = boardColumns * boardRows - 1;
+        if (totalMines > maxMines) {
+            this.totalMines = maxMines;
+        } else {
+            this.totalMines = Math.max(totalMines, 0);
+        }
+        this.seed = placer.getSeed();
+        this.placer = placer;
+        this.safeFirstClick = safeFirstClick;
+        if (!safeFirstClick) {
+            long startNanos = GameMetrics.startTimer();
+            placer.placeMines(board, this.totalMines);
+            GameMetrics.record(GameMetrics.GENERATION, startNanos);
+            minesPlaced = true;
+        }
+    }
+
+    /**
+     * creates a game on a board whose mines are already placed, like a saved
+     * layout or a test board
+     *
+     * @param board the board to play on
+     */
+    public MinesweeperGame(Board board) {
+        this(board, -1, 0, null, false, true, 0);
+    }
+
+    /**
+     * picks a saved game back up on a board that already has its mines,
+     * reveals and flags. used by snapshots, which also know the seed and how
+     * far the game got, so the restored game can carry on and restart like the original
+     *
+     * @param board          the board to play on
+     * @param totalMines     how many mines the game has, or -1 to count them from the board
+     * @param seed           the seed the mines came from
+     * @param placer         hides the mines on restart or on the first click, or null for neither
+     * @param safeFirstClick whether the first click of a restart is kept safe
+     * @param minesPlaced    false if the mines still wait for the first click
+     * @param moveCount      how many moves were made before the game was saved
+     */
+    MinesweeperGame(Board board, int totalMines, long seed, MinePlacer placer,
+                    boolean safeFirstClick, boolean minesPlaced, long moveCount) {
+        this.board = board;
+        this.seed = seed;
+        this.placer = placer;
+        this.safeFirstClick = safeFirstClick;
+        this.minesPlaced = minesPlaced;
+        this.moveCount = moveCount;
+        this.boardColumns = board.getBoardColumns();
+        this.boardRows = board.getBoardRows();
+        int mines = 0;
+        for (int cellIndex = 0; cellIndex < board.getCellCount(); cellIndex++) {
+            if (board.isMine(cellIndex)) {
+                mines++;
+                if (board.isRevealed(cellIndex)) status = GameStatus.LOST;
+            } else if (board.isRevealed(cellIndex)) {
+                revealedSafeTiles++;
+            }
+            if (board.isFlagged(cellIndex)) flaggedTiles++;
+        }
+        this.totalMines = totalMines < 0 ? mines : totalMines;
+        if (status == GameStatus.PLAYING && minesPlaced && checkWin()) status = GameStatus.WON;
+    }
+
+    /**
+     * starts a fresh game on the same board with a new seed, reusing the board
+     * and everything else instead of making a new game
+     *
+     * @param seed where the new mine placement's random numbers start from
+     * @throws IllegalStateException if this game was made from a ready board,
+     *                               since there's no way to hide new mines on it
+     */
+    public void restart(long seed) {
+        if (placer == null) {
+            throw new IllegalStateException("a game made from a ready board can't be restarted");
+        }
+        board.clear();
+        status = GameStatus.PLAYING;
+        flaggedTiles = 0;
+        revealedSafeTiles = 0;
+        moveCount = 0;
+        lastMoveNanos = 0;
+        lastOperation = -1;
+        statusBeforeMove = GameStatus.PLAYING;
+        openedCells.clear();
+        snapshotting = false;
+        cellTrie = null;
+        changedCells.clear();
+        lastMove = null;
+        generation++;
+        timerStarted = false;
+        this.seed = seed;
+        placer.reseed(seed);
+        if (moveLog != null) moveLog.reset(seed);
+        minesPlaced = false;
+        if (!safeFirstClick) {
+            long startNanos = GameMetrics.startTimer();
+            placer.placeMines(board, totalMines);
+            GameMetrics.record(GameMetrics.GENERATION, startNanos);
+            minesPlaced = true;
+        }
+    }
+
+    /**
+     * shows what's under a tile. if it's empty, it reveals neighbors too.
+     * revealing a mine loses the game and revealing the last safe tile wins it
+     *
+     * @param rowIndex    which row the tile is in
+     * @param columnIndex which column the tile is in
+     * @return every square this move opened, empty if nothing changed. the batch is
+     *         reused, so it's only good until the next move
+     */
+    public CellBatch revealTile(int rowIndex, int columnIndex) {
+        long startNanos = GameMetrics.startTimer();
+        openedCells.clear();
+        lastOperation = -1;
+        if (!isInBounds(rowIndex, columnIndex) || isGameOver()) return openedCells;
+        int cellIndex = board.indexOf(rowIndex, columnIndex);
+        if (board.isRevealed(cellIndex) || board.isFlagged(cellIndex)) return openedCells;
+
+        if (!minesPlaced) {
+            long placeNanos = GameMetrics.startTimer();
+            placer.placeMines(board, totalMines, rowIndex, columnIndex);
+            GameMetrics.record(GameMetrics.GENERATION, placeNanos);
+            minesPlaced = true;
+            cellTrie = null;
+        }
+        if (!timerStarted) {
+            timerStarted = true;
+            timerStartNanos = System.nanoTime();
+        }
+        countMove(MoveLog.REVEAL, cellIndex);
+        board.reveal(cellIndex);
+        openedCells.add(cellIndex);
+        if (board.isMine(cellIndex)) {
+            finish(GameStatus.LOST);
+        } else {
+            cascade();
+            revealedSafeTiles += openedCells.size();
+            if (checkWin()) finish(GameStatus.WON);
+        }
+        if (snapshotting) changedCells.addAll(openedCells);
+        GameMetrics.recordMove(GameMetrics.REVEAL, startNanos, openedCells.size());
+        return openedCells;
+    }
+
+    /**
+     * chords a revealed number: if it already has as many flags around it as
+     * its number says, every other hidden neighbor opens in one move, with
+     * cascades from any empty ones. if a flag was wrong, one of the opened
+     * neighbors is a mine and the game is lost
+     *
+     * @param rowIndex    which row the number is in
+     * @param columnIndex which column the number is in
+     * @return every square this move opened, empty if the number isn't satisfied
+     *         or nothing changed. the batch is reused, so it's only good until the next move
+     */
+    public CellBatch chord(int rowIndex, int columnIndex) {
+        long startNanos = GameMetrics.startTimer();
+        openedCells.clear();
+        lastOperation = -1;
+        if (!isInBounds(rowIndex, columnIndex) || isGameOver()) return openedCells;
+        int cellIndex = board.indexOf(rowIndex, columnIndex);
+        int adjacentMines = board.getAdjacentMineCount(cellIndex);
+        if (!board.isRevealed(cellIndex) || adjacentMines == 0) return openedCells;
+
+        int neighborCount = board.getNeighbors(cellIndex, neighborBuffer);
+        int flags = 0;
+        for (int i = 0; i < neighborCount; i++) {
+            if (board.isFlagged(neighborBuffer[i])) flags++;
+        }
+        if (flags != adjacentMines) return openedCells;
+
+        boolean hitMine = false;
+        for (int i = 0; i < neighborCount; i++) {
+            int neighbor = neighborBuffer[i];
+            if (!board.isRevealed(neighbor) && !board.isFlagged(neighbor)) {
+                board.reveal(neighbor);
+                openedCells.add(neighbor);
+                if (board.isMine(neighbor)) hitMine = true;
+            }
+        }
+
+        if (openedCells.isEmpty()) return openedCells;
+        countMove(MoveLog.CHORD, cellIndex);
+
+        if (hitMine) {
+            for (int i = 0; i < openedCells.size(); i++) {
+                if (!board.isMine(openedCells.getUnchecked(i))) revealedSafeTiles++;
+            }
+            finish(GameStatus.LOST);
+        } else {
+            cascade();
+            revealedSafeTiles += openedCells.size();
+            if (checkWin()) finish(GameStatus.WON);
+        }
+        if (snapshotting) changedCells.addAll(openedCells);
+        GameMetrics.recordMove(GameMetrics.CHORD, startNanos, openedCells.size());
+        return openedCells;
+    }
+
+    /**
+     * opens the neighbors of every empty square in the opened batch. the batch
+     * doubles as the work queue, so squares it opens get looked at in turn and
+     * no recursion or extra memory is needed however big the open area is
+     */
+    private void cascade() {
+        for (int position = 0; position < openedCells.size(); position++) {
+            int cellIndex = openedCells.getUnchecked(position);
+            if (board.getAdjacentMineCount(cellIndex) != 0) continue;
+
+            int neighborCount = board.getNeighbors(cellIndex, neighborBuffer);
+            for (int i = 0; i < neighborCount; i++) {
+                int neighbor = neighborBuffer[i];
+                if (!board.isRevealed(neighbor) && !board.isFlagged(neighbor)) {
+                    board.reveal(neighbor);
+                    openedCells.add(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * puts a flag on a tile or removes it if it's already flagged
+     *
+     * @param rowIndex    which row the tile is in
+     * @param columnIndex which column the tile is in
+     * @return true if the flag changed
+     */
+    public boolean toggleFlag(int rowIndex, int columnIndex) {
+        long startNanos = GameMetrics.startTimer();
+        lastOperation = -1;
+        if (!isInBounds(rowIndex, columnIndex) || isGameOver()) return false;
+
+        int cellIndex = board.indexOf(rowIndex, columnIndex);
+        if (board.isRevealed(cellIndex)) return false;
+
+        countMove(MoveLog.FLAG, cellIndex);
+        boolean flagged = !board.isFlagged(cellIndex);
+        board.setFlagged(cellIndex, flagged);
+        if (flagged) {
+            flaggedTiles++;
+        } else {
+            flaggedTiles--;
+        }
+        if (snapshotting) changedCells.add(cellIndex);
+        GameMetrics.record(GameMetrics.FLAG, startNanos);
+        return true;
+    }
+
+    /**
+     * describes everything the last reveal, chord or flag changed, in board
+     * order, for the window and remote players to update just those squares.
+     * if the move ended the game, every mine that wasn't opened is included
+     * too, since they all show once it's over
+     *
+     * @return the changes, empty if the last call changed nothing
+     */
+    public ChangeSet getChanges() {
+        boolean ended = lastOperation >= 0 && status != statusBeforeMove;
+        int capacity = (lastOperation < 0 ? 0 : openedCells.size() + 1) + (ended ? totalMines : 0);
+        ChangeSet changes = new ChangeSet(status, ended, moveCount, capacity);
+        if (lastOperation == MoveLog.FLAG) {
+            changes.add(lastMoveCell, board.isFlagged(lastMoveCell) ? ChangeSet.FLAGGED : ChangeSet.HIDDEN);
+        } else if (lastOperation >= 0) {
+            for (int i = 0; i < openedCells.size(); i++) {
+                int cellIndex = openedCells.getUnchecked(i);
+                changes.add(cellIndex, board.isMine(cellIndex) ? ChangeSet.MINE : board.getAdjacentMineCount(cellIndex));
+            }
+        }
+        if (ended) {
+            for (int cellIndex = 0; cellIndex < board.getCellCount(); cellIndex++) {
+                if (board.isMine(cellIndex) && !board.isRevealed(cellIndex)) changes.add(cellIndex, ChangeSet.MINE_SHOWN);
+            }
+        }
+        changes.seal();
+        return changes;
+    }
+
+    /**
+     * gets what every square shows, in the values a ChangeSet uses, so a
+     * window can keep its own copy to paint from and keep it up to date with
+     * getChanges while the game runs on another thread
+     *
+     * @return one value per square: 0 to 8 or ChangeSet.MINE if it's open,
+     *         ChangeSet.MINE_SHOWN for a mine once the game's over, otherwise
+     *         ChangeSet.FLAGGED or ChangeSet.HIDDEN
+     */
+    public byte[] getFaces() {
+        byte[] faces = new byte[board.getCellCount()];
+        boolean over = isGameOver();
+        for (int cellIndex = 0; cellIndex < faces.length; cellIndex++) {
+            int face;
+            if (board.isRevealed(cellIndex)) {
+                face = board.isMine(cellIndex) ? ChangeSet.MINE : board.getAdjacentMineCount(cellIndex);
+            } else if (over && board.isMine(cellIndex)) {
+                face = ChangeSet.MINE_SHOWN;
+            } else if (board.isFlagged(cellIndex)) {
+                face = ChangeSet.FLAGGED;
+            } else {
+                face = ChangeSet.HIDDEN;
+            }
+            faces[cellIndex] = (byte) face;
+        }
+        return faces;
+    }
+
+    /**
+     * saves this moment of the game so it can be put back later with restore.
+     * the first snapshot copies the board, and after that each one only copies
+     * the squares changed since the one before, sharing the rest
+     *
+     * @return the saved state
+     */
+    public GameState snapshot() {
+        if (!snapshotting) {
+            snapshotting = true;
+            lastMove = movesSoFar();
+            lastMoveAtNanos = System.nanoTime();
+        }
+        syncCellTrie();
+        return new GameState(this, generation, cellTrie, status, flaggedTiles, revealedSafeTiles,
+                moveCount, minesPlaced, lastMove, timerStarted ? getElapsedNanos() : -1);
+    }
+
+    /**
+     * puts the game back the way it was when a snapshot was taken, whether
+     * that's before or after where it is now or off on another branch. only
+     * the squares that differ get written, and the move log, if there is one,
+     * is made to hold the moves that led to the snapshot. the clock doesn't go
+     * back: a game put back to before it ended carries on counting from when it
+     * started, and only a snapshot from before the first reveal stops it
+     *
+     * @param state a snapshot of this game
+     * @throws IllegalArgumentException if the snapshot is from another game or from before a restart
+     */
+    public void restore(GameState state) {
+        if (state.game != this || state.generation != generation) {
+            throw new IllegalArgumentException("that snapshot is from another game or from before a restart");
+        }
+        syncCellTrie();
+        state.cells.writeOver(cellTrie, board);
+        cellTrie = state.cells;
+        status = state.status;
+        flaggedTiles = state.flaggedTiles;
+        revealedSafeTiles = state.revealedSafeTiles;
+        moveCount = state.moveCount;
+        lastMove = state.lastMove;
+        lastMoveAtNanos = System.nanoTime();
+        lastMoveNanos = 0;
+        lastOperation = -1;
+        statusBeforeMove = status;
+        openedCells.clear();
+        if (minesPlaced && !state.minesPlaced) placer.reseed(seed);
+        minesPlaced = state.minesPlaced;
+        if (state.elapsedNanos < 0) {
+            timerStarted = false;
+        } else if (!timerStarted) {
+            timerStarted = true;
+            timerStartNanos = System.nanoTime() - state.elapsedNanos;
+        }
+        if (status != GameStatus.PLAYING) finishedAtNanos = timerStartNanos + state.elapsedNanos;
+        if (moveLog != null) {
+            moveLog.reset(seed);
+            int count = 0;
+            for (GameState.Move move = lastMove; move != null; move = move.previous) {
+                count++;
+            }
+            GameState.Move[] moves = new GameState.Move[count];
+            for (GameState.Move move = lastMove; move != null; move = move.previous) {
+                moves[--count] = move;
+            }
+            for (GameState.Move move : moves) {
+                moveLog.append(move.operation, move.cellIndex, move.deltaMillis);
+            }
+        }
+    }
+
+    /** brings the persistent copy of the board up to date with the squares changed since it was made */
+    private void syncCellTrie() {
+        if (cellTrie == null) {
+            cellTrie = CellTrie.of(board);
+        } else {
+            cellTrie = cellTrie.with(changedCells, board);
+        }
+        changedCells.clear();
+    }
+
+    /**
+     * gets the moves made before snapshots started being taken, from the move
+     * log if there is one, so putting a snapshot back can rebuild the log
+     *
+     * @return the newest move, or null if there's no log or no moves
+     */
+    private GameState.Move movesSoFar() {
+        if (moveLog == null) return null;
+        GameState.Move move = null;
+        MoveLog.Reader reader = moveLog.reader();
+        while (reader.next()) {
+            move = new GameState.Move(reader.getOperation(), reader.getCellIndex(), reader.getDeltaMillis(), move);
+        }
+        return move;
+    }
+
+    /**
+     * counts a move that changed the board, records it in the move log if
+     * there is one, and tells the metrics about it when they're on
+     *
+     * @param operation MoveLog.REVEAL, FLAG or CHORD
+     * @param cellIndex the square the move was made on
+     */
+    private void countMove(int operation, int cellIndex) {
+        moveCount++;
+        lastOperation = operation;
+        lastMoveCell = cellIndex;
+        statusBeforeMove = status;
+        if (moveLog != null) moveLog.record(operation, cellIndex);
+        if (snapshotting) {
+            long now = System.nanoTime();
+            long deltaMillis = lastMove == null ? 0 : Math.max(0, (now - lastMoveAtNanos) / 1_000_000);
+            lastMove = new GameState.Move(operation, cellIndex, deltaMillis, lastMove);
+            lastMoveAtNanos = now;
+        }
+        if (GameMetrics.isEnabled()) {
+            long now = System.nanoTime();
+            if (moveCount == 1) {
+                GameMetrics.gameStarted(this);
+            } else if (lastMoveNanos != 0) {
+                GameMetrics.recordMoveGap(now - lastMoveNanos);
+            }
+            lastMoveNanos = now;
+        }
+    }
+
+    /**
+     * ends the game and counts how it went
+     *
+     * @param result GameStatus.WON or LOST
+     */
+    private void finish(GameStatus result) {
+        status = result;
+        finishedAtNanos = System.nanoTime();
+        if (GameMetrics.isEnabled()) GameMetrics.gameEnded(this, result == GameStatus.WON);
+    }
+
+    /**
+     * checks if you've revealed all the safe tiles and won the game. the
+     * counters are kept up to date as tiles open, so this doesn't look at the board
+     *
+     * @return true if you won
+     */
+    private boolean checkWin() {
+        long startNanos = GameMetrics.startTimer();
+        boolean won = getRemainingSafeTiles() == 0;
+        GameMetrics.record(GameMetrics.WIN_CHECK, startNanos);
+        return won;
+    }
+
+    /**
+     * checks if a position is actually on the board or if it's out of bounds
+     *
+     * @param rowIndex    which row we're checking
+     * @param columnIndex which column we're checking
+     * @return true if it's a valid position on the board
+     */
+    public boolean isInBounds(int rowIndex, int columnIndex) {
+        return board.isInBounds(rowIndex, columnIndex);
+    }
+
+    /**
+     * checks if a tile has a mine hidden under it
+     *
+     * @param rowIndex    which row the tile is in
+     * @param columnIndex which column the tile is in
+     * @return true if there's a mine there
+     */
+    public boolean isMine(int rowIndex, int columnIndex) {
+        return board.isMine(board.indexOf(rowIndex, columnIndex));
+    }
+
+    /**
+     * checks if a tile has been revealed yet
+     *
+     * @param rowIndex    which row the tile is in
+     * @param columnIndex which column the tile is in
+     * @return true if it's been revealed
+     */
+    public boolean isRevealed(int rowIndex, int columnIndex) {
+        return board.isRevealed(board.indexOf(rowIndex, columnIndex));
+    }
+
+    /**
+     * checks if a tile has a flag on it
+     *
+     * @param rowIndex    which row the tile is in
+     * @param columnIndex which column the tile is in
+     * @return true if it's flagged
+     */
+    public boolean isFlagged(int rowIndex, int columnIndex) {
+        return board.isFlagged(board.indexOf(rowIndex, columnIndex));
+    }
+
+    /**
+     * counts how many mines are next to a tile
+     *
+     * @param rowIndex    which row the tile is in
+     * @param columnIndex which column the tile is in
+     * @return how many neighboring tiles have mines
+     */
+    public int getAdjacentMineCount(int rowIndex, int columnIndex) {
+        return board.getAdjacentMineCount(board.indexOf(rowIndex, columnIndex));
+    }
+
+    /**
+     * gets whether the game is still going, won or lost
+     *
+     * @return the current game status
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * checks if the game has been won or lost
+     *
+     * @return true if no more moves can be made
+     */
+    public boolean isGameOver() {
+        return status != GameStatus.PLAYING;
+    }
+
+    /**
+     * gets how many columns wide the board is
+     *
+     * @return the column count
+     */
+    public int getBoardColumns() {
+        return boardColumns;
+    }
+
+    /**
+     * gets how many rows tall the board is
+     *
+     * @return the row count
+     */
+    public int getBoardRows() {
+        return boardRows;
+    }
+
+    /**
+     * gets how many mines are hidden in this game
+     *
+     * @return the mine count
+     */
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    /**
+     * gets the seed the mines were placed from, or 0 for a game made from a ready board
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * checks if the mines have been hidden yet. with a safe first click they
+     * only go down when the first tile is revealed
+     *
+     * @return true once the mines are on the board
+     */
+    public boolean areMinesPlaced() {
+        return minesPlaced;
+    }
+
+    /**
+     * gets the compact board behind this game, for code that wants to work on square indexes
+     *
+     * @return the board
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * gets how long the game's been going, from the first reveal until now or
+     * until it was won or lost, timed with System.nanoTime so it's exact to
+     * well under a millisecond and isn't thrown off by the wall clock changing
+     *
+     * @return the time in nanoseconds, 0 before the first reveal
+     */
+    public long getElapsedNanos() {
+        if (!timerStarted) return 0;
+        return (status == GameStatus.PLAYING ? System.nanoTime() : finishedAtNanos) - timerStartNanos;
+    }
+
+    /**
+     * gets how many moves have changed the board, counting reveals, chords and flags
+     *
+     * @return the move count
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * starts recording every move into a new log, which follows the game
+     * through restarts. only works before the first move, and only for games
+     * whose mines come from a seed, since otherwise the log couldn't make the same board again
+     *
+     * @return the log the moves go into
+     * @throws IllegalStateException if moves were already made or the mines didn't come from a seed
+     */
+    public MoveLog startMoveLog() {
+        if (placer == null || moveCount != 0) {
+            throw new IllegalStateException("moves can only be recorded from the start of a seeded game");
+        }
+        moveLog = new MoveLog(boardColumns, boardRows, totalMines, seed, safeFirstClick, hasNoGuessPlacer());
+        return moveLog;
+    }
+
+    /**
+     * gets the log moves are being recorded into
+     *
+     * @return the log, or null if nobody's recording
+     */
+    public MoveLog getMoveLog() {
+        return moveLog;
+    }
+
+    /**
+     * checks if this game's mines are laid out so it never needs a guess.
+     * before the mines are down that's whether they'll come from a no-guess
+     * placer, and after it's whether the placer managed it this time
+     *
+     * @return true if the board is, or is going to be, guess-free
+     */
+    public boolean isNoGuess() {
+        return hasNoGuessPlacer() && (!minesPlaced || placer.isLastBoardNoGuess());
+    }
+
+    /**
+     * checks if this game's mines come from a no-guess placer, even if it
+     * had to fall back to a normal layout for the board in play. this is
+     * what a replay needs to lay out the same board, and what a new game
+     * of the same kind should use
+     *
+     * @return true if the mines come from a no-guess placer
+     */
+    public boolean hasNoGuessPlacer() {
+        return placer != null && placer.isNoGuess();
+    }
+
+    /**
+     * checks if the first click of this game, and of every restart, is kept safe
+     *
+     * @return true if the mines wait for the first click
+     */
+    public boolean isSafeFirstClick() {
+        return safeFirstClick;
+    }
+
+    /**
+     * gets how many tiles the player has flagged
+     *
+     * @return the flag count
+     */
+    public int getFlaggedTiles() {
+        return flaggedTiles;
+    }
+
+    /**
+     * gets how many mines are left once every flag is counted as a mine
+     *
+     * @return total mines minus flags, which can go below zero if there are too many flags
+     */
+    public int getMinesLeft() {
+        return totalMines - flaggedTiles;
+    }
+
+    /**
+     * gets how many safe tiles have been revealed so far
+     *
+     * @return the revealed safe tile count
+     */
+    public int getRevealedSafeTiles() {
+        return revealedSafeTiles;
+    }
+
+    /**
+     * gets how many safe tiles still have to be revealed to win
+     *
+     * @return the number of hidden safe tiles
+     */
+    public int getRemainingSafeTiles() {
+        return board.getCellCount() - totalMines - revealedSafeTiles;
+    }
+}
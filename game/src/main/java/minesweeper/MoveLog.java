@@ -0,0 +1,356 @@
+/**
+ * this class records every move of a game so it can be played back exactly.
+ * it keeps the board size, mine count, seed and placement mode the game started from, then
+ * one small entry per reveal, flag or chord: the square and the operation
+ * packed into one varint, and the milliseconds since the last move in
+ * another. most moves fit in three or four bytes, and the log only ever
+ * grows at the end
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * a compact, append-only log of the moves in one game and the seed it started from
+ */
+public final class MoveLog {
+    /** the first four bytes of every move log file, "MSWL" */
+    public static final int MAGIC = 0x4D53574C;
+    /** the newest file format version this class writes and reads */
+    public static final byte VERSION = 2;
+    /** the operation for revealing a square */
+    public static final int REVEAL = 0;
+    /** the operation for flagging or unflagging a square */
+    public static final int FLAG = 1;
+    /** the operation for chording a number */
+    public static final int CHORD = 2;
+    /** how many low bits of an entry's first varint hold the operation */
+    private static final int OPERATION_BITS = 2;
+
+    /** how many columns wide the board is */
+    private final int boardColumns;
+    /** how many rows tall the board is */
+    private final int boardRows;
+    /** total number of mines in the game */
+    private final int totalMines;
+    /** whether the game kept its first click safe */
+    private final boolean safeFirstClick;
+    /** whether the game's mines were laid out so it never needs a guess */
+    private final boolean noGuess;
+    /** the seed the game's mines came from */
+    private long seed;
+    /** the encoded moves, only the first length bytes are used */
+    private byte[] bytes = new byte[64];
+    /** how many bytes of moves have been written */
+    private int length = 0;
+    /** how many moves are in the log */
+    private int moveCount = 0;
+    /** when the last move was recorded, from System.nanoTime */
+    private long lastMoveNanos;
+
+    /**
+     * creates an empty log for a game that's about to start
+     *
+     * @param boardColumns   how many columns wide the board is
+     * @param boardRows      how many rows tall the board is
+     * @param totalMines     how many mines the game has
+     * @param seed           the seed the mines come from
+     * @param safeFirstClick whether the first click is kept safe
+     * @param noGuess        whether the mines are laid out so the game never needs a guess
+     */
+    public MoveLog(int boardColumns, int boardRows, int totalMines, long seed, boolean safeFirstClick, boolean noGuess) {
+        this.boardColumns = boardColumns;
+        this.boardRows = boardRows;
+        this.totalMines = totalMines;
+        this.seed = seed;
+        this.safeFirstClick = safeFirstClick;
+        this.noGuess = noGuess;
+        this.lastMoveNanos = System.nanoTime();
+    }
+
+    /**
+     * throws away every move and starts over for a restarted game
+     *
+     * @param seed the seed the restarted game's mines come from
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        length = 0;
+        moveCount = 0;
+        lastMoveNanos = System.nanoTime();
+    }
+
+    /**
+     * adds a move to the end of the log, timed from the move before it
+     *
+     * @param operation REVEAL, FLAG or CHORD
+     * @param cellIndex the square the move was made on
+     */
+    public void record(int operation, int cellIndex) {
+        long now = System.nanoTime();
+        long deltaMillis = Math.max(0, (now - lastMoveNanos) / 1_000_000);
+        lastMoveNanos = now;
+        append(operation, cellIndex, deltaMillis);
+    }
+
+    /**
+     * adds a move with a given time since the last move, for building logs by hand
+     *
+     * @param operation   REVEAL, FLAG or CHORD
+     * @param cellIndex   the square the move was made on
+     * @param deltaMillis how many milliseconds after the last move it happened
+     */
+    public void append(int operation, int cellIndex, long deltaMillis) {
+        if (operation < REVEAL || operation > CHORD) {
+            throw new IllegalArgumentException("unknown move operation " + operation);
+        }
+        if (cellIndex < 0 || (long) cellIndex >= (long) boardColumns * boardRows) {
+            throw new IllegalArgumentException("square " + cellIndex + " is off the board");
+        }
+        if (bytes.length - length < 15) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        writeVarint(((long) cellIndex << OPERATION_BITS) | operation);
+        writeVarint(deltaMillis);
+        moveCount++;
+    }
+
+    /**
+     * writes a number seven bits at a time, low bits first, with the top bit
+     * of each byte saying another byte follows
+     *
+     * @param value the number to write, never negative
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * makes a new game with the same board size, mines and seed this log started from
+     *
+     * @return the game, ready for the moves to be played back on it
+     */
+    public MinesweeperGame newGame() {
+        MinePlacer placer = noGuess ? new NoGuessPlacer(seed) : new MinePlacer(seed);
+        return new MinesweeperGame(boardColumns, boardRows, totalMines, placer, safeFirstClick);
+    }
+
+    /**
+     * starts reading the moves from the beginning
+     *
+     * @return a reader positioned before the first move
+     */
+    public Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * reads moves back out of the log one at a time without allocating
+     */
+    public final class Reader {
+        /** where the next move starts in the bytes */
+        private int position = 0;
+        /** the current move's operation */
+        private int operation;
+        /** the current move's square */
+        private int cellIndex;
+        /** how many milliseconds after the move before it the current move happened */
+        private long deltaMillis;
+
+        /** creates a reader positioned before the first move */
+        private Reader() {
+        }
+
+        /**
+         * moves on to the next move
+         *
+         * @return false once every move has been read
+         */
+        public boolean next() {
+            if (position >= length) return false;
+            long packed = readVarint();
+            operation = (int) (packed & ((1 << OPERATION_BITS) - 1));
+            cellIndex = (int) (packed >>> OPERATION_BITS);
+            deltaMillis = readVarint();
+            return true;
+        }
+
+        /**
+         * reads one varint from where the reader is
+         *
+         * @return the number
+         */
+        private long readVarint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        /**
+         * gets the current move's operation
+         *
+         * @return REVEAL, FLAG or CHORD
+         */
+        public int getOperation() {
+            return operation;
+        }
+
+        /**
+         * gets the square the current move was made on
+         *
+         * @return the square's index
+         */
+        public int getCellIndex() {
+            return cellIndex;
+        }
+
+        /**
+         * gets how long after the move before it the current move happened
+         *
+         * @return the gap in milliseconds
+         */
+        public long getDeltaMillis() {
+            return deltaMillis;
+        }
+    }
+
+    /**
+     * writes the log to a file, replacing anything already there
+     *
+     * @param path where to write it
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeBoolean(safeFirstClick);
+            out.writeBoolean(noGuess);
+            out.writeInt(boardColumns);
+            out.writeInt(boardRows);
+            out.writeInt(totalMines);
+            out.writeLong(seed);
+            out.writeInt(moveCount);
+            out.writeInt(length);
+            out.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * reads a log back from a file
+     *
+     * @param path the file to read
+     * @return the log, with its moves ready to be played back
+     * @throws IOException if the file can't be read or isn't a move log
+     */
+    public static MoveLog load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) throw new IOException("not a minesweeper move log");
+            byte version = in.readByte();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported move log version " + version);
+            boolean safeFirstClick = in.readBoolean();
+            boolean noGuess = version >= 2 && in.readBoolean();
+            int boardColumns = in.readInt();
+            int boardRows = in.readInt();
+            int totalMines = in.readInt();
+            long seed = in.readLong();
+            int moveCount = in.readInt();
+            int length = in.readInt();
+            if (moveCount < 0 || length < 0) throw new IOException("bad move log lengths");
+
+            MoveLog log = new MoveLog(boardColumns, boardRows, totalMines, seed, safeFirstClick, noGuess);
+            log.bytes = new byte[length + 15];
+            in.readFully(log.bytes, 0, length);
+            log.length = length;
+            log.moveCount = moveCount;
+            return log;
+        } catch (EOFException e) {
+            throw new IOException("move log is cut short", e);
+        }
+    }
+
+    /**
+     * checks if a file starts like a move log, so callers can tell it apart from a snapshot
+     *
+     * @param path the file to check
+     * @return true if it starts with the move log magic number
+     * @throws IOException if the file can't be read
+     */
+    public static boolean isMoveLog(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * gets how many moves are in the log
+     *
+     * @return the move count
+     */
+    public int size() {
+        return moveCount;
+    }
+
+    /**
+     * gets how many bytes the moves take up, not counting the header
+     *
+     * @return the encoded size
+     */
+    public int getEncodedLength() {
+        return length;
+    }
+
+    /**
+     * gets the seed the game's mines came from
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * gets how many columns wide the board is
+     *
+     * @return the column count
+     */
+    public int getBoardColumns() {
+        return boardColumns;
+    }
+
+    /**
+     * gets how many rows tall the board is
+     *
+     * @return the row count
+     */
+    public int getBoardRows() {
+        return boardRows;
+    }
+
+    /**
+     * gets how many mines the game has
+     *
+     * @return the mine count
+     */
+    public int getTotalMines() {
+        return totalMines;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * this interface is how the simulator asks a player (a bot, a solver,
+ * whatever) which square to click next
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+/**
+ * picks moves for headless games. each simulator thread gets its own
+ * strategy, so implementations can keep state without locking
+ */
+public interface MoveStrategy {
+    /**
+     * called once before the first move of every game
+     *
+     * @param game the game that's about to be played
+     */
+    default void startGame(MinesweeperGame game) {
+    }
+
+    /**
+     * picks the next square to reveal. only called while the game is still going
+     *
+     * @param game the game being played
+     * @return the index of a hidden, unflagged square on the game's board
+     */
+    int chooseCell(MinesweeperGame game);
+
+    /**
+     * called after every reveal with the squares it opened
+     *
+     * @param game   the game being played
+     * @param opened the squares the move opened, only good until the next move
+     */
+    default void cellsRevealed(MinesweeperGame game, CellBatch opened) {
+    }
+}
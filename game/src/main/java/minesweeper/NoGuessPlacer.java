@@ -0,0 +1,379 @@
+/**
+ * this class hides mines so the board can be cleared by logic alone from the
+ * first click. it starts from a normal safe-first-click layout and plays it
+ * with the solver's sure moves. whenever the solver gets stuck it moves one
+ * of the mines along the edge of the opened area somewhere away from it and
+ * carries on from there, which fixes most boards in a handful of moves
+ * instead of throwing them away. squares opened before a move may have been
+ * worked out from numbers the move changed, so a layout that gets cleared
+ * is played once more from the first click to be sure, and if that gets
+ * stuck the repairs carry on from the honest position. a few candidate
+ * layouts are tried at once on different cores, and the lowest numbered one
+ * that works wins, so the same seed and first click always give the same board
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a mine placer that only makes boards the solver can clear without guessing from the first click
+ */
+public class NoGuessPlacer extends MinePlacer {
+    /** how many candidate layouts are tried together, the same on every machine so results don't depend on core count */
+    private static final int CANDIDATES_PER_ROUND = 4;
+    /** how many rounds of candidates to try before giving up and keeping a normal layout */
+    private static final int MAX_ROUNDS = 16;
+    /** spreads candidate seeds apart */
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    /** how many mine moves a candidate gets per mine before it's thrown away */
+    private static final int REPAIRS_PER_MINE = 2;
+
+    /** how many candidates run at the same time */
+    private final int parallelism;
+    /** false if the last layout had to fall back to a normal one */
+    private boolean lastBoardNoGuess = true;
+
+    /**
+     * creates a no-guess placer with a fresh random seed that uses every core
+     */
+    public NoGuessPlacer() {
+        this(newSeed());
+    }
+
+    /**
+     * creates a no-guess placer that uses every core
+     *
+     * @param seed where the random numbers start from
+     */
+    public NoGuessPlacer(long seed) {
+        this(seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * creates a no-guess placer
+     *
+     * @param seed        where the random numbers start from
+     * @param parallelism how many candidates to work on at once, 1 to stay on the calling thread
+     */
+    public NoGuessPlacer(long seed, int parallelism) {
+        super(seed);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = Math.min(parallelism, CANDIDATES_PER_ROUND);
+    }
+
+    /**
+     * this placer makes no-guess boards
+     *
+     * @return true
+     */
+    @Override
+    public boolean isNoGuess() {
+        return true;
+    }
+
+    /**
+     * checks if the last board was made guess-free, or had to fall back to a normal layout
+     *
+     * @return true unless the last placeMines gave up, or before anything's been laid out
+     */
+    @Override
+    public boolean isLastBoardNoGuess() {
+        return lastBoardNoGuess;
+    }
+
+    /**
+     * says whether the board this placer is standing behind was made
+     * guess-free, for a game read back from a snapshot, whose board was laid
+     * out by a different placer
+     *
+     * @param noGuess false if the saved board had fallen back to a normal layout
+     */
+    void setLastBoardNoGuess(boolean noGuess) {
+        lastBoardNoGuess = noGuess;
+    }
+
+    /**
+     * gets the square a no-guess board made without a first click opens from,
+     * the one in the middle
+     *
+     * @param board the board
+     * @return the square's index
+     */
+    public static int openingCell(Board board) {
+        return board.indexOf(board.getBoardRows() / 2, board.getBoardColumns() / 2);
+    }
+
+    /**
+     * hides mines on an empty board before anyone has clicked, so it can be
+     * cleared without guessing from the middle square. games made this way
+     * can be laid out ahead of time, and the player is shown where to start
+     *
+     * @param board      the board to put mines on, which shouldn't have any yet
+     * @param mineCount  how many mines to hide
+     * @return how many mines were actually hidden
+     */
+    @Override
+    public int placeMines(Board board, int mineCount) {
+        int openingCell = openingCell(board);
+        return placeMines(board, mineCount, board.rowOf(openingCell), board.columnOf(openingCell));
+    }
+
+    /**
+     * hides mines on an empty board so it can be cleared from the clicked
+     * square without guessing. if no candidate works out, which is very rare
+     * below expert density, a normal safe-first-click layout is used instead,
+     * and isLastBoardNoGuess says so, so the game stops calling itself no-guess
+     * instead of handing out a board that may need a guess under that name
+     *
+     * @param board       the board to put mines on, which shouldn't have any yet
+     * @param mineCount   how many mines to hide
+     * @param safeRow     the row of the first click
+     * @param safeColumn  the column of the first click
+     * @return how many mines were actually hidden
+     */
+    @Override
+    public int placeMines(Board board, int mineCount, int safeRow, int safeColumn) {
+        int openingCell = board.indexOf(safeRow, safeColumn);
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            Board found = runRound(board, mineCount, openingCell, round);
+            if (found != null) {
+                int placed = 0;
+                for (int cellIndex = 0; cellIndex < found.getCellCount(); cellIndex++) {
+                    if (found.isMine(cellIndex)) {
+                        board.setMine(cellIndex, true);
+                        placed++;
+                    }
+                }
+                lastBoardNoGuess = true;
+                return placed;
+            }
+        }
+        lastBoardNoGuess = false;
+        return new MinePlacer(getSeed()).placeMines(board, mineCount, safeRow, safeColumn);
+    }
+
+    /**
+     * tries one round of candidates, in parallel when allowed
+     *
+     * @param board       the board the mines are for, only used for its size
+     * @param mineCount   how many mines to hide
+     * @param openingCell the first click
+     * @param round       which round this is, to pick the candidate seeds
+     * @return the mines of the lowest numbered candidate that worked, or null if none did
+     */
+    private Board runRound(Board board, int mineCount, int openingCell, int round) {
+        long firstCandidate = (long) round * CANDIDATES_PER_ROUND;
+        if (parallelism == 1) {
+            for (int i = 0; i < CANDIDATES_PER_ROUND; i++) {
+                Board found = new Candidate(board, mineCount, openingCell, firstCandidate + i, null, i).solve();
+                if (found != null) return found;
+            }
+            return null;
+        }
+
+        AtomicInteger bestIndex = new AtomicInteger(Integer.MAX_VALUE);
+        List<Callable<Board>> candidates = new ArrayList<>();
+        for (int i = 0; i < CANDIDATES_PER_ROUND; i++) {
+            Candidate candidate = new Candidate(board, mineCount, openingCell, firstCandidate + i, bestIndex, i);
+            candidates.add(candidate::solve);
+        }
+        Board found = null;
+        try {
+            List<Future<Board>> results = ForkJoinPool.commonPool().invokeAll(candidates);
+            for (Future<Board> result : results) {
+                found = result.get();
+                if (found != null) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("no-guess candidate failed", e.getCause());
+        }
+        return found;
+    }
+
+    /**
+     * one candidate layout being played and repaired on its own board
+     */
+    private final class Candidate {
+        /** the candidate's own board */
+        private Board board;
+        /** the game the solver is playing on the candidate's board */
+        private MinesweeperGame game;
+        /** the first click */
+        private final int openingCell;
+        /** the lowest candidate index that's worked so far, or null when running alone */
+        private final AtomicInteger bestIndex;
+        /** this candidate's place in its round */
+        private final int index;
+        /** picks which mines to move and where */
+        private final SplittableRandom random;
+        /** the most mine moves this candidate gets */
+        private final int maxRepairs;
+        /** plays the sure moves */
+        private final Solver solver = new Solver();
+        /** 1 for hidden squares next to the opened area, rebuilt for each repair */
+        private final byte[] frontier;
+        /** scratch list of squares to pick from */
+        private final int[] picks;
+        /** scratch space for looking up neighbors */
+        private final int[] neighbors = new int[8];
+
+        /**
+         * lays out a candidate's mines
+         *
+         * @param size        a board of the right size
+         * @param mineCount   how many mines to hide
+         * @param openingCell the first click
+         * @param number      the candidate's number across all rounds
+         * @param bestIndex   the lowest candidate index that's worked so far, or null
+         * @param index       this candidate's place in its round
+         */
+        Candidate(Board size, int mineCount, int openingCell, long number, AtomicInteger bestIndex, int index) {
+            long candidateSeed = getSeed() + number * SEED_STEP;
+            this.board = new Board(size.getBoardColumns(), size.getBoardRows());
+            new MinePlacer(candidateSeed).placeMines(board, mineCount, size.rowOf(openingCell), size.columnOf(openingCell));
+            this.openingCell = openingCell;
+            this.bestIndex = bestIndex;
+            this.index = index;
+            this.random = new SplittableRandom(~candidateSeed);
+            this.maxRepairs = Math.max(16, mineCount * REPAIRS_PER_MINE);
+            this.frontier = new byte[board.getCellCount()];
+            this.picks = new int[board.getCellCount()];
+        }
+
+        /**
+         * plays sure moves, repairing the layout each time they run out
+         *
+         * @return a board with the candidate's mines once they can be cleared without
+         *         guessing, or null if it gave up or a lower candidate already won
+         */
+        Board solve() {
+            game = new MinesweeperGame(board);
+            boolean cleared = solver.clearsWithoutGuessing(game, openingCell);
+            for (int repairs = 0; ; repairs++) {
+                if (cleared) {
+                    Board fresh = copyMines(board);
+                    MinesweeperGame check = new MinesweeperGame(fresh);
+                    if (solver.clearsWithoutGuessing(check, openingCell)) {
+                        if (bestIndex != null) bestIndex.accumulateAndGet(index, Math::min);
+                        return fresh;
+                    }
+                    board = fresh;
+                    game = check;
+                }
+                if (repairs >= maxRepairs || (bestIndex != null && bestIndex.get() < index)) return null;
+                if (!repair()) return null;
+                solver.rescan(game);
+                cleared = playSureMoves();
+            }
+        }
+
+        /**
+         * reveals squares the solver is sure of until it runs out
+         *
+         * @return true if that won the game
+         */
+        private boolean playSureMoves() {
+            while (!game.isGameOver()) {
+                int safeCell = solver.findSafeCell();
+                if (safeCell < 0) break;
+                CellBatch opened = game.revealTile(board.rowOf(safeCell), board.columnOf(safeCell));
+                solver.cellsRevealed(game, opened);
+            }
+            return game.getStatus() == GameStatus.WON;
+        }
+
+        /**
+         * makes an unplayed board with the same mines
+         *
+         * @param from the board to copy the mines from
+         * @return the copy
+         */
+        private Board copyMines(Board from) {
+            Board copy = new Board(from.getBoardColumns(), from.getBoardRows());
+            for (int cellIndex = 0; cellIndex < from.getCellCount(); cellIndex++) {
+                if (from.isMine(cellIndex)) copy.setMine(cellIndex, true);
+            }
+            return copy;
+        }
+
+        /**
+         * moves one mine off the edge of the opened area. mines the solver
+         * couldn't pin down are moved first, and they go to a hidden square
+         * away from the opened area when there is one, so the numbers along
+         * the edge change and usually give the solver something to go on
+         *
+         * @return false if there was no mine to move or nowhere to put it
+         */
+        private boolean repair() {
+            int cellCount = board.getCellCount();
+            for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+                frontier[cellIndex] = 0;
+            }
+            for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+                if (!board.isRevealed(cellIndex) || board.getAdjacentMineCount(cellIndex) == 0) continue;
+                int neighborCount = board.getNeighbors(cellIndex, neighbors);
+                for (int i = 0; i < neighborCount; i++) {
+                    if (!board.isRevealed(neighbors[i])) frontier[neighbors[i]] = 1;
+                }
+            }
+
+            int source = pickSource(false);
+            if (source < 0) source = pickSource(true);
+            if (source < 0) return false;
+            int target = pickTarget(false, source);
+            if (target < 0) target = pickTarget(true, source);
+            if (target < 0) return false;
+
+            board.setMine(source, false);
+            board.setMine(target, true);
+            return true;
+        }
+
+        /**
+         * picks a random mine on the edge of the opened area
+         *
+         * @param includeKnown whether mines the solver already worked out can be picked
+         * @return the mine's square, or -1 if there's none
+         */
+        private int pickSource(boolean includeKnown) {
+            int count = 0;
+            for (int cellIndex = 0; cellIndex < frontier.length; cellIndex++) {
+                if (frontier[cellIndex] == 0 || !board.isMine(cellIndex)) continue;
+                if (!includeKnown && solver.isKnownMine(cellIndex)) continue;
+                picks[count++] = cellIndex;
+            }
+            return count == 0 ? -1 : picks[random.nextInt(count)];
+        }
+
+        /**
+         * picks a random hidden square with no mine to move a mine to
+         *
+         * @param onFrontier true to pick next to the opened area, false to pick away from it
+         * @param source     the square the mine is moving from, which can't be picked
+         * @return the square, or -1 if there's none
+         */
+        private int pickTarget(boolean onFrontier, int source) {
+            int count = 0;
+            for (int cellIndex = 0; cellIndex < frontier.length; cellIndex++) {
+                if (cellIndex == source || board.isRevealed(cellIndex) || board.isMine(cellIndex)) continue;
+                if ((frontier[cellIndex] == 1) != onFrontier) continue;
+                picks[count++] = cellIndex;
+            }
+            return count == 0 ? -1 : picks[random.nextInt(count)];
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * this is the simplest move strategy: it clicks a random hidden square
+ * every turn. it's mostly there as a baseline for the simulator
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.SplittableRandom;
+
+/**
+ * clicks random hidden squares, seeded from each game's seed so runs repeat exactly
+ */
+public class RandomStrategy implements MoveStrategy {
+    /** how many random squares to try before falling back to a scan */
+    private static final int MAX_TRIES = 32;
+    /** mixed into the game seed so the clicks don't line up with the mine placement */
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+    /** the random numbers for the current game */
+    private SplittableRandom random = new SplittableRandom();
+
+    /**
+     * restarts the random numbers from the game's seed
+     *
+     * @param game the game that's about to be played
+     */
+    @Override
+    public void startGame(MinesweeperGame game) {
+        random = new SplittableRandom(game.getSeed() ^ SEED_MIX);
+    }
+
+    /**
+     * picks a random hidden, unflagged square
+     *
+     * @param game the game being played
+     * @return the square's index
+     */
+    @Override
+    public int chooseCell(MinesweeperGame game) {
+        Board board = game.getBoard();
+        int cellCount = board.getCellCount();
+        for (int tries = 0; tries < MAX_TRIES; tries++) {
+            int cellIndex = random.nextInt(cellCount);
+            if (!board.isRevealed(cellIndex) && !board.isFlagged(cellIndex)) {
+                return cellIndex;
+            }
+        }
+
+        // mostly opened board, walk from a random spot to the next hidden square
+        int start = random.nextInt(cellCount);
+        for (int offset = 0; offset < cellCount; offset++) {
+            int cellIndex = (start + offset) % cellCount;
+            if (!board.isRevealed(cellIndex) && !board.isFlagged(cellIndex)) {
+                return cellIndex;
+            }
+        }
+        return start;
+    }
+}
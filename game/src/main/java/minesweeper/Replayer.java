@@ -0,0 +1,100 @@
+/**
+ * this class plays recorded move logs back through the game engine. headless
+ * replay goes as fast as the engine can take the moves, so archived games can
+ * be checked in bulk, and the game window uses the same apply step to play a
+ * log back on screen at whatever speed you like
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * deterministic playback of a MoveLog, without any window
+ */
+public final class Replayer {
+    /** nothing to make, everything here is static */
+    private Replayer() {
+    }
+
+    /**
+     * plays every move of a log on a fresh game made from the log's seed
+     *
+     * @param log the moves to play
+     * @return the game as it was after the last move
+     */
+    public static MinesweeperGame replay(MoveLog log) {
+        MinesweeperGame game = log.newGame();
+        replay(log, game);
+        return game;
+    }
+
+    /**
+     * plays every move of a log on a game, which should be fresh from the log's newGame
+     *
+     * @param log  the moves to play
+     * @param game the game to play them on
+     * @return how many moves changed the board
+     */
+    public static int replay(MoveLog log, MinesweeperGame game) {
+        MoveLog.Reader reader = log.reader();
+        int applied = 0;
+        while (reader.next()) {
+            if (apply(game, reader.getOperation(), reader.getCellIndex())) applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * makes one recorded move on a game
+     *
+     * @param game      the game to make it on
+     * @param operation MoveLog.REVEAL, FLAG or CHORD
+     * @param cellIndex the square it was made on
+     * @return true if the move changed the board
+     */
+    public static boolean apply(MinesweeperGame game, int operation, int cellIndex) {
+        Board board = game.getBoard();
+        int rowIndex = board.rowOf(cellIndex);
+        int columnIndex = board.columnOf(cellIndex);
+        switch (operation) {
+            case MoveLog.REVEAL:
+                return !game.revealTile(rowIndex, columnIndex).isEmpty();
+            case MoveLog.FLAG:
+                return game.toggleFlag(rowIndex, columnIndex);
+            case MoveLog.CHORD:
+                return !game.chord(rowIndex, columnIndex).isEmpty();
+            default:
+                throw new IllegalArgumentException("unknown move operation " + operation);
+        }
+    }
+
+    /**
+     * replays move log files and prints how each game ended
+     *
+     * @param args the move log files to replay
+     * @throws IOException if a file can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("usage: Replayer <move log>...");
+            return;
+        }
+        long totalMoves = 0;
+        long start = System.nanoTime();
+        for (String fileName : args) {
+            Path path = Paths.get(fileName);
+            MoveLog log = MoveLog.load(path);
+            MinesweeperGame game = replay(log);
+            totalMoves += log.size();
+            System.out.println(path + ": " + game.getStatus() + " after " + log.size() + " moves, "
+                    + game.getRemainingSafeTiles() + " safe squares left");
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("replayed %d moves in %.3f s%n", totalMoves, seconds);
+    }
+}
@@ -0,0 +1,838 @@
+/**
+ * this class keeps the best times for every board preset on disk, for timed
+ * races and leaderboards. a finished game is added to an in-memory index
+ * right away and written to disk later by a background thread, so ending a
+ * game never waits on the disk
+ *
+ * on disk there are two files. new scores are only ever appended to the
+ * log, so writing one is a single small write however many games there
+ * are. every so often the background thread folds the log into the table,
+ * which holds each preset's top scores in full and every other game's time
+ * as one sorted array, then starts a fresh log. loading reads the table and
+ * whatever's in the log since
+ *
+ * in memory each preset keeps its TOP_SCORES best games and a sorted array
+ * of every time, plus a small sorted array of recent times that gets merged
+ * in once it's grown to about the square root of the big one. where a time
+ * places among millions of games is two binary searches, and adding one
+ * costs the square root of the game count on average, never a full sort
+ *
+ * log layout, all big-endian:
+ * <pre>
+ *   int    MAGIC, byte VERSION, long log number
+ *   then per score: int columns, int rows, int mines, boolean no-guess,
+ *                   long elapsed nanoseconds, long finished at epoch millis, utf player name
+ * </pre>
+ * table layout:
+ * <pre>
+ *   int    TABLE_MAGIC, byte VERSION, long number of the last log folded in, int preset count
+ *   then per preset: int columns, int rows, int mines, boolean no-guess,
+ *                    int top count, then per top score: long nanoseconds, long millis, utf name
+ *                    int game count, then every game's nanoseconds, fastest first
+ * </pre>
+ * the log number keeps a log from being counted twice if the program stops
+ * after the table was written but before the old log was emptied
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * an append-only, background-compacted high score store with a top-K index per board preset
+ */
+public final class ScoreStore implements Closeable {
+    /** the first four bytes of the score log, "MSSL" */
+    public static final int MAGIC = 0x4D53534C;
+    /** the first four bytes of the score table, "MSST" */
+    public static final int TABLE_MAGIC = 0x4D535354;
+    /** the newest file format version this class writes and reads */
+    public static final byte VERSION = 1;
+    /** how many of the best games each preset keeps in full */
+    public static final int TOP_SCORES = 10;
+    /** how many scores the log can hold before it gets folded into the table, unless told otherwise */
+    public static final int DEFAULT_COMPACT_AFTER = 10_000;
+    /** the longest player name that gets stored */
+    public static final int MAX_NAME_LENGTH = 40;
+    /** the fewest recent times kept apart before they get merged into the sorted array */
+    private static final int MIN_RECENT = 64;
+
+    /** the store the game windows share, opened the first time anyone asks */
+    private static ScoreStore shared;
+
+    /**
+     * one finished game's result
+     */
+    public static final class Score {
+        /** how many columns wide the board was */
+        private final int boardColumns;
+        /** how many rows tall the board was */
+        private final int boardRows;
+        /** how many mines the board had */
+        private final int totalMines;
+        /** whether the board could be cleared without guessing */
+        private final boolean noGuess;
+        /** how long the game took from the first reveal to the win */
+        private final long elapsedNanos;
+        /** when the game was won, in milliseconds since 1970 */
+        private final long finishedAtMillis;
+        /** who won it */
+        private final String playerName;
+
+        /**
+         * creates a score
+         *
+         * @param boardColumns     how many columns wide the board was
+         * @param boardRows        how many rows tall the board was
+         * @param totalMines       how many mines the board had
+         * @param noGuess          whether the board could be cleared without guessing
+         * @param elapsedNanos     how long the game took
+         * @param finishedAtMillis when it was won, in milliseconds since 1970
+         * @param playerName       who won it, cut down to MAX_NAME_LENGTH
+         */
+        public Score(int boardColumns, int boardRows, int totalMines, boolean noGuess,
+                     long elapsedNanos, long finishedAtMillis, String playerName) {
+            if (elapsedNanos < 0) throw new IllegalArgumentException("a game can't take negative time");
+            this.boardColumns = boardColumns;
+            this.boardRows = boardRows;
+            this.totalMines = totalMines;
+            this.noGuess = noGuess;
+            this.elapsedNanos = elapsedNanos;
+            this.finishedAtMillis = finishedAtMillis;
+            this.playerName = playerName.length() > MAX_NAME_LENGTH ? playerName.substring(0, MAX_NAME_LENGTH) : playerName;
+        }
+
+        /**
+         * gets how many columns wide the board was
+         *
+         * @return the column count
+         */
+        public int getBoardColumns() {
+            return boardColumns;
+        }
+
+        /**
+         * gets how many rows tall the board was
+         *
+         * @return the row count
+         */
+        public int getBoardRows() {
+            return boardRows;
+        }
+
+        /**
+         * gets how many mines the board had
+         *
+         * @return the mine count
+         */
+        public int getTotalMines() {
+            return totalMines;
+        }
+
+        /**
+         * gets whether the board could be cleared without guessing
+         *
+         * @return true for a no-guess board
+         */
+        public boolean isNoGuess() {
+            return noGuess;
+        }
+
+        /**
+         * gets how long the game took from the first reveal to the win
+         *
+         * @return the time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * gets when the game was won
+         *
+         * @return milliseconds since 1970
+         */
+        public long getFinishedAtMillis() {
+            return finishedAtMillis;
+        }
+
+        /**
+         * gets who won the game
+         *
+         * @return the player's name
+         */
+        public String getPlayerName() {
+            return playerName;
+        }
+    }
+
+    /**
+     * a board preset, which is what scores are ranked within
+     */
+    private static final class Preset {
+        /** how many columns wide the board is */
+        private final int boardColumns;
+        /** how many rows tall the board is */
+        private final int boardRows;
+        /** how many mines the board has */
+        private final int totalMines;
+        /** whether the board can be cleared without guessing */
+        private final boolean noGuess;
+
+        /**
+         * creates a preset
+         *
+         * @param boardColumns how many columns wide the board is
+         * @param boardRows    how many rows tall the board is
+         * @param totalMines   how many mines the board has
+         * @param noGuess      whether the board can be cleared without guessing
+         */
+        Preset(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+            this.boardColumns = boardColumns;
+            this.boardRows = boardRows;
+            this.totalMines = totalMines;
+            this.noGuess = noGuess;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Preset)) return false;
+            Preset preset = (Preset) other;
+            return boardColumns == preset.boardColumns && boardRows == preset.boardRows
+                    && totalMines == preset.totalMines && noGuess == preset.noGuess;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((boardColumns * 31 + boardRows) * 31 + totalMines) * 2 + (noGuess ? 1 : 0);
+        }
+    }
+
+    /**
+     * one preset's best games and every game's time
+     */
+    private static final class Ranking {
+        /** the best games, fastest first */
+        final Score[] top = new Score[TOP_SCORES];
+        /** how many of top are filled */
+        int topCount = 0;
+        /** most of the times, sorted, with room to grow at the end */
+        long[] times = new long[16];
+        /** how many of times are used */
+        int timeCount = 0;
+        /** the newest times, sorted, waiting to be merged into times */
+        long[] recent = new long[MIN_RECENT];
+        /** how many of recent are used */
+        int recentCount = 0;
+
+        /**
+         * adds a game
+         *
+         * @param score the game's result
+         */
+        void add(Score score) {
+            addTop(score);
+            addTime(score.elapsedNanos);
+        }
+
+        /**
+         * puts a game into the top list if it's fast enough. a tie goes to
+         * whoever got there first
+         *
+         * @param score the game's result
+         */
+        void addTop(Score score) {
+            int position = topCount;
+            while (position > 0 && comesBefore(score, top[position - 1])) {
+                position--;
+            }
+            if (position == TOP_SCORES) return;
+            int moving = Math.min(topCount, TOP_SCORES - 1) - position;
+            System.arraycopy(top, position, top, position + 1, moving);
+            top[position] = score;
+            if (topCount < TOP_SCORES) topCount++;
+        }
+
+        /**
+         * adds a time, merging the recent times into the big array once there
+         * are enough of them that keeping them apart would slow inserts down
+         *
+         * @param nanos the time
+         */
+        void addTime(long nanos) {
+            int position = upperBound(recent, recentCount, nanos);
+            if (recentCount == recent.length) recent = Arrays.copyOf(recent, recentCount * 2);
+            System.arraycopy(recent, position, recent, position + 1, recentCount - position);
+            recent[position] = nanos;
+            recentCount++;
+            if (recentCount > Math.max(MIN_RECENT, (int) Math.sqrt(timeCount))) settle();
+        }
+
+        /** merges the recent times into the big sorted array, from the back so nothing gets moved twice */
+        void settle() {
+            if (recentCount == 0) return;
+            int total = timeCount + recentCount;
+            if (total > times.length) times = Arrays.copyOf(times, Math.max(total, times.length + (times.length >> 1)));
+            int from = timeCount - 1;
+            int fromRecent = recentCount - 1;
+            for (int to = total - 1; fromRecent >= 0; to--) {
+                if (from >= 0 && times[from] > recent[fromRecent]) {
+                    times[to] = times[from--];
+                } else {
+                    times[to] = recent[fromRecent--];
+                }
+            }
+            timeCount = total;
+            recentCount = 0;
+        }
+
+        /**
+         * works out where a time places among every game
+         *
+         * @param nanos the time
+         * @return 1 plus how many games were strictly faster
+         */
+        long place(long nanos) {
+            return 1L + lowerBound(times, timeCount, nanos) + lowerBound(recent, recentCount, nanos);
+        }
+
+        /**
+         * gets how many games there are
+         *
+         * @return the count
+         */
+        long count() {
+            return (long) timeCount + recentCount;
+        }
+    }
+
+    /** the table file */
+    private final Path tablePath;
+    /** the log file */
+    private final Path logPath;
+    /** how many scores the log can hold before it's folded into the table */
+    private final int compactAfter;
+    /** every preset's ranking, guarded by this */
+    private final Map<Preset, Ranking> rankings = new HashMap<>();
+    /** writes scores and folds the log, one job at a time */
+    private final ExecutorService writer;
+    /** the open log, only used on the writer */
+    private DataOutputStream log;
+    /** the log's number, only used on the writer once the store is open */
+    private long logNumber;
+    /** how many scores the log holds, only used on the writer once the store is open */
+    private int logScores;
+    /** set once the store is closed */
+    private volatile boolean closed = false;
+
+    /**
+     * opens a store in a folder, making the folder and its files if they
+     * aren't there, and reads every score into memory
+     *
+     * @param directory    the folder to keep the files in
+     * @param compactAfter how many scores the log can hold before it's folded into the table
+     * @throws IOException if the files can't be read or made
+     */
+    public ScoreStore(Path directory, int compactAfter) throws IOException {
+        if (compactAfter < 1) throw new IllegalArgumentException("compactAfter must be at least 1");
+        this.compactAfter = compactAfter;
+        Files.createDirectories(directory);
+        tablePath = directory.resolve("scores.dat");
+        logPath = directory.resolve("scores.log");
+
+        long foldedLog = readTable(tablePath, rankings);
+        long[] logInfo = readLog(logPath, foldedLog, rankings);
+        logNumber = logInfo[0];
+        logScores = (int) logInfo[1];
+        if (logNumber <= foldedLog) {
+            // the log is missing, or was already folded in before the program stopped
+            logNumber = foldedLog + 1;
+            startLog();
+        } else {
+            log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logPath,
+                    StandardOpenOption.APPEND)));
+        }
+
+        writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "score-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * gets the store the game windows share. it lives in the folder named by
+     * the minesweeper.scores.dir system property, or .minesweeper in the home folder
+     *
+     * @return the shared store
+     * @throws UncheckedIOException if it can't be opened
+     */
+    public static synchronized ScoreStore getShared() {
+        if (shared == null) {
+            String directory = System.getProperty("minesweeper.scores.dir",
+                    Paths.get(System.getProperty("user.home"), ".minesweeper").toString());
+            try {
+                shared = new ScoreStore(Paths.get(directory), Integer.getInteger("minesweeper.scores.compactAfter",
+                        DEFAULT_COMPACT_AFTER));
+            } catch (IOException e) {
+                throw new UncheckedIOException("couldn't open the scores in " + directory, e);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * starts opening the shared store on a background thread, so a window
+     * can ask for it early and doesn't wait for millions of scores to load
+     * when its first game ends
+     */
+    public static void openSharedInBackground() {
+        Thread loader = new Thread(() -> {
+            try {
+                getShared();
+            } catch (UncheckedIOException e) {
+                // whoever asks for it next gets the same error and can show it
+                System.err.println(e.getMessage());
+            }
+        }, "score-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * adds a finished game. it's in the rankings as soon as this returns and
+     * gets written to disk in the background
+     *
+     * @param score the game's result
+     * @return where it places among every game on its preset, 1 for the fastest
+     */
+    public long record(Score score) {
+        long place;
+        synchronized (this) {
+            Ranking ranking = rankings.computeIfAbsent(presetOf(score), preset -> new Ranking());
+            place = ranking.place(score.elapsedNanos);
+            ranking.add(score);
+        }
+        try {
+            writer.execute(() -> append(score));
+        } catch (RejectedExecutionException e) {
+            // the store closed while this was on its way, so it only counts for this session
+        }
+        return place;
+    }
+
+    /**
+     * gets a preset's best games
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines the board has
+     * @param noGuess      whether the board can be cleared without guessing
+     * @return up to TOP_SCORES games, fastest first
+     */
+    public synchronized List<Score> getTopScores(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        Ranking ranking = rankings.get(new Preset(boardColumns, boardRows, totalMines, noGuess));
+        if (ranking == null) return new ArrayList<>();
+        return new ArrayList<>(Arrays.asList(ranking.top).subList(0, ranking.topCount));
+    }
+
+    /**
+     * works out where a time would place on a preset
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines the board has
+     * @param noGuess      whether the board can be cleared without guessing
+     * @param elapsedNanos the time
+     * @return 1 plus how many games on the preset were strictly faster
+     */
+    public synchronized long getPlace(int boardColumns, int boardRows, int totalMines, boolean noGuess, long elapsedNanos) {
+        Ranking ranking = rankings.get(new Preset(boardColumns, boardRows, totalMines, noGuess));
+        return ranking == null ? 1 : ranking.place(elapsedNanos);
+    }
+
+    /**
+     * gets how many games have been recorded on a preset
+     *
+     * @param boardColumns how many columns wide the board is
+     * @param boardRows    how many rows tall the board is
+     * @param totalMines   how many mines the board has
+     * @param noGuess      whether the board can be cleared without guessing
+     * @return the count
+     */
+    public synchronized long getGameCount(int boardColumns, int boardRows, int totalMines, boolean noGuess) {
+        Ranking ranking = rankings.get(new Preset(boardColumns, boardRows, totalMines, noGuess));
+        return ranking == null ? 0 : ranking.count();
+    }
+
+    /**
+     * writes whatever scores are still waiting and closes the files
+     *
+     * @throws IOException if the last writes fail
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    /**
+     * appends a score to the log and folds the log into the table once it's
+     * full. runs on the writer
+     *
+     * @param score the score
+     */
+    private void append(Score score) {
+        try {
+            writeScore(log, score);
+            log.flush();
+            logScores++;
+        } catch (IOException e) {
+            // the score is still in memory for this session, it just won't be there next time
+            System.err.println("couldn't save a score: " + e.getMessage());
+            return;
+        }
+        if (logScores < compactAfter) return;
+        try {
+            compact();
+        } catch (IOException e) {
+            // the scores are still in the log, so the next score tries again
+            System.err.println("couldn't fold the score log into the table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * folds the log into the table and starts a fresh log. the new table is
+     * built from the files rather than from memory, since memory can be
+     * ahead of what's been written yet, and it replaces the old one in a
+     * single rename so a crash leaves one or the other. if it fails before
+     * the table is replaced, the old log is opened again and the scores keep
+     * going on the end of it, to be folded in next time. runs on the writer
+     *
+     * @throws IOException if the files can't be read or written
+     */
+    private void compact() throws IOException {
+        log.close();
+        boolean replaced = false;
+        try {
+            replaceTable();
+            replaced = true;
+        } finally {
+            if (!replaced) {
+                log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logPath,
+                        StandardOpenOption.APPEND)));
+            }
+        }
+        startLog();
+    }
+
+    /**
+     * writes the table and the closed log into a new table and puts it in
+     * place of the old one, then numbers the next log past both. runs on the writer
+     *
+     * @throws IOException if the files can't be read or written
+     */
+    private void replaceTable() throws IOException {
+        Map<Preset, Ranking> folded = new HashMap<>();
+        long foldedLog = readTable(tablePath, folded);
+        long number = readLog(logPath, foldedLog, folded)[0];
+
+        Path temporary = tablePath.resolveSibling("scores.dat.tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(TABLE_MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(Math.max(number, foldedLog));
+            out.writeInt(folded.size());
+            for (Map.Entry<Preset, Ranking> entry : folded.entrySet()) {
+                Preset preset = entry.getKey();
+                Ranking ranking = entry.getValue();
+                ranking.settle();
+                out.writeInt(preset.boardColumns);
+                out.writeInt(preset.boardRows);
+                out.writeInt(preset.totalMines);
+                out.writeBoolean(preset.noGuess);
+                out.writeInt(ranking.topCount);
+                for (int i = 0; i < ranking.topCount; i++) {
+                    Score score = ranking.top[i];
+                    out.writeLong(score.elapsedNanos);
+                    out.writeLong(score.finishedAtMillis);
+                    out.writeUTF(score.playerName);
+                }
+                out.writeInt(ranking.timeCount);
+                for (int i = 0; i < ranking.timeCount; i++) {
+                    out.writeLong(ranking.times[i]);
+                }
+            }
+        }
+        try {
+            Files.move(temporary, tablePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // some file systems can't rename atomically, and a plain replace is still better than never compacting
+            Files.move(temporary, tablePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        logNumber = Math.max(number, foldedLog) + 1;
+    }
+
+    /**
+     * empties the log and writes its header. runs on the writer, or before it starts
+     *
+     * @throws IOException if the log can't be written
+     */
+    private void startLog() throws IOException {
+        log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logPath)));
+        log.writeInt(MAGIC);
+        log.writeByte(VERSION);
+        log.writeLong(logNumber);
+        log.flush();
+        logScores = 0;
+    }
+
+    /**
+     * reads the table into rankings
+     *
+     * @param path     the table file
+     * @param rankings where to put what's read
+     * @return the number of the last log folded into it, 0 if there's no table yet
+     * @throws IOException if the table can't be read or isn't a score table
+     */
+    private static long readTable(Path path, Map<Preset, Ranking> rankings) throws IOException {
+        if (!Files.exists(path)) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != TABLE_MAGIC) throw new IOException("not a minesweeper score table");
+            byte version = in.readByte();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported score table version " + version);
+            long foldedLog = in.readLong();
+            int presetCount = in.readInt();
+            for (int p = 0; p < presetCount; p++) {
+                int boardColumns = in.readInt();
+                int boardRows = in.readInt();
+                int totalMines = in.readInt();
+                boolean noGuess = in.readBoolean();
+                Ranking ranking = rankings.computeIfAbsent(new Preset(boardColumns, boardRows, totalMines, noGuess),
+                        preset -> new Ranking());
+                int topCount = in.readInt();
+                if (topCount < 0 || topCount > TOP_SCORES) throw new IOException("bad score table lengths");
+                for (int i = 0; i < topCount; i++) {
+                    ranking.addTop(new Score(boardColumns, boardRows, totalMines, noGuess,
+                            in.readLong(), in.readLong(), in.readUTF()));
+                }
+                int timeCount = in.readInt();
+                if (timeCount < 0) throw new IOException("bad score table lengths");
+                long[] times = new long[Math.max(timeCount, 16)];
+                for (int i = 0; i < timeCount; i++) {
+                    times[i] = in.readLong();
+                }
+                ranking.times = times;
+                ranking.timeCount = timeCount;
+            }
+            return foldedLog;
+        } catch (EOFException e) {
+            throw new IOException("score table is cut short", e);
+        }
+    }
+
+    /**
+     * reads the scores in the log into rankings, unless the log was already
+     * folded into the table. a score cut short by a crash is dropped, and the
+     * log is trimmed back to the last whole one so new scores follow on cleanly
+     *
+     * @param path      the log file
+     * @param foldedLog the number of the last log the table already holds
+     * @param rankings  where to put what's read
+     * @return the log's number, 0 if there's no log, and how many scores it holds
+     * @throws IOException if the log can't be read or isn't a score log
+     */
+    private static long[] readLog(Path path, long foldedLog, Map<Preset, Ranking> rankings) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) return new long[]{0, 0};
+        long number;
+        long scores = 0;
+        long goodLength;
+        try (CountingInput counter = new CountingInput(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+             DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC) throw new IOException("not a minesweeper score log");
+            byte version = in.readByte();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported score log version " + version);
+            number = in.readLong();
+            goodLength = counter.count;
+            if (number <= foldedLog) return new long[]{number, 0};
+            while (true) {
+                Score score;
+                try {
+                    score = readScore(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                rankings.computeIfAbsent(presetOf(score), preset -> new Ranking()).add(score);
+                scores++;
+                goodLength = counter.count;
+            }
+        } catch (EOFException e) {
+            throw new IOException("score log header is cut short", e);
+        }
+        if (goodLength < Files.size(path)) {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength(goodLength);
+            }
+        }
+        return new long[]{number, scores};
+    }
+
+    /**
+     * writes one score in the log's layout
+     *
+     * @param out   where to write it
+     * @param score the score
+     * @throws IOException if it can't be written
+     */
+    private static void writeScore(DataOutputStream out, Score score) throws IOException {
+        out.writeInt(score.boardColumns);
+        out.writeInt(score.boardRows);
+        out.writeInt(score.totalMines);
+        out.writeBoolean(score.noGuess);
+        out.writeLong(score.elapsedNanos);
+        out.writeLong(score.finishedAtMillis);
+        out.writeUTF(score.playerName);
+    }
+
+    /**
+     * reads one score in the log's layout
+     *
+     * @param in where to read it from
+     * @return the score
+     * @throws IOException if it can't be read, EOFException if the log ends first
+     */
+    private static Score readScore(DataInputStream in) throws IOException {
+        int boardColumns = in.readInt();
+        int boardRows = in.readInt();
+        int totalMines = in.readInt();
+        boolean noGuess = in.readBoolean();
+        long elapsedNanos = in.readLong();
+        long finishedAtMillis = in.readLong();
+        String playerName = in.readUTF();
+        if (elapsedNanos < 0) throw new IOException("bad score in the log");
+        return new Score(boardColumns, boardRows, totalMines, noGuess, elapsedNanos, finishedAtMillis, playerName);
+    }
+
+    /**
+     * gets the preset a score was played on
+     *
+     * @param score the score
+     * @return its preset
+     */
+    private static Preset presetOf(Score score) {
+        return new Preset(score.boardColumns, score.boardRows, score.totalMines, score.noGuess);
+    }
+
+    /**
+     * checks if one game ranks ahead of another: the faster one, or the
+     * earlier one if they took the same time
+     *
+     * @param score the game to place
+     * @param other the game already there
+     * @return true if score goes first
+     */
+    private static boolean comesBefore(Score score, Score other) {
+        if (score.elapsedNanos != other.elapsedNanos) return score.elapsedNanos < other.elapsedNanos;
+        return score.finishedAtMillis < other.finishedAtMillis;
+    }
+
+    /**
+     * finds how many of the first count values are less than a value
+     *
+     * @param values sorted values
+     * @param count  how many are used
+     * @param value  the value to look for
+     * @return the index of the first one at least value
+     */
+    private static int lowerBound(long[] values, int count, long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * finds how many of the first count values are at most a value
+     *
+     * @param values sorted values
+     * @param count  how many are used
+     * @param value  the value to look for
+     * @return the index of the first one greater than value
+     */
+    private static int upperBound(long[] values, int count, long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * an input stream that counts the bytes read through it, so the log
+     * reader knows where the last whole score ended
+     */
+    private static final class CountingInput extends FilterInputStream {
+        /** how many bytes have been read */
+        long count = 0;
+
+        /**
+         * wraps a stream
+         *
+         * @param in the stream
+         */
+        CountingInput(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) count++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * this class plays lots of headless games at once to measure how a move
+ * strategy does. the seed range is split up with fork/join, every task
+ * keeps its own stats and its own strategy, and the results are merged
+ * as the tasks join, so the cores never fight over a lock
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * plays a range of seeded games across all cores and reports the combined stats
+ */
+public class SimulationRunner {
+    /** how many pieces per thread the seed range gets cut into, so busy threads can steal work */
+    private static final int TASKS_PER_THREAD = 16;
+
+    /** how many columns wide the boards are */
+    private final int boardColumns;
+    /** how many rows tall the boards are */
+    private final int boardRows;
+    /** how many mines each board has */
+    private final int totalMines;
+    /** makes a fresh strategy for every task */
+    private final Supplier<? extends MoveStrategy> strategyFactory;
+    /** how many threads to play on */
+    private final int parallelism;
+
+    /**
+     * sets up a runner for one of the menu presets
+     *
+     * @param difficulty      which preset to play
+     * @param strategyFactory makes a fresh strategy for every task
+     * @param parallelism     how many threads to play on
+     */
+    public SimulationRunner(Difficulty difficulty, Supplier<? extends MoveStrategy> strategyFactory, int parallelism) {
+        this(difficulty.getBoardColumns(), difficulty.getBoardRows(), difficulty.getTotalMines(), strategyFactory, parallelism);
+    }
+
+    /**
+     * sets up a runner for a custom board size
+     *
+     * @param boardColumns    how many columns wide the boards are
+     * @param boardRows       how many rows tall the boards are
+     * @param totalMines      how many mines each board has
+     * @param strategyFactory makes a fresh strategy for every task
+     * @param parallelism     how many threads to play on
+     */
+    public SimulationRunner(int boardColumns, int boardRows, int totalMines,
+                            Supplier<? extends MoveStrategy> strategyFactory, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.boardColumns = boardColumns;
+        this.boardRows = boardRows;
+        this.totalMines = totalMines;
+        this.strategyFactory = strategyFactory;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * plays one game for every seed from firstSeed to firstSeed + gameCount - 1
+     *
+     * @param firstSeed the seed of the first game
+     * @param gameCount how many games to play
+     * @return the combined results with the wall clock time filled in
+     */
+    public SimulationStats run(long firstSeed, int gameCount) {
+        int leafSize = Math.max(1, gameCount / (parallelism * TASKS_PER_THREAD));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long startNanos = System.nanoTime();
+            SimulationStats stats = pool.invoke(new SimulationTask(firstSeed, gameCount, leafSize));
+            stats.setElapsedNanos(System.nanoTime() - startNanos);
+            return stats;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * plays one game to the end with the given strategy
+     *
+     * @param seed     the game's seed
+     * @param strategy who picks the moves
+     * @param stats    where to record the clicks and the result
+     */
+    private void playGame(long seed, MoveStrategy strategy, SimulationStats stats) {
+        MinesweeperGame game = new MinesweeperGame(boardColumns, boardRows, totalMines, seed, true);
+        Board board = game.getBoard();
+        strategy.startGame(game);
+        while (!game.isGameOver()) {
+            int cellIndex = strategy.chooseCell(game);
+            CellBatch opened = game.revealTile(board.rowOf(cellIndex), board.columnOf(cellIndex));
+            if (opened.isEmpty()) {
+                throw new IllegalStateException("strategy picked a square that can't be revealed: " + cellIndex);
+            }
+            stats.recordClick(opened.size());
+            strategy.cellsRevealed(game, opened);
+        }
+        stats.recordGame(game.getStatus());
+    }
+
+    /**
+     * a piece of the seed range that splits itself in half until it's small
+     * enough, then plays its games into its own stats
+     */
+    private class SimulationTask extends RecursiveTask<SimulationStats> {
+        /** the seed of the first game in this piece */
+        private final long firstSeed;
+        /** how many games this piece has */
+        private final int gameCount;
+        /** how many games a piece can have before it splits */
+        private final int leafSize;
+
+        /**
+         * creates a piece of the seed range
+         *
+         * @param firstSeed the seed of the first game in this piece
+         * @param gameCount how many games this piece has
+         * @param leafSize  how many games a piece can have before it splits
+         */
+        SimulationTask(long firstSeed, int gameCount, int leafSize) {
+            this.firstSeed = firstSeed;
+            this.gameCount = gameCount;
+            this.leafSize = leafSize;
+        }
+
+        /**
+         * plays the games or splits them up between two smaller tasks
+         *
+         * @return the results for this piece
+         */
+        @Override
+        protected SimulationStats compute() {
+            if (gameCount <= leafSize) {
+                SimulationStats stats = new SimulationStats();
+                MoveStrategy strategy = strategyFactory.get();
+                for (int i = 0; i < gameCount; i++) {
+                    playGame(firstSeed + i, strategy, stats);
+                }
+                return stats;
+            }
+
+            int half = gameCount / 2;
+            SimulationTask left = new SimulationTask(firstSeed, half, leafSize);
+            SimulationTask right = new SimulationTask(firstSeed + half, gameCount - half, leafSize);
+            left.fork();
+            SimulationStats rightStats = right.compute();
+            return left.join().merge(rightStats);
+        }
+    }
+
+    /**
+     * runs a batch from the command line and prints the results.
+     * usage: SimulationRunner [easy|medium|hard|COLSxROWSxMINES] [games] [firstSeed] [threads] [random|solver]
+     *
+     * @param args the board, game count, first seed, thread count and strategy, all optional
+     */
+    public static void main(String[] args) {
+        String board = args.length > 0 ? args[0] : "hard";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        String strategy = args.length > 4 ? args[4] : "random";
+
+        Supplier<MoveStrategy> strategyFactory;
+        if (strategy.equals("solver")) {
+            strategyFactory = Solver::new;
+        } else {
+            strategyFactory = RandomStrategy::new;
+        }
+        SimulationRunner runner = forBoard(board, strategyFactory, threads);
+        System.out.println(board + " with " + strategy + " on " + threads + " threads: " + runner.run(firstSeed, games));
+    }
+
+    /**
+     * makes a runner from a preset name like "hard" or a custom size like "50x40x300"
+     *
+     * @param board           the preset name or custom size
+     * @param strategyFactory makes a fresh strategy for every task
+     * @param parallelism     how many threads to play on
+     * @return the runner
+     */
+    public static SimulationRunner forBoard(String board, Supplier<? extends MoveStrategy> strategyFactory, int parallelism) {
+        String[] size = board.toLowerCase().split("x");
+        if (size.length == 3) {
+            return new SimulationRunner(Integer.parseInt(size[0]), Integer.parseInt(size[1]),
+                    Integer.parseInt(size[2]), strategyFactory, parallelism);
+        }
+        return new SimulationRunner(Difficulty.valueOf(board.toUpperCase()), strategyFactory, parallelism);
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * this class adds up the results of a batch of simulated games. every
+ * simulator task fills its own copy and the copies get merged at the end,
+ * so the threads never share a counter
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+/**
+ * win rate, clicks, cascade sizes and speed for a batch of headless games
+ */
+public class SimulationStats {
+    /** how many games were played */
+    private long games = 0;
+    /** how many of them were won */
+    private long wins = 0;
+    /** how many reveal clicks were made in total */
+    private long clicks = 0;
+    /** how many squares all the clicks opened in total */
+    private long openedCells = 0;
+    /** the most squares any one click opened */
+    private int largestCascade = 0;
+    /** how long the batch took to play, in nanoseconds */
+    private long elapsedNanos = 0;
+
+    /**
+     * records one click and how many squares it opened
+     *
+     * @param opened how many squares the click opened
+     */
+    public void recordClick(int opened) {
+        clicks++;
+        openedCells += opened;
+        if (opened > largestCascade) largestCascade = opened;
+    }
+
+    /**
+     * records the end of a game
+     *
+     * @param status how the game ended
+     */
+    public void recordGame(GameStatus status) {
+        games++;
+        if (status == GameStatus.WON) wins++;
+    }
+
+    /**
+     * adds another batch's results into this one
+     *
+     * @param other the results to add
+     * @return this, so merges can be chained
+     */
+    public SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        wins += other.wins;
+        clicks += other.clicks;
+        openedCells += other.openedCells;
+        largestCascade = Math.max(largestCascade, other.largestCascade);
+        return this;
+    }
+
+    /**
+     * sets how long the batch took so the speed can be worked out
+     *
+     * @param elapsedNanos the wall clock time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * gets how many games were played
+     *
+     * @return the game count
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * gets how many games were won
+     *
+     * @return the win count
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * gets how many reveal clicks were made in total
+     *
+     * @return the click count
+     */
+    public long getClicks() {
+        return clicks;
+    }
+
+    /**
+     * gets the fraction of games that were won
+     *
+     * @return a number from 0 to 1
+     */
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * gets how many clicks a game took on average
+     *
+     * @return the average clicks per game
+     */
+    public double getAverageClicks() {
+        return games == 0 ? 0 : (double) clicks / games;
+    }
+
+    /**
+     * gets how many squares a click opened on average
+     *
+     * @return the average cascade size
+     */
+    public double getAverageCascade() {
+        return clicks == 0 ? 0 : (double) openedCells / clicks;
+    }
+
+    /**
+     * gets the most squares any one click opened
+     *
+     * @return the largest cascade size
+     */
+    public int getLargestCascade() {
+        return largestCascade;
+    }
+
+    /**
+     * gets how many games were played per second of wall clock time
+     *
+     * @return the game rate
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * sums the results up in one line
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("games=%d wins=%d winRate=%.4f avgClicks=%.2f avgCascade=%.2f maxCascade=%d gamesPerSecond=%.0f",
+                games, wins, getWinRate(), getAverageClicks(), getAverageCascade(), largestCascade, getGamesPerSecond());
+    }
+}
@@ -0,0 +1,992 @@
+/**
+ * this class is the auto-solver. it only looks at what a player could see
+ * (revealed numbers and flags) and works out which hidden squares are safe.
+ * first it tries the cheap rules on just the squares the last move touched:
+ * a number that already has all its mines means the rest around it are safe,
+ * a number with exactly as many hidden squares as missing mines means they're
+ * all mines, and when one number's hidden squares are a subset of another's
+ * the difference has to hold the difference in mines. when those rules get
+ * stuck it splits the frontier into separate pieces, counts every mine layout
+ * for each piece (remembering pieces it has already counted), and combines
+ * them into an exact mine chance for every hidden square
+ *
+ * none of that looks ahead by playing moves on the game. the counting tries
+ * each square as safe and as a mine on its own small arrays and backs out
+ * along a trail of what it decided, so it never needs a copy of the board or
+ * a GameState to put the game back to. the only moves it plays for real are
+ * in clearsWithoutGuessing, which uses up the game it's given
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * a minesweeper solver that finds safe moves and mine probabilities from the visible board
+ */
+public class Solver implements MoveStrategy {
+    /** nothing has been worked out about this square yet */
+    private static final byte UNKNOWN = 0;
+    /** this square can't have a mine */
+    private static final byte SAFE = 1;
+    /** this square must have a mine */
+    private static final byte MINE = 2;
+    /** how many squares the subset rule looks through around a number (a 5x5 window) */
+    private static final int WINDOW_RADIUS = 2;
+    /** how many search steps one frontier piece gets before its chances are only estimated */
+    private static final int ENUMERATION_BUDGET = 100_000;
+    /** the most squares a frontier piece can have before its chances are only estimated */
+    private static final int MAX_PIECE_CELLS = 200;
+    /** how many counted frontier pieces to remember before the memo is cleared */
+    private static final int MEMO_LIMIT = 4096;
+
+    /** the board being solved */
+    private Board board;
+    /** how many mines the board has in total */
+    private int totalMines;
+    /** what has been worked out about each square: UNKNOWN, SAFE or MINE */
+    private byte[] knowledge = new byte[0];
+    /** how many squares are known to have mines, counting the player's flags */
+    private int knownMines;
+    /** revealed numbers waiting to be looked at again, as a ring buffer */
+    private int[] dirtyQueue = new int[0];
+    /** where the next square comes off the dirty queue */
+    private int dirtyHead;
+    /** how many squares are on the dirty queue */
+    private int dirtySize;
+    /** whether each square is on the dirty queue right now */
+    private boolean[] queued = new boolean[0];
+    /** numbers the single-number rules couldn't settle, waiting for the subset rule */
+    private int[] subsetStack = new int[0];
+    /** how many numbers are waiting for the subset rule */
+    private int subsetSize;
+    /** whether each square is waiting for the subset rule right now */
+    private boolean[] pendingSubset = new boolean[0];
+    /** squares found to be safe that might not be revealed yet */
+    private int[] safeStack = new int[0];
+    /** how many squares are on the safe stack */
+    private int safeSize;
+    /** goes up every time a square is resolved, so examine can tell when to look again */
+    private int marks;
+    /** counted frontier pieces, keyed by their squares and numbers */
+    private final HashMap<String, Component> memo = new HashMap<>();
+    /** log of n factorial for every n up to the number of squares, made when first needed */
+    private double[] logFactorial = new double[0];
+
+    /** how many mines the squares from the last collectHidden call still have to hold */
+    private int hiddenNeed;
+
+    /** scratch space for a square's neighbors */
+    private final int[] neighborBuffer = new int[8];
+    /** scratch space for the neighbors of a square whose numbers are being queued */
+    private final int[] queueBuffer = new int[8];
+    /** the hidden, unresolved squares around the number being looked at */
+    private final int[] hiddenA = new int[8];
+    /** the hidden, unresolved squares around the number it's being compared with */
+    private final int[] hiddenB = new int[8];
+    /** the squares in one set but not the other */
+    private final int[] difference = new int[8];
+
+    /**
+     * gets ready for a new game and forgets everything about the last one
+     *
+     * @param game the game that's about to be played
+     */
+    @Override
+    public void startGame(MinesweeperGame game) {
+        board = game.getBoard();
+        totalMines = game.getTotalMines();
+        int cellCount = board.getCellCount();
+        if (knowledge.length != cellCount) {
+            knowledge = new byte[cellCount];
+            dirtyQueue = new int[cellCount];
+            queued = new boolean[cellCount];
+            safeStack = new int[cellCount];
+            subsetStack = new int[cellCount];
+            pendingSubset = new boolean[cellCount];
+        } else {
+            Arrays.fill(knowledge, UNKNOWN);
+            Arrays.fill(queued, false);
+            Arrays.fill(pendingSubset, false);
+        }
+        dirtyHead = 0;
+        dirtySize = 0;
+        subsetSize = 0;
+        safeSize = 0;
+        knownMines = 0;
+        memo.clear();
+    }
+
+    /**
+     * throws away what's been worked out and reads the whole board again.
+     * use this when the board changed in ways the solver wasn't told about,
+     * like flags placed by the player or moves made before the solver was asked
+     *
+     * @param game the game to read
+     */
+    public void rescan(MinesweeperGame game) {
+        startGame(game);
+        for (int cellIndex = 0; cellIndex < knowledge.length; cellIndex++) {
+            if (board.isFlagged(cellIndex)) {
+                knowledge[cellIndex] = MINE;
+                knownMines++;
+            } else if (board.isRevealed(cellIndex)) {
+                knowledge[cellIndex] = SAFE;
+                enqueue(cellIndex);
+            }
+        }
+    }
+
+    /**
+     * marks the opened squares as safe and queues them and the numbers around
+     * them to be looked at again, so only the part of the board that changed
+     * gets worked on
+     *
+     * @param game   the game being played
+     * @param opened the squares the move opened
+     */
+    @Override
+    public void cellsRevealed(MinesweeperGame game, CellBatch opened) {
+        for (int i = 0; i < opened.size(); i++) {
+            int cellIndex = opened.getUnchecked(i);
+            if (board.isMine(cellIndex)) continue;
+            knowledge[cellIndex] = SAFE;
+            enqueue(cellIndex);
+            enqueueRevealedNeighbors(cellIndex);
+        }
+    }
+
+    /**
+     * picks a safe square if there is one, otherwise the square least likely to have a mine
+     *
+     * @param game the game being played
+     * @return the square to reveal
+     */
+    @Override
+    public int chooseCell(MinesweeperGame game) {
+        int safeCell = findSafeCell();
+        if (safeCell >= 0) return safeCell;
+
+        double[] probabilities = computeProbabilities();
+        int bestCell = -1;
+        double bestProbability = 2;
+        for (int cellIndex = 0; cellIndex < probabilities.length; cellIndex++) {
+            if (board.isRevealed(cellIndex) || knowledge[cellIndex] == MINE) continue;
+            if (probabilities[cellIndex] < bestProbability) {
+                bestProbability = probabilities[cellIndex];
+                bestCell = cellIndex;
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * runs the cheap rules until they get stuck and hands back a square that's
+     * sure to be safe. this never guesses
+     *
+     * @return a hidden square with no mine, or -1 if the cheap rules can't find one
+     */
+    public int findSafeCell() {
+        propagate(true);
+        return hasUnrevealedSafe() ? safeStack[safeSize - 1] : -1;
+    }
+
+    /**
+     * plays a game from an opening square using only sure moves, stopping as
+     * soon as the cheap rules get stuck. tells you whether the board can be
+     * cleared by logic alone from that opening
+     *
+     * @param game        a game that hasn't been played yet, with its mines placed
+     * @param openingCell the square to click first
+     * @return true if the game was won without ever having to guess
+     */
+    public boolean clearsWithoutGuessing(MinesweeperGame game, int openingCell) {
+        Board gameBoard = game.getBoard();
+        startGame(game);
+        CellBatch opened = game.revealTile(gameBoard.rowOf(openingCell), gameBoard.columnOf(openingCell));
+        while (!game.isGameOver() && !opened.isEmpty()) {
+            cellsRevealed(game, opened);
+            int safeCell = findSafeCell();
+            if (safeCell < 0) break;
+            opened = game.revealTile(gameBoard.rowOf(safeCell), gameBoard.columnOf(safeCell));
+        }
+        return game.getStatus() == GameStatus.WON;
+    }
+
+    /**
+     * checks if the solver has worked out that a square has a mine
+     *
+     * @param cellIndex the square's index
+     * @return true if it's a flag or a deduced mine
+     */
+    public boolean isKnownMine(int cellIndex) {
+        return knowledge[cellIndex] == MINE;
+    }
+
+    /**
+     * works out the chance of a mine under every square. revealed and known
+     * safe squares get 0 and known mines get 1. squares found to be certainly
+     * safe along the way are remembered for the cheap rules
+     *
+     * @return one chance from 0 to 1 per square, indexed like the board
+     */
+    public double[] computeProbabilities() {
+        propagate(false);
+        int cellCount = board.getCellCount();
+        double[] probabilities = new double[cellCount];
+
+        // collect the constraints: every revealed number that still has unresolved squares around it
+        int[] frontierId = new int[cellCount];
+        Arrays.fill(frontierId, -1);
+        int[] frontierCells = new int[cellCount];
+        int frontierSize = 0;
+        int[] constraintCells = new int[cellCount];
+        int constraintCount = 0;
+        for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+            if (!board.isRevealed(cellIndex) || board.isMine(cellIndex)) continue;
+            int hidden = collectHidden(cellIndex, hiddenA);
+            if (hidden == 0) continue;
+            constraintCells[constraintCount++] = cellIndex;
+            for (int i = 0; i < hidden; i++) {
+                if (frontierId[hiddenA[i]] < 0) {
+                    frontierId[hiddenA[i]] = frontierSize;
+                    frontierCells[frontierSize++] = hiddenA[i];
+                }
+            }
+        }
+
+        // join frontier squares that share a number into pieces
+        int[] parent = new int[frontierSize];
+        for (int i = 0; i < frontierSize; i++) parent[i] = i;
+        for (int c = 0; c < constraintCount; c++) {
+            int hidden = collectHidden(constraintCells[c], hiddenA);
+            int root = find(parent, frontierId[hiddenA[0]]);
+            for (int i = 1; i < hidden; i++) {
+                int other = find(parent, frontierId[hiddenA[i]]);
+                if (other != root) parent[other] = root;
+            }
+        }
+        int[] pieceOf = new int[frontierSize];
+        int pieceCount = 0;
+        int[] pieceIdOfRoot = new int[frontierSize];
+        Arrays.fill(pieceIdOfRoot, -1);
+        for (int i = 0; i < frontierSize; i++) {
+            int root = find(parent, i);
+            if (pieceIdOfRoot[root] < 0) pieceIdOfRoot[root] = pieceCount++;
+            pieceOf[i] = pieceIdOfRoot[root];
+        }
+
+        // count the layouts of each piece, or look them up if this piece was counted before
+        int[][] pieceConstraints = groupConstraints(constraintCells, constraintCount, frontierId, pieceOf, pieceCount);
+        Component[] pieces = new Component[pieceCount];
+        int interior = 0;
+        for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+            if (!board.isRevealed(cellIndex) && knowledge[cellIndex] == UNKNOWN
+                    && !board.isFlagged(cellIndex) && frontierId[cellIndex] < 0) {
+                interior++;
+            }
+        }
+        int minesLeft = totalMines - knownMines;
+        for (int p = 0; p < pieceCount; p++) {
+            pieces[p] = countPiece(pieceConstraints[p]);
+            if (pieces[p].estimated) {
+                minesLeft -= Math.round(pieces[p].estimatedMines);
+            }
+        }
+        minesLeft = Math.max(minesLeft, 0);
+
+        combine(pieces, interior, minesLeft, probabilities);
+
+        for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+            if (board.isRevealed(cellIndex) || knowledge[cellIndex] == SAFE) {
+                probabilities[cellIndex] = 0;
+            } else if (knowledge[cellIndex] == MINE || board.isFlagged(cellIndex)) {
+                probabilities[cellIndex] = 1;
+            }
+        }
+
+        // squares no layout puts a mine on are proven safe, so the cheap rules can use them.
+        // a chance of 1 can come from rounding, so mines aren't fed back the same way
+        for (int i = 0; i < frontierSize; i++) {
+            int cellIndex = frontierCells[i];
+            if (probabilities[cellIndex] == 0) markSafe(cellIndex);
+        }
+        return probabilities;
+    }
+
+    /**
+     * looks at queued numbers with the single-number rules, and only when
+     * those run dry tries the subset rule on the numbers they couldn't settle.
+     * when stopAtSafe is set it stops as soon as there's a safe square to hand
+     * out, leaving the rest of the work for the next call
+     *
+     * @param stopAtSafe true to stop early once a safe square is known
+     */
+    private void propagate(boolean stopAtSafe) {
+        while (true) {
+            while (dirtySize > 0) {
+                int cellIndex = dirtyQueue[dirtyHead];
+                dirtyHead = dirtyHead + 1 == dirtyQueue.length ? 0 : dirtyHead + 1;
+                dirtySize--;
+                queued[cellIndex] = false;
+                if (!examineSingle(cellIndex) && !pendingSubset[cellIndex]) {
+                    pendingSubset[cellIndex] = true;
+                    subsetStack[subsetSize++] = cellIndex;
+                }
+            }
+            if (subsetSize == 0 || (stopAtSafe && hasUnrevealedSafe())) return;
+
+            int cellIndex = subsetStack[--subsetSize];
+            pendingSubset[cellIndex] = false;
+            examineSubsets(cellIndex);
+        }
+    }
+
+    /**
+     * checks if the safe stack still has a square that hasn't been revealed, dropping revealed ones
+     *
+     * @return true if there's a safe square to hand out
+     */
+    private boolean hasUnrevealedSafe() {
+        while (safeSize > 0) {
+            if (!board.isRevealed(safeStack[safeSize - 1])) return true;
+            safeSize--;
+        }
+        return false;
+    }
+
+    /**
+     * applies the single-number rules: a number with all its mines found makes
+     * the rest safe, and a number with as many hidden squares as missing mines
+     * makes them all mines
+     *
+     * @param cellIndex a revealed square
+     * @return true if the number is settled, false if it still has undecided squares
+     */
+    private boolean examineSingle(int cellIndex) {
+        if (!board.isRevealed(cellIndex) || board.isMine(cellIndex)) return true;
+        int hiddenCount = collectHidden(cellIndex, hiddenA);
+        if (hiddenCount == 0) return true;
+        int need = hiddenNeed;
+
+        if (need == 0) {
+            for (int i = 0; i < hiddenCount; i++) markSafe(hiddenA[i]);
+            return true;
+        }
+        if (need == hiddenCount) {
+            for (int i = 0; i < hiddenCount; i++) markMine(hiddenA[i]);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * applies the subset rule between a number and every number in the 5x5 window around it
+     *
+     * @param cellIndex a revealed square
+     */
+    private void examineSubsets(int cellIndex) {
+        if (!board.isRevealed(cellIndex) || board.isMine(cellIndex)) return;
+        int hiddenCount = collectHidden(cellIndex, hiddenA);
+        if (hiddenCount == 0) return;
+        int need = hiddenNeed;
+
+        int marksSeen = marks;
+        int columns = board.getBoardColumns();
+        int row = cellIndex / columns;
+        int column = cellIndex - row * columns;
+        for (int otherRow = row - WINDOW_RADIUS; otherRow <= row + WINDOW_RADIUS; otherRow++) {
+            for (int otherColumn = column - WINDOW_RADIUS; otherColumn <= column + WINDOW_RADIUS; otherColumn++) {
+                if (!board.isInBounds(otherRow, otherColumn)) continue;
+                int other = otherRow * columns + otherColumn;
+                if (other == cellIndex || !board.isRevealed(other) || board.isMine(other)) continue;
+
+                if (marks != marksSeen) {
+                    // an earlier comparison resolved squares, so the hidden set around this number may have shrunk
+                    marksSeen = marks;
+                    hiddenCount = collectHidden(cellIndex, hiddenA);
+                    if (hiddenCount == 0) return;
+                    need = hiddenNeed;
+                }
+
+                int otherCount = collectHidden(other, hiddenB);
+                if (otherCount == 0) continue;
+                int otherNeed = hiddenNeed;
+
+                if (otherCount > hiddenCount && isSubset(hiddenA, hiddenCount, hiddenB, otherCount)) {
+                    applySubset(hiddenA, hiddenCount, hiddenB, otherCount, otherNeed - need);
+                } else if (hiddenCount > otherCount && isSubset(hiddenB, otherCount, hiddenA, hiddenCount)) {
+                    applySubset(hiddenB, otherCount, hiddenA, hiddenCount, need - otherNeed);
+                }
+            }
+        }
+    }
+
+    /**
+     * when small is inside big, the squares only big has must hold exactly
+     * extraMines mines, so they're all safe or all mines at the two extremes
+     *
+     * @param small      the smaller set of hidden squares
+     * @param smallCount how many squares are in it
+     * @param big        the bigger set that contains it
+     * @param bigCount   how many squares are in it
+     * @param extraMines how many more mines the bigger set needs than the smaller one
+     */
+    private void applySubset(int[] small, int smallCount, int[] big, int bigCount, int extraMines) {
+        int differenceCount = 0;
+        int s = 0;
+        for (int b = 0; b < bigCount; b++) {
+            if (s < smallCount && small[s] == big[b]) {
+                s++;
+            } else {
+                difference[differenceCount++] = big[b];
+            }
+        }
+        if (extraMines == 0) {
+            for (int i = 0; i < differenceCount; i++) markSafe(difference[i]);
+        } else if (extraMines == differenceCount) {
+            for (int i = 0; i < differenceCount; i++) markMine(difference[i]);
+        }
+    }
+
+    /**
+     * checks if every square in small is also in big. both lists are sorted
+     *
+     * @param small      the list that might be inside the other
+     * @param smallCount how many squares are in it
+     * @param big        the list that might contain it
+     * @param bigCount   how many squares are in it
+     * @return true if small is a subset of big
+     */
+    private static boolean isSubset(int[] small, int smallCount, int[] big, int bigCount) {
+        int b = 0;
+        for (int s = 0; s < smallCount; s++) {
+            while (b < bigCount && big[b] < small[s]) b++;
+            if (b == bigCount || big[b] != small[s]) return false;
+            b++;
+        }
+        return true;
+    }
+
+    /**
+     * lists the hidden squares around a number that aren't known to be safe or
+     * mines, and leaves how many mines they still have to hold in hiddenNeed
+     *
+     * @param cellIndex a revealed square
+     * @param hidden    where to put them, in ascending order
+     * @return how many there are
+     */
+    private int collectHidden(int cellIndex, int[] hidden) {
+        int neighborCount = board.getNeighbors(cellIndex, neighborBuffer);
+        int count = 0;
+        int mines = 0;
+        for (int i = 0; i < neighborCount; i++) {
+            int neighbor = neighborBuffer[i];
+            if (knowledge[neighbor] == MINE || board.isFlagged(neighbor)) {
+                mines++;
+            } else if (!board.isRevealed(neighbor) && knowledge[neighbor] == UNKNOWN) {
+                hidden[count++] = neighbor;
+            }
+        }
+        hiddenNeed = board.getAdjacentMineCount(cellIndex) - mines;
+        return count;
+    }
+
+    /**
+     * remembers that a square is safe and queues the numbers around it
+     *
+     * @param cellIndex the safe square
+     */
+    private void markSafe(int cellIndex) {
+        if (knowledge[cellIndex] != UNKNOWN) return;
+        knowledge[cellIndex] = SAFE;
+        marks++;
+        safeStack[safeSize++] = cellIndex;
+        enqueueRevealedNeighbors(cellIndex);
+    }
+
+    /**
+     * remembers that a square has a mine and queues the numbers around it
+     *
+     * @param cellIndex the mined square
+     */
+    private void markMine(int cellIndex) {
+        if (knowledge[cellIndex] != UNKNOWN) return;
+        knowledge[cellIndex] = MINE;
+        knownMines++;
+        marks++;
+        enqueueRevealedNeighbors(cellIndex);
+    }
+
+    /**
+     * queues every revealed number next to a square
+     *
+     * @param cellIndex the square whose neighbors to queue
+     */
+    private void enqueueRevealedNeighbors(int cellIndex) {
+        int neighborCount = board.getNeighbors(cellIndex, queueBuffer);
+        for (int i = 0; i < neighborCount; i++) {
+            if (board.isRevealed(queueBuffer[i])) enqueue(queueBuffer[i]);
+        }
+    }
+
+    /**
+     * puts a square on the dirty queue unless it's already there
+     *
+     * @param cellIndex the square to queue
+     */
+    private void enqueue(int cellIndex) {
+        if (queued[cellIndex]) return;
+        queued[cellIndex] = true;
+        int tail = dirtyHead + dirtySize;
+        if (tail >= dirtyQueue.length) tail -= dirtyQueue.length;
+        dirtyQueue[tail] = cellIndex;
+        dirtySize++;
+    }
+
+    /**
+     * finds the root of a frontier square's piece, shortening the path as it goes
+     *
+     * @param parent the union-find parents
+     * @param i      the frontier square's number
+     * @return the root's number
+     */
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * sorts the constraint numbers into their pieces
+     *
+     * @param constraintCells the revealed numbers with unresolved squares around them
+     * @param constraintCount how many there are
+     * @param frontierId      each frontier square's number, -1 for the rest
+     * @param pieceOf         which piece each frontier square is in
+     * @param pieceCount      how many pieces there are
+     * @return the constraint squares of each piece
+     */
+    private int[][] groupConstraints(int[] constraintCells, int constraintCount, int[] frontierId,
+                                     int[] pieceOf, int pieceCount) {
+        int[] sizes = new int[pieceCount];
+        int[] pieceOfConstraint = new int[constraintCount];
+        for (int c = 0; c < constraintCount; c++) {
+            collectHidden(constraintCells[c], hiddenA);
+            pieceOfConstraint[c] = pieceOf[frontierId[hiddenA[0]]];
+            sizes[pieceOfConstraint[c]]++;
+        }
+        int[][] grouped = new int[pieceCount][];
+        for (int p = 0; p < pieceCount; p++) {
+            grouped[p] = new int[sizes[p]];
+            sizes[p] = 0;
+        }
+        for (int c = 0; c < constraintCount; c++) {
+            int p = pieceOfConstraint[c];
+            grouped[p][sizes[p]++] = constraintCells[c];
+        }
+        return grouped;
+    }
+
+    /**
+     * counts every mine layout for one piece of the frontier, reusing the
+     * answer if the same squares and numbers were counted before
+     *
+     * @param constraints the revealed numbers that make up the piece
+     * @return the layout counts for the piece
+     */
+    private Component countPiece(int[] constraints) {
+        StringBuilder key = new StringBuilder();
+        for (int constraint : constraints) {
+            int hidden = collectHidden(constraint, hiddenA);
+            key.append(hiddenNeed).append(':');
+            for (int i = 0; i < hidden; i++) key.append(hiddenA[i]).append(',');
+            key.append(';');
+        }
+        String memoKey = key.toString();
+        Component cached = memo.get(memoKey);
+        if (cached != null) return cached;
+
+        Component piece = new Component(constraints);
+        if (memo.size() >= MEMO_LIMIT) memo.clear();
+        memo.put(memoKey, piece);
+        return piece;
+    }
+
+    /**
+     * puts the pieces and the squares away from the frontier together into one
+     * chance per square. a layout with k frontier mines leaves minesLeft - k mines
+     * for the interior squares, which can go C(interior, minesLeft - k) ways, so
+     * every piece's counts get weighted by that across all the other pieces
+     *
+     * @param pieces        the counted frontier pieces
+     * @param interior      how many unresolved squares aren't next to any number
+     * @param minesLeft     how many mines aren't known or estimated yet
+     * @param probabilities where to write the chances
+     */
+    private void combine(Component[] pieces, int interior, int minesLeft, double[] probabilities) {
+        ensureLogFactorials(board.getCellCount());
+        int pieceCount = pieces.length;
+
+        // prefix[i] is the combined mine count weights of pieces before i, suffix[i] of pieces from i on
+        double[][] prefix = new double[pieceCount + 1][];
+        double[][] suffix = new double[pieceCount + 1][];
+        prefix[0] = new double[] {1};
+        suffix[pieceCount] = new double[] {1};
+        for (int p = 0; p < pieceCount; p++) {
+            prefix[p + 1] = convolve(prefix[p], pieces[p].weights());
+        }
+        for (int p = pieceCount - 1; p >= 0; p--) {
+            suffix[p] = convolve(pieces[p].weights(), suffix[p + 1]);
+        }
+        double[] all = prefix[pieceCount];
+
+        double base = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < all.length; k++) {
+            if (all[k] > 0) base = Math.max(base, logChoose(interior, minesLeft - k));
+        }
+        double total = 0;
+        for (int k = 0; k < all.length; k++) {
+            total += all[k] * Math.exp(logChoose(interior, minesLeft - k) - base);
+        }
+
+        if (!(total > 0)) {
+            // the visible board contradicts itself (usually a wrong flag), so fall back to the plain density
+            int hidden = interior;
+            for (Component piece : pieces) hidden += piece.cells.length;
+            double density = hidden == 0 ? 0 : Math.min(1, (double) minesLeft / hidden);
+            fillUnknown(probabilities, density);
+            for (Component piece : pieces) {
+                for (int cell : piece.cells) probabilities[cell] = density;
+            }
+            return;
+        }
+
+        double interiorProbability = 0;
+        if (interior > 0) {
+            for (int k = 0; k < all.length; k++) {
+                interiorProbability += all[k] * Math.exp(logChoose(interior - 1, minesLeft - k - 1) - base);
+            }
+            interiorProbability /= total;
+        }
+        fillUnknown(probabilities, interiorProbability);
+
+        for (int p = 0; p < pieceCount; p++) {
+            Component piece = pieces[p];
+            if (piece.estimated) {
+                for (int v = 0; v < piece.cells.length; v++) {
+                    probabilities[piece.cells[v]] = piece.estimates[v];
+                }
+                continue;
+            }
+            double[] others = convolve(prefix[p], suffix[p + 1]);
+            double[] weightOfK = new double[piece.layouts.length];
+            for (int k = 0; k < weightOfK.length; k++) {
+                double weight = 0;
+                for (int j = 0; j < others.length; j++) {
+                    if (others[j] > 0) weight += others[j] * Math.exp(logChoose(interior, minesLeft - k - j) - base);
+                }
+                weightOfK[k] = weight;
+            }
+            for (int v = 0; v < piece.cells.length; v++) {
+                double mineWeight = 0;
+                double[] minesByK = piece.mineLayouts[v];
+                for (int k = 0; k < minesByK.length; k++) {
+                    mineWeight += minesByK[k] * weightOfK[k];
+                }
+                probabilities[piece.cells[v]] = Math.min(1, mineWeight / total);
+            }
+        }
+    }
+
+    /**
+     * writes a chance into every hidden square that isn't known yet
+     *
+     * @param probabilities the chances being filled in
+     * @param probability   the chance to write
+     */
+    private void fillUnknown(double[] probabilities, double probability) {
+        for (int cellIndex = 0; cellIndex < probabilities.length; cellIndex++) {
+            if (!board.isRevealed(cellIndex) && knowledge[cellIndex] == UNKNOWN && !board.isFlagged(cellIndex)) {
+                probabilities[cellIndex] = probability;
+            }
+        }
+    }
+
+    /**
+     * multiplies two mine count weight lists together like polynomials
+     *
+     * @param a the first list, indexed by mine count
+     * @param b the second list, indexed by mine count
+     * @return the combined list
+     */
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * works out log of n choose k, or negative infinity when there's no way to choose
+     *
+     * @param n how many to choose from
+     * @param k how many to choose
+     * @return the log of the number of ways
+     */
+    private double logChoose(int n, int k) {
+        if (k < 0 || k > n || n < 0) return Double.NEGATIVE_INFINITY;
+        return logFactorial[n] - logFactorial[k] - logFactorial[n - k];
+    }
+
+    /**
+     * makes sure the log factorial table goes up to n
+     *
+     * @param n the biggest value needed
+     */
+    private void ensureLogFactorials(int n) {
+        if (logFactorial.length > n) return;
+        logFactorial = new double[n + 1];
+        for (int i = 1; i <= n; i++) {
+            logFactorial[i] = logFactorial[i - 1] + Math.log(i);
+        }
+    }
+
+    /**
+     * one separate piece of the frontier and how many mine layouts it has.
+     * layouts[k] is how many ways the piece can hold k mines and
+     * mineLayouts[v][k] is how many of those put a mine on square v
+     */
+    private class Component {
+        /** the frontier squares in this piece, in search order */
+        final int[] cells;
+        /** how many layouts hold each number of mines, scaled so the biggest is 1 */
+        final double[] layouts;
+        /** for each square, how many layouts with each number of mines put a mine there */
+        final double[][] mineLayouts;
+        /** true if the piece was too big to count and its chances are only estimated */
+        final boolean estimated;
+        /** the estimated chance for each square when the piece was too big to count */
+        final double[] estimates;
+        /** how many mines the estimate expects in this piece */
+        final double estimatedMines;
+
+        /** the numbers' squares, as indexes into cells */
+        private final int[][] constraintVars;
+        /** how many mines each number still needs */
+        private final int[] constraintNeed;
+        /** how many mines have been put around each number so far in the search */
+        private final int[] constraintMines;
+        /** how many of each number's squares haven't been decided yet in the search */
+        private final int[] constraintOpen;
+        /** which numbers each square touches */
+        private final int[][] varConstraints;
+        /** the current layout being built: -1 undecided, 0 safe, 1 mine */
+        private final byte[] value;
+        /** the squares decided so far, in order, so choices can be undone */
+        private final int[] trail;
+        /** how many squares are on the trail */
+        private int trailSize;
+        /** how many mines the current layout has */
+        private int mineTotal;
+        /** how many search steps are left before giving up */
+        private int budget = ENUMERATION_BUDGET;
+
+        /**
+         * counts all the layouts for the piece made by these numbers
+         *
+         * @param constraints the revealed numbers in the piece
+         */
+        Component(int[] constraints) {
+            // order the squares number by number so each number gets fully decided early
+            int[] order = new int[constraints.length * 8];
+            int cellCount = 0;
+            HashMap<Integer, Integer> varOf = new HashMap<>();
+            constraintVars = new int[constraints.length][];
+            constraintNeed = new int[constraints.length];
+            for (int c = 0; c < constraints.length; c++) {
+                int hidden = collectHidden(constraints[c], hiddenA);
+                constraintNeed[c] = hiddenNeed;
+                constraintVars[c] = new int[hidden];
+                for (int i = 0; i < hidden; i++) {
+                    Integer var = varOf.get(hiddenA[i]);
+                    if (var == null) {
+                        var = cellCount;
+                        varOf.put(hiddenA[i], var);
+                        order[cellCount++] = hiddenA[i];
+                    }
+                    constraintVars[c][i] = var;
+                }
+            }
+            cells = Arrays.copyOf(order, cellCount);
+
+            int[] touchCount = new int[cellCount];
+            for (int[] vars : constraintVars) for (int var : vars) touchCount[var]++;
+            varConstraints = new int[cellCount][];
+            for (int v = 0; v < cellCount; v++) varConstraints[v] = new int[touchCount[v]];
+            Arrays.fill(touchCount, 0);
+            for (int c = 0; c < constraintVars.length; c++) {
+                for (int var : constraintVars[c]) varConstraints[var][touchCount[var]++] = c;
+            }
+
+            constraintMines = new int[constraints.length];
+            constraintOpen = new int[constraints.length];
+            for (int c = 0; c < constraints.length; c++) constraintOpen[c] = constraintVars[c].length;
+            value = new byte[cellCount];
+            Arrays.fill(value, (byte) -1);
+            trail = new int[cellCount];
+            boolean small = cellCount <= MAX_PIECE_CELLS;
+            double[] layoutCounts = new double[small ? cellCount + 1 : 0];
+            double[][] mineCounts = new double[small ? cellCount : 0][cellCount + 1];
+
+            boolean finished = small && search(0, layoutCounts, mineCounts);
+            if (finished) {
+                double scale = 0;
+                for (double count : layoutCounts) scale = Math.max(scale, count);
+                if (scale == 0) scale = 1;
+                for (int k = 0; k <= cellCount; k++) layoutCounts[k] /= scale;
+                for (double[] counts : mineCounts) {
+                    for (int k = 0; k <= cellCount; k++) counts[k] /= scale;
+                }
+                layouts = layoutCounts;
+                mineLayouts = mineCounts;
+                estimated = false;
+                estimates = null;
+                estimatedMines = 0;
+            } else {
+                // too many layouts to count, use each square's worst local mine density instead
+                layouts = new double[] {1};
+                mineLayouts = null;
+                estimated = true;
+                estimates = new double[cellCount];
+                double expected = 0;
+                for (int v = 0; v < cellCount; v++) {
+                    for (int c : varConstraints[v]) {
+                        double density = (double) constraintNeed[c] / constraintVars[c].length;
+                        estimates[v] = Math.max(estimates[v], density);
+                    }
+                    expected += estimates[v];
+                }
+                estimatedMines = expected;
+            }
+        }
+
+        /**
+         * gets the mine count weights to combine with other pieces
+         *
+         * @return layouts, or just {1} for an estimated piece so it doesn't affect the others
+         */
+        double[] weights() {
+            return layouts;
+        }
+
+        /**
+         * tries the next undecided square as safe and then as a mine, lets the
+         * numbers force whatever squares they can after each choice, backs out of
+         * any choice that breaks a number, and tallies every complete layout
+         *
+         * @param next         where to start looking for an undecided square
+         * @param layoutCounts layout tallies by mine count
+         * @param mineCounts   per-square mine tallies by mine count
+         * @return false if the search ran out of steps
+         */
+        private boolean search(int next, double[] layoutCounts, double[][] mineCounts) {
+            if (--budget < 0) return false;
+            while (next < cells.length && value[next] >= 0) next++;
+            if (next == cells.length) {
+                layoutCounts[mineTotal]++;
+                for (int v = 0; v < cells.length; v++) {
+                    if (value[v] == 1) mineCounts[v][mineTotal]++;
+                }
+                return true;
+            }
+
+            for (byte choice = 0; choice <= 1; choice++) {
+                int mark = trailSize;
+                if (assign(next, choice) && settle(mark)) {
+                    if (!search(next + 1, layoutCounts, mineCounts)) return false;
+                }
+                undo(mark);
+            }
+            return true;
+        }
+
+        /**
+         * decides a square and updates the numbers touching it
+         *
+         * @param var    the square being decided
+         * @param choice 1 for a mine, 0 for safe
+         * @return true if every number it touches can still be satisfied
+         */
+        private boolean assign(int var, byte choice) {
+            value[var] = choice;
+            trail[trailSize++] = var;
+            mineTotal += choice;
+            boolean valid = true;
+            for (int c : varConstraints[var]) {
+                constraintOpen[c]--;
+                constraintMines[c] += choice;
+                if (constraintMines[c] > constraintNeed[c]
+                        || constraintMines[c] + constraintOpen[c] < constraintNeed[c]) {
+                    valid = false;
+                }
+            }
+            return valid;
+        }
+
+        /**
+         * walks the squares decided since mark, and whenever a number they touch
+         * has all its mines (or needs all its open squares) decides the rest of
+         * its squares too. squares decided here go on the trail and get walked as well
+         *
+         * @param mark where on the trail to start
+         * @return false if a forced square broke a number
+         */
+        private boolean settle(int mark) {
+            for (int t = mark; t < trailSize; t++) {
+                for (int c : varConstraints[trail[t]]) {
+                    if (constraintOpen[c] == 0) continue;
+                    byte forced;
+                    if (constraintMines[c] == constraintNeed[c]) {
+                        forced = 0;
+                    } else if (constraintMines[c] + constraintOpen[c] == constraintNeed[c]) {
+                        forced = 1;
+                    } else {
+                        continue;
+                    }
+                    for (int other : constraintVars[c]) {
+                        if (value[other] < 0 && !assign(other, forced)) return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * undecides every square put on the trail since mark
+         *
+         * @param mark the trail length to go back to
+         */
+        private void undo(int mark) {
+            while (trailSize > mark) {
+                int var = trail[--trailSize];
+                byte choice = value[var];
+                for (int c : varConstraints[var]) {
+                    constraintOpen[c]++;
+                    constraintMines[c] -= choice;
+                }
+                mineTotal -= choice;
+                value[var] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * this class loads the tile pictures once for the whole program and hands out
+ * copies already shrunk or grown to the size squares are drawn at, so opening
+ * a new window or restarting doesn't touch the files and painting doesn't
+ * have to rescale anything
+ *
+ * @author Omar Firdaus, Peyton Dao
+ * @version .29alphaOmegagammaEpsilon
+ */
+package minesweeper;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a process-wide cache of the tile pictures, scaled once per square size
+ */
+public final class SpriteCache {
+    /** where the flag picture is in a sprite array, after the numbers 0 to 8 */
+    public static final int FLAG = 9;
+    /** where the mine picture is in a sprite array */
+    public static final int MINE = 10;
+    /** how many square sizes are kept before the least recently used one is dropped */
+    private static final int MAX_SIZES = 8;
+    /** the picture files, in sprite array order */
+    private static final String[] FILE_NAMES = {
+            "blank.png", "one.png", "two.png", "three.png", "four.png", "five.png",
+            "six.png", "seven.png", "eight.png", "flag.png", "mine.png"
+    };
+
+    /** the pictures as they came out of the files, read the first time anyone asks */
+    private static BufferedImage[] originals;
+    /**
+     * the scaled pictures for each square size, oldest use first. they're soft
+     * references so the garbage collector can take back sizes nobody's drawing
+     * at when memory gets tight
+     */
+    private static final Map<Integer, SoftReference<Image[]>> scaledSprites =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, SoftReference<Image[]>> eldest) {
+                    return size() > MAX_SIZES;
+                }
+            };
+
+    /** nothing to make, everything here is static */
+    private SpriteCache() {
+    }
+
+    /**
+     * gets the tile pictures scaled to a size. the array is shared, so don't change it
+     *
+     * @param size how many pixels wide and tall the pictures should be
+     * @return the number pictures for 0 to 8 nearby mines, then FLAG and MINE
+     */
+    public static synchronized Image[] getSprites(int size) {
+        if (size <= 0) throw new IllegalArgumentException("sprite size must be positive: " + size);
+        SoftReference<Image[]> reference = scaledSprites.get(size);
+        Image[] sprites = reference == null ? null : reference.get();
+        if (sprites == null) {
+            if (originals == null) originals = loadOriginals();
+            sprites = new Image[originals.length];
+            for (int i = 0; i < originals.length; i++) {
+                sprites[i] = scale(originals[i], size);
+            }
+            scaledSprites.put(size, new SoftReference<>(sprites));
+        }
+        return sprites;
+    }
+
+    /**
+     * reads every picture from the classpath, next to this class
+     *
+     * @return the pictures in sprite array order
+     */
+    private static BufferedImage[] loadOriginals() {
+        BufferedImage[] images = new BufferedImage[FILE_NAMES.length];
+        for (int i = 0; i < FILE_NAMES.length; i++) {
+            try (InputStream in = SpriteCache.class.getResourceAsStream(FILE_NAMES[i])) {
+                if (in == null) throw new IllegalStateException("missing tile image " + FILE_NAMES[i]);
+                images[i] = ImageIO.read(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("couldn't read tile image " + FILE_NAMES[i], e);
+            }
+        }
+        return images;
+    }
+
+    /**
+     * draws a picture into a new one of the given size, in the screen's own
+     * pixel format when there is a screen so it copies to the window quickly
+     *
+     * @param original the picture to scale
+     * @param size     how many pixels wide and tall the result should be
+     * @return the scaled picture
+     */
+    private static Image scale(BufferedImage original, int size) {
+        BufferedImage scaled;
+        if (GraphicsEnvironment.isHeadless()) {
+            scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            scaled = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+        }
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(original, 0, 0, size, size, null);
+        g.dispose();
+        return scaled;
+    }
+}
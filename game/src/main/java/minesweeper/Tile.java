@@ -6,6 +6,8 @@
  * @author Omar Firdaus, Peyton Dao
  * @version .29alphaOmegagammaEpsilon
  */
+package minesweeper;
+
 import java.util.ArrayList;
 
 /**